@@ -18,5 +18,8 @@ sealed class RecordServiceState : Parcelable {
     data class Error(val message: String) : RecordServiceState()
     
     @Parcelize
-    data class Completed(val filePath: String) : RecordServiceState()
+    data class Completed(
+        val filePath: String,
+        val streamed: Boolean = false // 실시간 전송으로 서버 파일까지 완성됨
+    ) : RecordServiceState()
 }
@@ -0,0 +1,19 @@
+// model/SttJob.kt
+package com.ibkpoc.amn.model
+
+// 서버 STT 작업 상태 (QUEUED, RUNNING, DONE, FAILED)
+data class SttJob(
+    val jobId: Long,
+    val meetingId: Long,
+    val status: String,
+    val attempts: Int? = null,
+    val error: String? = null
+) {
+    val isFinished: Boolean
+        get() = status == DONE || status == FAILED
+
+    companion object {
+        const val DONE = "DONE"
+        const val FAILED = "FAILED"
+    }
+}
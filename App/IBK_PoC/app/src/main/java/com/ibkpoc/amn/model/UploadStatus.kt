@@ -0,0 +1,20 @@
+// model/UploadStatus.kt
+package com.ibkpoc.amn.model
+
+import android.util.Base64
+import java.util.BitSet
+
+data class UploadStatus(
+    val meetingId: Long,
+    val complete: Boolean,
+    val totalChunks: Int? = null,
+    val receivedChunks: Int? = null,
+    val receivedBitmap: String? = null,
+    val totalBytes: Long? = null,
+    val timeoutRemainingMs: Long? = null,
+    val recommendedParallelism: Int? = null
+) {
+    // 서버 비트맵: 청크 i는 byte[i/8]의 (i%8)번째 비트 (java.util.BitSet 직렬화 형식)
+    fun receivedChunkSet(): BitSet =
+        receivedBitmap?.let { BitSet.valueOf(Base64.decode(it, Base64.DEFAULT)) } ?: BitSet()
+}
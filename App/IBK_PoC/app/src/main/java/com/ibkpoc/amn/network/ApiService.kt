@@ -29,6 +29,27 @@ interface ApiService {
         @Part file: MultipartBody.Part
     ): Response<CommonResponse<Unit>>
 
+    // multipart 없이 청크 본문을 그대로 전송 (서버가 파일 위치로 바로 기록)
+    @PUT("/meeting/upload/{meetingId}/chunks/{chunk}")
+    suspend fun uploadWavChunkStream(
+        @Path("meetingId") meetingId: Long,
+        @Path("chunk") chunk: Int,
+        @Query("totalChunks") totalChunks: Int,
+        @Query("startTime") startTime: String,
+        @Body body: RequestBody
+    ): Response<CommonResponse<Unit>>
+
+    @GET("/meeting/upload/{meetingId}/status")
+    suspend fun getUploadStatus(
+        @Path("meetingId") meetingId: Long
+    ): Response<CommonResponse<UploadStatus>>
+
+    // 작업만 등록하고 202 반환, 완료 여부는 getSttJob으로 확인
     @POST("/meeting/stt-request")
-    suspend fun convertWavToStt(@Body request: SttRequest): Response<CommonResponse<Unit>>
+    suspend fun convertWavToStt(@Body request: SttRequest): Response<CommonResponse<SttJob>>
+
+    @GET("/meeting/stt-jobs/{jobId}")
+    suspend fun getSttJob(
+        @Path("jobId") jobId: Long
+    ): Response<CommonResponse<SttJob>>
 }
\ No newline at end of file
@@ -13,20 +13,31 @@ import okhttp3.MultipartBody
 import okhttp3.RequestBody.Companion.asRequestBody
 import okhttp3.RequestBody.Companion.toRequestBody
 import java.io.File
+import java.io.FileInputStream
+import java.nio.ByteBuffer
 import java.text.SimpleDateFormat
 import java.util.*
+import java.util.concurrent.atomic.AtomicLong
 import javax.inject.Inject
-import kotlinx.coroutines.sync.Mutex
-import kotlinx.coroutines.sync.withLock
+import kotlinx.coroutines.sync.Semaphore
+import kotlinx.coroutines.sync.withPermit
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
 
 class MeetingRepositoryImpl @Inject constructor(
     private val apiService: ApiService
 ) : MeetingRepository {
-    private val uploadMutex = Mutex()
-    
+
     companion object {
         private const val CHUNK_SIZE = 4 * 1024 * 1024  // 4MB
+        private const val MAX_BUSY_RETRIES = 5
+        private const val DEFAULT_PARALLELISM = 4
+        private const val DEFAULT_RETRY_AFTER_SECONDS = 2L
+        private const val STT_POLL_INTERVAL_MS = 3000L
+        private const val STT_TIMEOUT_MS = 60 * 60 * 1000L
     }
 
     override suspend fun startMeeting(participantCount: Int): Flow<NetworkResult<MeetingSession>> = flow {
@@ -84,27 +95,46 @@ class MeetingRepositoryImpl @Inject constructor(
                 
                 Logger.i("파일 업로드 시작: 총 ${totalChunks}개 청크")
                 
-                file.inputStream().use { input ->
-                    val buffer = ByteArray(CHUNK_SIZE)
-                    var chunkNumber = 0
-                    var totalBytesUploaded = 0L
-                    
-                    while (true) {
-                        val bytesRead = input.read(buffer)
-                        if (bytesRead <= 0) break
-                        
-                        val chunkData = if (bytesRead == buffer.size) buffer else buffer.copyOf(bytesRead)
-                        totalBytesUploaded += bytesRead
-                        
-                        val chunkUploadData = wavUploadData.copy(
-                            totalChunks = totalChunks.toInt(),
-                            currentChunk = chunkNumber++,
-                            chunkData = chunkData
-                        )
-                        
-                        uploadChunk(chunkUploadData)
-                        
-                        Logger.i("업로드 진행률: ${(totalBytesUploaded * 100 / file.length())}%")
+                // 서버가 이미 받은 청크는 건너뛰고 빠진 청크만 전송
+                val status = fetchUploadStatus(wavUploadData.meetingId)
+                if (status?.complete == true) {
+                    Logger.i("서버에 이미 업로드 완료된 파일")
+                } else {
+                    val received = status?.receivedChunkSet() ?: BitSet()
+                    if (status != null) {
+                        Logger.i("업로드 재개: 서버 수신 ${status.receivedChunks}/${status.totalChunks}개 청크")
+                    }
+                    // 서버 권장 수만큼 청크를 동시에 전송 (순서는 서버가 오프셋으로 맞춤)
+                    val parallelism = status?.recommendedParallelism ?: DEFAULT_PARALLELISM
+                    val permits = Semaphore(parallelism)
+                    val uploadedBytes = AtomicLong(0)
+                    FileInputStream(file).channel.use { channel ->
+                        (0 until totalChunks.toInt())
+                            .filterNot { received.get(it) }
+                            .map { chunkNumber ->
+                                async(Dispatchers.IO) {
+                                    permits.withPermit {
+                                        val offset = chunkNumber.toLong() * CHUNK_SIZE
+                                        val size = minOf(CHUNK_SIZE.toLong(), file.length() - offset).toInt()
+                                        val buffer = ByteBuffer.allocate(size)
+                                        while (buffer.hasRemaining()) {
+                                            if (channel.read(buffer, offset + buffer.position()) < 0) break
+                                        }
+
+                                        val chunkUploadData = wavUploadData.copy(
+                                            totalChunks = totalChunks.toInt(),
+                                            currentChunk = chunkNumber,
+                                            chunkData = buffer.array()
+                                        )
+
+                                        uploadChunk(chunkUploadData)
+
+                                        val uploaded = uploadedBytes.addAndGet(size.toLong())
+                                        Logger.i("업로드 진행률: ${(uploaded * 100 / file.length())}%")
+                                    }
+                                }
+                            }
+                            .awaitAll()
                     }
                 }
                 
@@ -122,10 +152,30 @@ class MeetingRepositoryImpl @Inject constructor(
         try {
             val request = SttRequest(meetingId)
             val response = apiService.convertWavToStt(request)
-            if (response.isSuccessful) {
+            val job = response.body()?.data
+            if (!response.isSuccessful || job == null) {
+                emit(NetworkResult.Error(response.code(), "STT 변환 실패: ${response.message()}"))
+                return@flow
+            }
+
+            // 요청은 작업 등록만 하므로 작업이 DONE/FAILED가 될 때까지 상태를 조회
+            Logger.i("STT 작업 등록: jobId=${job.jobId}, status=${job.status}")
+            val deadline = System.currentTimeMillis() + STT_TIMEOUT_MS
+            var current: SttJob = job
+            while (!current.isFinished) {
+                if (System.currentTimeMillis() > deadline) {
+                    emit(NetworkResult.Error(0, "STT 변환 시간 초과: jobId=${job.jobId}"))
+                    return@flow
+                }
+                delay(STT_POLL_INTERVAL_MS)
+                val status = apiService.getSttJob(job.jobId)
+                current = status.body()?.data?.takeIf { status.isSuccessful } ?: continue
+            }
+
+            if (current.status == SttJob.DONE) {
                 emit(NetworkResult.Success(Unit))
             } else {
-                emit(NetworkResult.Error(response.code(), "STT 변환 실패: ${response.message()}"))
+                emit(NetworkResult.Error(0, "STT 변환 실패: ${current.error ?: "알 수 없는 오류"}"))
             }
         } catch (e: Exception) {
             emit(NetworkResult.Error(0, "STT 변환 중 오류 발생: ${e.message}"))
@@ -134,43 +184,51 @@ class MeetingRepositoryImpl @Inject constructor(
 
 
     private suspend fun uploadChunk(chunkData: WavUploadData) {
-        uploadMutex.withLock {
-            val meetingIdBody = chunkData.meetingId.toString()
-                .toRequestBody("text/plain".toMediaTypeOrNull())
-            val startTimeBody = chunkData.startTime
-                .toRequestBody("text/plain".toMediaTypeOrNull())
-            val durationBody = chunkData.duration.toString()
-                .toRequestBody("text/plain".toMediaTypeOrNull())
-            val currentChunkBody = chunkData.currentChunk.toString()
-                .toRequestBody("text/plain".toMediaTypeOrNull())
-            val totalChunksBody = chunkData.totalChunks.toString()
-                .toRequestBody("text/plain".toMediaTypeOrNull())
-            
-            val chunkPart = MultipartBody.Part.createFormData(
-                "file", 
-                "chunk_${chunkData.currentChunk}.wav",
-                chunkData.chunkData.toRequestBody("audio/wav".toMediaTypeOrNull())
+        val body = chunkData.chunkData.toRequestBody("application/octet-stream".toMediaTypeOrNull())
+        
+        try {
+            var attempt = 0
+            var response = apiService.uploadWavChunkStream(
+                meetingId = chunkData.meetingId,
+                chunk = chunkData.currentChunk,
+                totalChunks = chunkData.totalChunks,
+                startTime = chunkData.startTime,
+                body = body
             )
-            
-            try {
-                val response = apiService.uploadWavChunk(
-                    meetingId = meetingIdBody,
-                    startTime = startTimeBody,
-                    duration = durationBody,
-                    currentChunk = currentChunkBody,
-                    totalChunks = totalChunksBody,
-                    file = chunkPart
+
+            // 서버 업로드 예산 초과(429/503)면 Retry-After 만큼 기다렸다가 재전송
+            while ((response.code() == 429 || response.code() == 503) && attempt++ < MAX_BUSY_RETRIES) {
+                val retryAfter = response.headers()["Retry-After"]?.toLongOrNull()
+                    ?: DEFAULT_RETRY_AFTER_SECONDS
+                Logger.i("서버 혼잡, ${retryAfter}초 후 재전송: ${chunkData.currentChunk}")
+                delay(retryAfter * 1000)
+                response = apiService.uploadWavChunkStream(
+                    meetingId = chunkData.meetingId,
+                    chunk = chunkData.currentChunk,
+                    totalChunks = chunkData.totalChunks,
+                    startTime = chunkData.startTime,
+                    body = body
                 )
-                
-                if (!response.isSuccessful) {
-                    throw Exception("청크 업로드 실패: ${response.message()}")
-                }
-                
-                Logger.i("청크 업로드 성공: ${chunkData.currentChunk}/${chunkData.totalChunks}")
-            } catch (e: Exception) {
-                Logger.e("청크 업로드 중 오류", e)
-                throw e
             }
+
+            if (!response.isSuccessful) {
+                throw Exception("청크 업로드 실패: ${response.message()}")
+            }
+            
+            Logger.i("청크 업로드 성공: ${chunkData.currentChunk}/${chunkData.totalChunks}")
+        } catch (e: Exception) {
+            Logger.e("청크 업로드 중 오류", e)
+            throw e
+        }
+    }
+
+    private suspend fun fetchUploadStatus(meetingId: Long): UploadStatus? {
+        return try {
+            val response = apiService.getUploadStatus(meetingId)
+            if (response.isSuccessful) response.body()?.data else null
+        } catch (e: Exception) {
+            Logger.e("업로드 상태 조회 실패, 처음부터 전송", e)
+            null
         }
     }
 
@@ -29,6 +29,7 @@ import android.net.Uri
 import com.ibkpoc.amn.model.RecordServiceState
 import com.ibkpoc.amn.event.RecordingStateEvent
 import com.ibkpoc.amn.event.EventBus
+import okhttp3.OkHttpClient
 
 @AndroidEntryPoint
 class AudioRecordService : Service() {
@@ -41,7 +42,11 @@ class AudioRecordService : Service() {
         private const val TAG = "AudioRecordService"
     }
 
+    @Inject
+    lateinit var okHttpClient: OkHttpClient
+
     private var audioRecord: AudioRecord? = null
+    private var liveStreamer: LiveAudioStreamer? = null
     private var noiseSuppressor: NoiseSuppressor? = null
     private var fileOutputStream: FileOutputStream? = null
     private var isRecording = false
@@ -134,6 +139,11 @@ class AudioRecordService : Service() {
             // 파일 생성
             recordFile = File(currentFilePath ?: throw IllegalStateException("파일 경로가 없습니다"))
             fileOutputStream = FileOutputStream(recordFile)
+
+            // 녹음과 동시에 서버로 실시간 전송 (로컬 파일을 재전송 버퍼로 사용)
+            liveStreamer = LiveAudioStreamer(
+                okHttpClient, currentMeetingId, currentStartTime, sampleRate, recordFile!!, serviceScope
+            ).also { it.start() }
             
             // 녹음 초기화
             audioRecord = AudioRecord(
@@ -175,6 +185,7 @@ class AudioRecordService : Service() {
                 if (readSize > 0) {
                     fileOutputStream?.write(buffer, 0, readSize)
                     fileOutputStream?.flush()
+                    liveStreamer?.notifyData()
                 }
             } catch (e: Exception) {
                 Logger.e("녹음 중 오류: ${e.message}")
@@ -201,9 +212,12 @@ class AudioRecordService : Service() {
             fileOutputStream?.close()
             noiseSuppressor?.release()
             
+            val streamer = liveStreamer
             currentFilePath?.let { path ->
                 serviceScope.launch {
-                    broadcastState(RecordServiceState.Completed(path))
+                    // 남은 PCM 전송이 끝나면 서버 파일도 완성되어 별도 업로드가 필요 없음
+                    val streamed = streamer?.finish() ?: false
+                    broadcastState(RecordServiceState.Completed(path, streamed))
                 }
             }
         } catch (e: Exception) {
@@ -212,6 +226,7 @@ class AudioRecordService : Service() {
             }
         } finally {
             audioRecord = null
+            liveStreamer = null
             fileOutputStream = null
             noiseSuppressor = null
         }
@@ -0,0 +1,167 @@
+// service/LiveAudioStreamer.kt
+package com.ibkpoc.amn.service
+
+import com.ibkpoc.amn.config.Config
+import com.ibkpoc.amn.util.Logger
+import kotlinx.coroutines.*
+import kotlinx.coroutines.channels.Channel
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.WebSocket
+import okhttp3.WebSocketListener
+import okio.ByteString.Companion.toByteString
+import org.json.JSONObject
+import java.io.File
+import java.io.RandomAccessFile
+
+/**
+ * 녹음 중인 로컬 PCM 파일을 서버(ws /meeting/live)로 실시간 전송한다.
+ * 로컬 파일이 곧 재전송 버퍼이므로, 끊기면 다시 연결해 서버가 알려준 offset부터 파일을 읽어 이어 보낸다.
+ * OkHttp 송신 큐가 MAX_QUEUED_BYTES를 넘으면 전송을 멈추고 기다린다(느린 네트워크에서 메모리 증가 방지).
+ */
+class LiveAudioStreamer(
+    private val client: OkHttpClient,
+    private val meetingId: Long,
+    private val startTime: String,
+    private val sampleRate: Int,
+    private val pcmFile: File,
+    private val scope: CoroutineScope
+) {
+    companion object {
+        private const val SEND_BYTES = 32 * 1024
+        private const val MAX_QUEUED_BYTES = 256 * 1024L
+        private const val INITIAL_RECONNECT_DELAY = 1000L
+        private const val MAX_RECONNECT_DELAY = 30_000L
+    }
+
+    private val lock = Any()
+    private val wake = Channel<Unit>(Channel.CONFLATED)
+    private val done = CompletableDeferred<Boolean>()
+    private var socket: WebSocket? = null
+    private var sentOffset = -1L // ready 수신 전에는 보내지 않음
+    private var endSentOn: WebSocket? = null
+    private var reconnectDelay = INITIAL_RECONNECT_DELAY
+    @Volatile private var ackedOffset = 0L
+    @Volatile private var finishing = false
+    private var pumpJob: Job? = null
+
+    fun start() {
+        connect()
+        pumpJob = scope.launch { pump() }
+    }
+
+    // 녹음 루프가 파일에 쓴 뒤 호출
+    fun notifyData() {
+        wake.trySend(Unit)
+    }
+
+    /**
+     * 녹음이 끝난 뒤 호출한다. 남은 PCM을 모두 보내고 서버가 파일을 마무리하면 true.
+     * 시간 안에 끝나지 않으면 false (호출자는 청크 업로드로 대신 보냄).
+     */
+    suspend fun finish(timeoutMs: Long = 30_000L): Boolean {
+        finishing = true
+        wake.trySend(Unit)
+        val result = withTimeoutOrNull(timeoutMs) { done.await() } ?: false
+        if (!result) {
+            done.complete(false)
+        }
+        pumpJob?.cancel()
+        synchronized(lock) { socket }?.close(1000, null)
+        Logger.i("[실시간전송] 종료 - 회의ID: $meetingId, 완료: $result, 서버반영: $ackedOffset")
+        return result
+    }
+
+    private fun connect() {
+        val url = "${Config.BASE_URL}meeting/live?meetingId=$meetingId&startTime=$startTime" +
+                "&sampleRate=$sampleRate&channels=1&bitsPerSample=16"
+        val webSocket = client.newWebSocket(Request.Builder().url(url).build(), listener)
+        synchronized(lock) { socket = webSocket }
+    }
+
+    private val listener = object : WebSocketListener() {
+        override fun onMessage(webSocket: WebSocket, text: String) {
+            val message = JSONObject(text)
+            when (message.optString("type")) {
+                "ready" -> {
+                    synchronized(lock) {
+                        if (socket !== webSocket) return
+                        sentOffset = message.getLong("offset")
+                        reconnectDelay = INITIAL_RECONNECT_DELAY
+                    }
+                    Logger.i("[실시간전송] 연결 - offset: ${message.getLong("offset")}")
+                    wake.trySend(Unit)
+                }
+                "ack" -> ackedOffset = message.getLong("offset")
+                "done" -> done.complete(true)
+                "error" -> Logger.e("[실시간전송] 서버 오류: ${message.optString("message")}")
+            }
+        }
+
+        override fun onClosed(webSocket: WebSocket, code: Int, reason: String) {
+            onDisconnected(webSocket)
+        }
+
+        override fun onFailure(webSocket: WebSocket, t: Throwable, response: Response?) {
+            Logger.e("[실시간전송] 연결 실패: ${t.message}")
+            onDisconnected(webSocket)
+        }
+    }
+
+    private fun onDisconnected(webSocket: WebSocket) {
+        val delayMs = synchronized(lock) {
+            if (socket !== webSocket || done.isCompleted) return
+            socket = null
+            sentOffset = -1L
+            reconnectDelay.also { reconnectDelay = (it * 2).coerceAtMost(MAX_RECONNECT_DELAY) }
+        }
+        scope.launch {
+            delay(delayMs)
+            if (!done.isCompleted) {
+                connect()
+            }
+        }
+    }
+
+    private suspend fun pump() {
+        RandomAccessFile(pcmFile, "r").use { file ->
+            val buffer = ByteArray(SEND_BYTES)
+            while (currentCoroutineContext().isActive) {
+                wake.receive()
+                while (true) {
+                    val (webSocket, offset) = synchronized(lock) { socket to sentOffset }
+                    if (webSocket == null || offset < 0) break
+                    if (webSocket.queueSize() > MAX_QUEUED_BYTES) {
+                        delay(50)
+                        continue
+                    }
+                    val available = file.length() - offset
+                    if (available <= 0) {
+                        sendEndIfFinishing(webSocket)
+                        break
+                    }
+                    val n = minOf(available, SEND_BYTES.toLong()).toInt()
+                    file.seek(offset)
+                    file.readFully(buffer, 0, n)
+                    val sent = synchronized(lock) {
+                        (socket === webSocket && webSocket.send(buffer.toByteString(0, n)))
+                            .also { if (it) sentOffset = offset + n }
+                    }
+                    // 전송 실패는 연결 종료로 이어지며, 재연결 후 ready에서 다시 시작
+                    if (!sent) break
+                }
+            }
+        }
+    }
+
+    private fun sendEndIfFinishing(webSocket: WebSocket) {
+        if (!finishing) return
+        synchronized(lock) {
+            if (endSentOn !== webSocket && socket === webSocket) {
+                webSocket.send("{\"type\":\"end\"}")
+                endSentOn = webSocket
+            }
+        }
+    }
+}
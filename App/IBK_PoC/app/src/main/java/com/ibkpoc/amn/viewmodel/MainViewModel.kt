@@ -95,7 +95,7 @@ class MainViewModel @Inject constructor(
                 Logger.e("[상태처리] 녹음 완료 - 파일경로: ${state.filePath}")
                 stopRecordingTimer()
                 viewModelScope.launch {
-                    handleRecordingComplete(File(state.filePath))
+                    handleRecordingComplete(File(state.filePath), state.streamed)
                 }
             }
             is RecordServiceState.Error -> {
@@ -153,7 +153,7 @@ class MainViewModel @Inject constructor(
         }
     }
 
-    private suspend fun handleRecordingComplete(pcmFile: File) {
+    private suspend fun handleRecordingComplete(pcmFile: File, streamed: Boolean) {
         try {
             val recordingInfo = lastRecordingState
             if (recordingInfo == null) {
@@ -172,6 +172,12 @@ class MainViewModel @Inject constructor(
                         _showSuccessMessage.value = true
                         lastRecordingState = null
                         
+                        // 실시간 전송으로 서버 파일이 완성되었으면 업로드 없이 바로 STT 요청
+                        if (streamed) {
+                            viewModelScope.launch { requestStt(recordingInfo.meetingId) }
+                            return@collect
+                        }
+
                         // WAV 변환 및 업로드는 백그라운드에서 계속 진행
                         viewModelScope.launch {
                             uploadWavAndConvertToStt(
@@ -385,22 +391,7 @@ class MainViewModel @Inject constructor(
             when (uploadResult) {
                 is NetworkResult.Success -> {
                     Logger.e("[파일업로드] WAV 파일 업로드 성공")
-                    repository.convertWavToStt(meetingId).collect { sttResult ->
-                        when (sttResult) {
-                            is NetworkResult.Success -> {
-                                Logger.e("[STT변환] STT 변환 완료")
-                                _showSuccessMessage.value = true
-                            }
-                            is NetworkResult.Error -> {
-                                Logger.e("[STT변환] STT 변환 실패: ${sttResult.message}")
-                                _errorMessage.value = "STT 변환 실패: ${sttResult.message}"
-                            }
-                            is NetworkResult.Loading -> {
-                                Logger.e("[STT변환] STT 변환 중")
-                                _isLoading.value = true
-                            }
-                        }
-                    }
+                    requestStt(meetingId)
                 }
                 is NetworkResult.Error -> {
                     Logger.e("[파일업로드] WAV 파일 업로드 실패: ${uploadResult.message}")
@@ -414,6 +405,25 @@ class MainViewModel @Inject constructor(
         }
     }
 
+    private suspend fun requestStt(meetingId: Long) {
+        repository.convertWavToStt(meetingId).collect { sttResult ->
+            when (sttResult) {
+                is NetworkResult.Success -> {
+                    Logger.e("[STT변환] STT 변환 완료")
+                    _showSuccessMessage.value = true
+                }
+                is NetworkResult.Error -> {
+                    Logger.e("[STT변환] STT 변환 실패: ${sttResult.message}")
+                    _errorMessage.value = "STT 변환 실패: ${sttResult.message}"
+                }
+                is NetworkResult.Loading -> {
+                    Logger.e("[STT변환] STT 변환 중")
+                    _isLoading.value = true
+                }
+            }
+        }
+    }
+
     override fun onCleared() {
         super.onCleared()
         cleanupRecording()
@@ -0,0 +1,64 @@
+package com.ibkpoc.amn.audio;
+
+import java.io.IOException;
+
+// audio/BitReader.java
+// BitWriter가 기록한 MSB 우선 비트 스트림 읽기
+final class BitReader {
+    private final byte[] buf;
+    private int pos;
+    private final int end;
+    private long acc;
+    private int accBits;
+
+    BitReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.end = offset + length;
+    }
+
+    // bits 0~32
+    long read(int bits) throws IOException {
+        while (accBits < bits) {
+            refill();
+        }
+        accBits -= bits;
+        return (acc >>> accBits) & BitWriter.mask(bits);
+    }
+
+    int readSigned(int bits) throws IOException {
+        long v = read(bits);
+        return (int) (v << (64 - bits) >> (64 - bits));
+    }
+
+    long readUnary() throws IOException {
+        long q = 0;
+        while (true) {
+            if (accBits == 0) {
+                refill();
+            }
+            long window = acc & BitWriter.mask(accBits);
+            if (window == 0) {
+                q += accBits;
+                accBits = 0;
+                continue;
+            }
+            int zeros = Long.numberOfLeadingZeros(window) - (64 - accBits);
+            accBits -= zeros + 1;
+            return q + zeros;
+        }
+    }
+
+    long readRice(int k) throws IOException {
+        long q = readUnary();
+        return (q << k) | read(k);
+    }
+
+    private void refill() throws IOException {
+        if (pos >= end) {
+            throw new IOException("압축 블록이 예상보다 짧습니다");
+        }
+        acc = (acc << 8) | (buf[pos++] & 0xFF);
+        accBits += 8;
+    }
+}
@@ -0,0 +1,59 @@
+package com.ibkpoc.amn.audio;
+
+import java.util.Arrays;
+
+// audio/BitWriter.java
+// MSB 우선 비트 스트림 기록 (LosslessBlockCodec용)
+final class BitWriter {
+    private byte[] buf;
+    private int pos;
+    private long acc;
+    private int accBits;
+
+    BitWriter(int capacity) {
+        this.buf = new byte[Math.max(16, capacity)];
+    }
+
+    /**
+     * value의 하위 bits비트를 기록한다 (bits 0~32).
+     */
+    void write(long value, int bits) {
+        acc = (acc << bits) | (value & mask(bits));
+        accBits += bits;
+        while (accBits >= 8) {
+            if (pos == buf.length) {
+                buf = Arrays.copyOf(buf, buf.length * 2);
+            }
+            accBits -= 8;
+            buf[pos++] = (byte) (acc >>> accBits);
+        }
+    }
+
+    // q개의 0 다음 1
+    void writeUnary(long q) {
+        while (q >= 32) {
+            write(0, 32);
+            q -= 32;
+        }
+        write(1, (int) q + 1);
+    }
+
+    void writeRice(long u, int k) {
+        writeUnary(u >>> k);
+        write(u, k);
+    }
+
+    /**
+     * 마지막 바이트를 0으로 채워 마무리하고 기록된 바이트를 반환한다.
+     */
+    byte[] toByteArray() {
+        if (accBits > 0) {
+            write(0, 8 - accBits);
+        }
+        return Arrays.copyOf(buf, pos);
+    }
+
+    static long mask(int bits) {
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+}
@@ -0,0 +1,362 @@
+package com.ibkpoc.amn.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32C;
+
+// audio/LosslessArchive.java
+// 녹음 보관용 무손실 압축 파일 (.amnl). 16비트 PCM WAV만 대상
+// 형식: MAGIC, VERSION, 원본 WAV 헤더 바이트(그대로), 블록 샘플 수, 프레임 수, 블록 수,
+//       블록 색인(위치, 길이, CRC32C) 반복, 꼬리 바이트(프레임에 못 미치는 끝 조각), 압축 블록들
+// 원본 WAV와 바이트 단위로 같은 내용을 복원하며, 색인으로 임의 위치부터 읽을 수 있다
+public final class LosslessArchive implements Closeable {
+    public static final String SUFFIX = ".amnl";
+
+    private static final int MAGIC = 0x414D4E4C; // "AMNL"
+    private static final byte VERSION = 1;
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+    private final SeekableByteChannel channel;
+    @Getter
+    private final WavHeader header;
+    private final byte[] headerBytes;
+    private final int blockSamples;
+    private final long frames;
+    private final long[] blockOffsets;
+    private final int[] blockLengths;
+    private final int[] blockCrcs;
+    private final byte[] trailer;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Summary {
+        private final long wavLength;
+        private final long archiveLength;
+        private final int blocks;
+    }
+
+    private LosslessArchive(SeekableByteChannel channel, WavHeader header, byte[] headerBytes, int blockSamples, long frames,
+                            long[] blockOffsets, int[] blockLengths, int[] blockCrcs, byte[] trailer) {
+        this.channel = channel;
+        this.header = header;
+        this.headerBytes = headerBytes;
+        this.blockSamples = blockSamples;
+        this.frames = frames;
+        this.blockOffsets = blockOffsets;
+        this.blockLengths = blockLengths;
+        this.blockCrcs = blockCrcs;
+        this.trailer = trailer;
+    }
+
+    public static boolean supports(int bitsPerSample) {
+        return bitsPerSample == 16;
+    }
+
+    /**
+     * source WAV를 target에 압축한다. 블록 인코딩은 executor에서 최대 parallelism개씩 동시에 돌리고,
+     * 결과는 순서대로 기록한다 (메모리에는 진행 중인 블록만 둔다).
+     */
+    public static Summary encode(FileChannel source, Path target, int blockSamples,
+                                 Executor executor, int parallelism) throws IOException {
+        WavHeader header = WavHeader.read(source);
+        if (!supports(header.getBitsPerSample())) {
+            throw new IOException("압축 보관을 지원하지 않는 형식: bitsPerSample=" + header.getBitsPerSample());
+        }
+        int blockAlign = header.getBlockAlign();
+        long dataOffset = header.getDataOffset();
+        long size = source.size();
+        long frames = Math.max(0, size - dataOffset) / blockAlign;
+        long pcmEnd = dataOffset + frames * blockAlign;
+        int blocks = (int) ((frames + blockSamples - 1) / blockSamples);
+        byte[] headerBytes = readFully(source, 0, (int) Math.min(dataOffset, size));
+        byte[] trailer = readFully(source, pcmEnd, (int) (size - pcmEnd));
+
+        ByteArrayOutputStream prelude = new ByteArrayOutputStream();
+        long indexPosition;
+        try (DataOutputStream out = new DataOutputStream(prelude)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeInt(headerBytes.length);
+            out.write(headerBytes);
+            out.writeInt(blockSamples);
+            out.writeLong(frames);
+            out.writeInt(blocks);
+            indexPosition = out.size();
+            out.write(new byte[blocks * INDEX_ENTRY_SIZE]);
+            out.writeInt(trailer.length);
+            out.write(trailer);
+        }
+
+        ByteBuffer index = ByteBuffer.allocate(blocks * INDEX_ENTRY_SIZE);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(out, ByteBuffer.wrap(prelude.toByteArray()), 0);
+            long position = prelude.size();
+
+            Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>();
+            int submitted = 0;
+            while (submitted < blocks || !window.isEmpty()) {
+                while (submitted < blocks && window.size() < parallelism * 2) {
+                    long firstFrame = (long) submitted * blockSamples;
+                    int n = (int) Math.min(blockSamples, frames - firstFrame);
+                    long from = dataOffset + firstFrame * blockAlign;
+                    window.add(CompletableFuture.supplyAsync(() -> encodeBlock(source, from, n, header), executor));
+                    submitted++;
+                }
+                byte[] block = join(window.poll());
+                CRC32C crc = new CRC32C();
+                crc.update(block);
+                index.putLong(position).putInt(block.length).putInt((int) crc.getValue());
+                writeFully(out, ByteBuffer.wrap(block), position);
+                position += block.length;
+            }
+            writeFully(out, index.flip(), indexPosition);
+            out.force(true);
+            return new Summary(size, position, blocks);
+        }
+    }
+
+    public static LosslessArchive open(Path path) throws IOException {
+        return open(FileChannel.open(path, StandardOpenOption.READ), path.toString());
+    }
+
+    /**
+     * 임의 위치 읽기가 되는 채널(원격 저장소의 Range 읽기 등)에서 연다. 블록을 읽을 때만 그 범위를 읽는다.
+     */
+    public static LosslessArchive open(SeekableByteChannel channel, String name) throws IOException {
+        try {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("압축 보관 파일 형식 오류: " + name);
+            }
+            byte[] headerBytes = new byte[in.readInt()];
+            in.readFully(headerBytes);
+            WavHeader header = WavHeader.parse(ByteBuffer.wrap(headerBytes));
+            int blockSamples = in.readInt();
+            long frames = in.readLong();
+            int blocks = in.readInt();
+            long[] offsets = new long[blocks];
+            int[] lengths = new int[blocks];
+            int[] crcs = new int[blocks];
+            for (int b = 0; b < blocks; b++) {
+                offsets[b] = in.readLong();
+                lengths[b] = in.readInt();
+                crcs[b] = in.readInt();
+            }
+            byte[] trailer = new byte[in.readInt()];
+            in.readFully(trailer);
+            return new LosslessArchive(channel, header, headerBytes, blockSamples, frames, offsets, lengths, crcs, trailer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 압축 파일을 열어 원본 WAV 바이트 스트림을 반환한다. 스트림을 닫으면 파일도 닫힌다.
+     */
+    public static InputStream openWav(Path path) throws IOException {
+        return open(path).new WavStream(true);
+    }
+
+    public static InputStream openWav(SeekableByteChannel channel, String name) throws IOException {
+        return open(channel, name).new WavStream(true);
+    }
+
+    public long getWavLength() {
+        return headerBytes.length + frames * header.getBlockAlign() + trailer.length;
+    }
+
+    /**
+     * 원본 WAV 바이트 스트림. skip은 블록 색인으로 건너뛰므로 구간 읽기(Range)에도 쓸 수 있다.
+     */
+    public InputStream newInputStream() {
+        return new WavStream(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static byte[] encodeBlock(FileChannel source, long from, int n, WavHeader header) {
+        int channels = header.getChannels();
+        try {
+            ByteBuffer pcm = ByteBuffer.wrap(readFully(source, from, n * header.getBlockAlign()))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            int[][] samples = new int[channels][n];
+            for (int i = 0; i < n; i++) {
+                for (int ch = 0; ch < channels; ch++) {
+                    samples[ch][i] = pcm.getShort((i * channels + ch) * 2);
+                }
+            }
+            return LosslessBlockCodec.encode(samples, n, 16);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    // 블록 하나를 원본 PCM 바이트(인터리브, LE)로 복원
+    private int decodeBlock(int block, byte[] pcm, int[][] samples) throws IOException {
+        byte[] data = readFully(channel, blockOffsets[block], blockLengths[block]);
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        if ((int) crc.getValue() != blockCrcs[block]) {
+            throw new IOException("압축 블록 CRC 불일치: block=" + block);
+        }
+        int n = (int) Math.min(blockSamples, frames - (long) block * blockSamples);
+        LosslessBlockCodec.decode(data, 0, data.length, samples, n, 16);
+        int channels = samples.length;
+        for (int i = 0; i < n; i++) {
+            for (int ch = 0; ch < channels; ch++) {
+                int p = (i * channels + ch) * 2;
+                int s = samples[ch][i];
+                pcm[p] = (byte) s;
+                pcm[p + 1] = (byte) (s >> 8);
+            }
+        }
+        return n * header.getBlockAlign();
+    }
+
+    private class WavStream extends InputStream {
+        private final boolean ownsArchive;
+        private final long length = getWavLength();
+        private final long pcmStart = headerBytes.length;
+        private final long blockBytes = (long) blockSamples * header.getBlockAlign();
+        private byte[] blockBuffer;
+        private int[][] samples;
+        private long position;
+        private byte[] segment;
+        private long segmentStart;
+        private int segmentLength;
+
+        WavStream(boolean ownsArchive) {
+            this.ownsArchive = ownsArchive;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            if (segment == null || position < segmentStart || position >= segmentStart + segmentLength) {
+                load(position);
+            }
+            int offset = (int) (position - segmentStart);
+            int n = Math.min(len, segmentLength - offset);
+            System.arraycopy(segment, offset, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return segment == null || position < segmentStart ? 0
+                    : (int) Math.max(0, segmentStart + segmentLength - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (ownsArchive) {
+                LosslessArchive.this.close();
+            }
+        }
+
+        private void load(long at) throws IOException {
+            long pcmEnd = pcmStart + frames * header.getBlockAlign();
+            if (at < pcmStart) {
+                segment = headerBytes;
+                segmentStart = 0;
+                segmentLength = headerBytes.length;
+            } else if (at < pcmEnd) {
+                if (blockBuffer == null) {
+                    blockBuffer = new byte[(int) blockBytes];
+                    samples = new int[header.getChannels()][blockSamples];
+                }
+                int block = (int) ((at - pcmStart) / blockBytes);
+                segment = blockBuffer;
+                segmentStart = pcmStart + block * blockBytes;
+                segmentLength = decodeBlock(block, blockBuffer, samples);
+            } else {
+                segment = trailer;
+                segmentStart = pcmEnd;
+                segmentLength = trailer.length;
+            }
+        }
+    }
+
+    private static byte[] readFully(SeekableByteChannel channel, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        if (channel instanceof FileChannel file) {
+            // 파일은 위치 지정 읽기라 병렬 인코딩 중에도 잠글 필요 없음
+            while (buf.hasRemaining()) {
+                if (file.read(buf, position + buf.position()) < 0) {
+                    throw new IOException("파일이 예상보다 짧습니다");
+                }
+            }
+            return buf.array();
+        }
+        synchronized (channel) {
+            channel.position(position);
+            while (buf.hasRemaining()) {
+                if (channel.read(buf) < 0) {
+                    throw new IOException("파일이 예상보다 짧습니다");
+                }
+            }
+        }
+        return buf.array();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    private static byte[] join(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+}
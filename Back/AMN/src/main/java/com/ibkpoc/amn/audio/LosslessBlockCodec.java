@@ -0,0 +1,421 @@
+package com.ibkpoc.amn.audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// audio/LosslessBlockCodec.java
+// FLAC 방식의 블록 단위 무손실 압축: 채널별로 예측기(상수/고정 차수/LPC) 잔차를 Rice 부호화
+// 블록끼리 독립적이라 여러 코어에서 동시에 인코딩/디코딩할 수 있다
+// 서브프레임: 종류 2비트
+//   CONSTANT: 값(bits)
+//   VERBATIM: 샘플 n개(bits)
+//   FIXED:    차수 3비트, 워밍업 샘플 차수개(bits), 잔차
+//   LPC:      차수 5비트, 정밀도-1 4비트, shift 5비트, 계수 차수개(정밀도), 워밍업, 잔차
+// 잔차: PARTITION 샘플마다 Rice 파라미터 5비트 (ESCAPE면 폭 5비트 + 고정 폭 값)
+final class LosslessBlockCodec {
+    private static final int CONSTANT = 0;
+    private static final int VERBATIM = 1;
+    private static final int FIXED = 2;
+    private static final int LPC = 3;
+
+    private static final int PARTITION = 256;
+    private static final int ESCAPE = 31;
+    private static final int MAX_RICE = 30;
+    private static final int MAX_FIXED_ORDER = 4;
+    private static final int[] LPC_ORDERS = {4, 8, 12};
+    private static final int MAX_LPC_ORDER = 12;
+    private static final int LPC_PRECISION = 14;
+    private static final int MAX_SHIFT = 31;
+
+    private LosslessBlockCodec() {
+    }
+
+    /**
+     * 채널별 샘플 samples[ch][0..n)을 하나의 블록으로 압축한다.
+     */
+    static byte[] encode(int[][] samples, int n, int bits) {
+        BitWriter out = new BitWriter(samples.length * n * bits / 16 + 64);
+        Scratch scratch = new Scratch(n);
+        for (int[] channel : samples) {
+            encodeSubframe(out, channel, n, bits, scratch);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * encode의 역. samples[ch]는 n 이상 크기여야 한다.
+     */
+    static void decode(byte[] data, int offset, int length, int[][] samples, int n, int bits) throws IOException {
+        BitReader in = new BitReader(data, offset, length);
+        for (int[] channel : samples) {
+            decodeSubframe(in, channel, n, bits);
+        }
+    }
+
+    private static class Scratch {
+        long[] best;
+        long[] candidate;
+        final int[] params;
+        final int[] quantized = new int[MAX_LPC_ORDER];
+        final int[] bestQuantized = new int[MAX_LPC_ORDER];
+
+        Scratch(int n) {
+            best = new long[n];
+            candidate = new long[n];
+            params = new int[(n + PARTITION - 1) / PARTITION];
+        }
+    }
+
+    private static void encodeSubframe(BitWriter out, int[] x, int n, int bits, Scratch s) {
+        boolean constant = true;
+        for (int i = 1; i < n && constant; i++) {
+            constant = x[i] == x[0];
+        }
+        if (constant) {
+            out.write(CONSTANT, 2);
+            out.write(x[0], bits);
+            return;
+        }
+
+        long bestCost = (long) n * bits;
+        int bestType = VERBATIM;
+        int bestOrder = 0;
+        int bestShift = 0;
+
+        int fixedOrder = chooseFixedOrder(x, n);
+        fixedResidual(x, n, fixedOrder, s.best);
+        long fixedCost = 3 + (long) fixedOrder * bits + residualCost(s.best, fixedOrder, n, s.params);
+        if (fixedCost < bestCost) {
+            bestCost = fixedCost;
+            bestType = FIXED;
+            bestOrder = fixedOrder;
+        }
+
+        if (n > MAX_LPC_ORDER * 4) {
+            double[][] lpc = levinson(autocorrelation(x, n, MAX_LPC_ORDER), MAX_LPC_ORDER);
+            for (int order : LPC_ORDERS) {
+                if (lpc[order - 1] == null) {
+                    break;
+                }
+                int shift = quantize(lpc[order - 1], order, s.quantized);
+                if (shift < 0) {
+                    continue;
+                }
+                if (!lpcResidual(x, n, s.quantized, order, shift, s.candidate)) {
+                    continue;
+                }
+                long cost = 5 + 4 + 5 + (long) order * (LPC_PRECISION + bits) + residualCost(s.candidate, order, n, s.params);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestType = LPC;
+                    bestOrder = order;
+                    bestShift = shift;
+                    System.arraycopy(s.quantized, 0, s.bestQuantized, 0, order);
+                    long[] swap = s.best;
+                    s.best = s.candidate;
+                    s.candidate = swap;
+                }
+            }
+        }
+
+        out.write(bestType, 2);
+        switch (bestType) {
+            case VERBATIM -> {
+                for (int i = 0; i < n; i++) {
+                    out.write(x[i], bits);
+                }
+            }
+            case FIXED -> {
+                out.write(bestOrder, 3);
+                writeWarmup(out, x, bestOrder, bits);
+                writeResidual(out, s.best, bestOrder, n, s.params);
+            }
+            default -> {
+                out.write(bestOrder, 5);
+                out.write(LPC_PRECISION - 1, 4);
+                out.write(bestShift, 5);
+                for (int j = 0; j < bestOrder; j++) {
+                    out.write(s.bestQuantized[j], LPC_PRECISION);
+                }
+                writeWarmup(out, x, bestOrder, bits);
+                writeResidual(out, s.best, bestOrder, n, s.params);
+            }
+        }
+    }
+
+    private static void decodeSubframe(BitReader in, int[] x, int n, int bits) throws IOException {
+        int type = (int) in.read(2);
+        switch (type) {
+            case CONSTANT -> {
+                int value = in.readSigned(bits);
+                for (int i = 0; i < n; i++) {
+                    x[i] = value;
+                }
+            }
+            case VERBATIM -> {
+                for (int i = 0; i < n; i++) {
+                    x[i] = in.readSigned(bits);
+                }
+            }
+            case FIXED -> {
+                int order = (int) in.read(3);
+                if (order > MAX_FIXED_ORDER || order > n) {
+                    throw new IOException("잘못된 고정 예측 차수: " + order);
+                }
+                readWarmup(in, x, order, bits);
+                readResidual(in, x, order, n);
+                restoreFixed(x, n, order);
+            }
+            default -> {
+                int order = (int) in.read(5);
+                int precision = (int) in.read(4) + 1;
+                int shift = (int) in.read(5);
+                if (order == 0 || order > n) {
+                    throw new IOException("잘못된 LPC 차수: " + order);
+                }
+                int[] coefficients = new int[order];
+                for (int j = 0; j < order; j++) {
+                    coefficients[j] = in.readSigned(precision);
+                }
+                readWarmup(in, x, order, bits);
+                readResidual(in, x, order, n);
+                for (int i = order; i < n; i++) {
+                    long prediction = 0;
+                    for (int j = 0; j < order; j++) {
+                        prediction += (long) coefficients[j] * x[i - 1 - j];
+                    }
+                    x[i] += (int) (prediction >> shift);
+                }
+            }
+        }
+    }
+
+    // 잔차 절대값 합이 가장 작은 고정 차수
+    private static int chooseFixedOrder(int[] x, int n) {
+        long[] sums = new long[MAX_FIXED_ORDER + 1];
+        for (int i = MAX_FIXED_ORDER; i < n; i++) {
+            long e0 = x[i];
+            long e1 = e0 - x[i - 1];
+            long e2 = e1 - ((long) x[i - 1] - x[i - 2]);
+            long e3 = e2 - ((long) x[i - 1] - 2L * x[i - 2] + x[i - 3]);
+            long e4 = e3 - ((long) x[i - 1] - 3L * x[i - 2] + 3L * x[i - 3] - x[i - 4]);
+            sums[0] += Math.abs(e0);
+            sums[1] += Math.abs(e1);
+            sums[2] += Math.abs(e2);
+            sums[3] += Math.abs(e3);
+            sums[4] += Math.abs(e4);
+        }
+        int best = 0;
+        for (int order = 1; order <= Math.min(MAX_FIXED_ORDER, n - 1); order++) {
+            if (sums[order] < sums[best]) {
+                best = order;
+            }
+        }
+        return best;
+    }
+
+    private static void fixedResidual(int[] x, int n, int order, long[] residual) {
+        for (int i = order; i < n; i++) {
+            residual[i] = switch (order) {
+                case 0 -> x[i];
+                case 1 -> (long) x[i] - x[i - 1];
+                case 2 -> (long) x[i] - 2L * x[i - 1] + x[i - 2];
+                case 3 -> (long) x[i] - 3L * x[i - 1] + 3L * x[i - 2] - x[i - 3];
+                default -> (long) x[i] - 4L * x[i - 1] + 6L * x[i - 2] - 4L * x[i - 3] + x[i - 4];
+            };
+        }
+    }
+
+    private static void restoreFixed(int[] x, int n, int order) {
+        for (int i = order; i < n; i++) {
+            x[i] += switch (order) {
+                case 0 -> 0;
+                case 1 -> x[i - 1];
+                case 2 -> 2 * x[i - 1] - x[i - 2];
+                case 3 -> 3 * x[i - 1] - 3 * x[i - 2] + x[i - 3];
+                default -> 4 * x[i - 1] - 6 * x[i - 2] + 4 * x[i - 3] - x[i - 4];
+            };
+        }
+    }
+
+    // 잔차가 int 범위를 벗어나면(디코더가 int로 복원) false
+    private static boolean lpcResidual(int[] x, int n, int[] coefficients, int order, int shift, long[] residual) {
+        for (int i = order; i < n; i++) {
+            long prediction = 0;
+            for (int j = 0; j < order; j++) {
+                prediction += (long) coefficients[j] * x[i - 1 - j];
+            }
+            long r = x[i] - (prediction >> shift);
+            if (r > Integer.MAX_VALUE / 2 || r < Integer.MIN_VALUE / 2) {
+                return false;
+            }
+            residual[i] = r;
+        }
+        return true;
+    }
+
+    // Welch 창을 씌운 자기상관 r[0..maxLag]
+    private static double[] autocorrelation(int[] x, int n, int maxLag) {
+        double[] windowed = new double[n];
+        double half = (n - 1) / 2.0;
+        for (int i = 0; i < n; i++) {
+            double t = (i - half) / (half + 1);
+            windowed[i] = x[i] * (1 - t * t);
+        }
+        double[] r = new double[maxLag + 1];
+        for (int lag = 0; lag <= maxLag; lag++) {
+            double sum = 0;
+            for (int i = lag; i < n; i++) {
+                sum += windowed[i] * windowed[i - lag];
+            }
+            r[lag] = sum;
+        }
+        return r;
+    }
+
+    // Levinson-Durbin. 결과[차수-1] = x[i] ~ sum(a[j] * x[i-1-j])의 계수, 불안정하면 이후 차수는 null
+    private static double[][] levinson(double[] r, int maxOrder) {
+        double[][] result = new double[maxOrder][];
+        double[] a = new double[maxOrder];
+        double[] previous = new double[maxOrder];
+        double error = r[0];
+        for (int i = 0; i < maxOrder && error > 0; i++) {
+            double acc = r[i + 1];
+            for (int j = 0; j < i; j++) {
+                acc -= a[j] * r[i - j];
+            }
+            double k = acc / error;
+            System.arraycopy(a, 0, previous, 0, i);
+            for (int j = 0; j < i; j++) {
+                a[j] = previous[j] - k * previous[i - 1 - j];
+            }
+            a[i] = k;
+            error *= 1 - k * k;
+            result[i] = Arrays.copyOf(a, i + 1);
+        }
+        return result;
+    }
+
+    // 계수를 LPC_PRECISION비트 정수로 양자화 (오차 누적 보정). 반환값은 shift, 표현할 수 없으면 -1
+    private static int quantize(double[] lpc, int order, int[] out) {
+        double max = 0;
+        for (int j = 0; j < order; j++) {
+            max = Math.max(max, Math.abs(lpc[j]));
+        }
+        if (max == 0 || Double.isNaN(max)) {
+            return -1;
+        }
+        int shift = Math.min(MAX_SHIFT, LPC_PRECISION - Math.getExponent(max) - 2);
+        if (shift < 0) {
+            return -1;
+        }
+        int limit = 1 << (LPC_PRECISION - 1);
+        double error = 0;
+        for (int j = 0; j < order; j++) {
+            error += lpc[j] * (1L << shift);
+            long q = Math.round(error);
+            q = Math.max(-limit, Math.min(limit - 1, q));
+            out[j] = (int) q;
+            error -= q;
+        }
+        return shift;
+    }
+
+    private static void writeWarmup(BitWriter out, int[] x, int order, int bits) {
+        for (int i = 0; i < order; i++) {
+            out.write(x[i], bits);
+        }
+    }
+
+    private static void readWarmup(BitReader in, int[] x, int order, int bits) throws IOException {
+        for (int i = 0; i < order; i++) {
+            x[i] = in.readSigned(bits);
+        }
+    }
+
+    // 파티션별 최적 파라미터를 params에 채우고 총 비트 수를 반환 (params: Rice k 또는 ESCAPE | 폭 << 8)
+    private static long residualCost(long[] residual, int order, int n, int[] params) {
+        long total = 0;
+        for (int p = 0; p * PARTITION < n; p++) {
+            int from = Math.max(order, p * PARTITION);
+            int to = Math.min(n, (p + 1) * PARTITION);
+            long sum = 0;
+            long max = 0;
+            for (int i = from; i < to; i++) {
+                long u = zigzag(residual[i]);
+                sum += u;
+                max = Math.max(max, u);
+            }
+            int count = Math.max(0, to - from);
+            int estimate = count == 0 || sum < count ? 0 : Math.min(MAX_RICE, 63 - Long.numberOfLeadingZeros(sum / count));
+            long bestCost = Long.MAX_VALUE;
+            int bestParam = 0;
+            for (int k = Math.max(0, estimate - 1); k <= Math.min(MAX_RICE, estimate + 1); k++) {
+                long cost = (long) count * (k + 1);
+                for (int i = from; i < to; i++) {
+                    cost += zigzag(residual[i]) >>> k;
+                }
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestParam = k;
+                }
+            }
+            int width = 64 - Long.numberOfLeadingZeros(max);
+            if (width <= MAX_RICE && 5 + (long) count * width < bestCost) {
+                bestCost = 5 + (long) count * width;
+                bestParam = ESCAPE | (width << 8);
+            }
+            params[p] = bestParam;
+            total += 5 + bestCost;
+        }
+        return total;
+    }
+
+    private static void writeResidual(BitWriter out, long[] residual, int order, int n, int[] params) {
+        residualCost(residual, order, n, params);
+        for (int p = 0; p * PARTITION < n; p++) {
+            int from = Math.max(order, p * PARTITION);
+            int to = Math.min(n, (p + 1) * PARTITION);
+            int param = params[p];
+            if ((param & 0xFF) == ESCAPE) {
+                int width = param >>> 8;
+                out.write(ESCAPE, 5);
+                out.write(width, 5);
+                for (int i = from; i < to; i++) {
+                    out.write(zigzag(residual[i]), width);
+                }
+            } else {
+                out.write(param, 5);
+                for (int i = from; i < to; i++) {
+                    out.writeRice(zigzag(residual[i]), param);
+                }
+            }
+        }
+    }
+
+    private static void readResidual(BitReader in, int[] x, int order, int n) throws IOException {
+        for (int p = 0; p * PARTITION < n; p++) {
+            int from = Math.max(order, p * PARTITION);
+            int to = Math.min(n, (p + 1) * PARTITION);
+            int param = (int) in.read(5);
+            if (param == ESCAPE) {
+                int width = (int) in.read(5);
+                for (int i = from; i < to; i++) {
+                    x[i] = (int) unzigzag(in.read(width));
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    x[i] = (int) unzigzag(in.readRice(param));
+                }
+            }
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long u) {
+        return (u >>> 1) ^ -(u & 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ibkpoc.amn.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// audio/OffsetMap.java
+// 무음을 제거한 STT용 오디오의 시간 -> 원본 녹음 시간 대응표 (STT 결과 타임스탬프 복원용)
+@Getter
+@NoArgsConstructor
+public class OffsetMap {
+    private final List<Entry> entries = new ArrayList<>();
+
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private long compactedStartMs;
+        private long originalStartMs;
+        private long durationMs;
+    }
+
+    /**
+     * 남긴 구간들(PCM 시작 기준 바이트)로 대응표를 만든다. baseMs는 PCM 시작이 원본 녹음에서 차지하는 위치다.
+     */
+    public static OffsetMap of(List<long[]> regions, int byteRate, long baseMs) {
+        OffsetMap map = new OffsetMap();
+        long compacted = 0;
+        for (long[] region : regions) {
+            long startMs = region[0] * 1000 / byteRate;
+            long durationMs = (region[1] - region[0]) * 1000 / byteRate;
+            map.entries.add(new Entry(compacted, baseMs + startMs, durationMs));
+            compacted += durationMs;
+        }
+        return map;
+    }
+
+    /**
+     * 원본 시각을 ms만큼 뒤로 민 대응표 (구간 파일 기준 시각 -> 전체 녹음 기준 시각).
+     */
+    public OffsetMap shifted(long ms) {
+        OffsetMap map = new OffsetMap();
+        for (Entry entry : entries) {
+            map.entries.add(new Entry(entry.compactedStartMs, entry.originalStartMs + ms, entry.durationMs));
+        }
+        return map;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * STT용 오디오의 시각을 원본 녹음 시각으로 바꾼다.
+     */
+    public long toOriginalMs(long compactedMs) {
+        Entry match = null;
+        for (Entry entry : entries) {
+            if (entry.compactedStartMs > compactedMs) {
+                break;
+            }
+            match = entry;
+        }
+        if (match == null) {
+            return compactedMs;
+        }
+        return match.originalStartMs + (compactedMs - match.compactedStartMs);
+    }
+}
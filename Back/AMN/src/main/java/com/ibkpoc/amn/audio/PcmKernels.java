@@ -0,0 +1,72 @@
+package com.ibkpoc.amn.audio;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+
+// audio/PcmKernels.java
+// 16비트 LE PCM 샘플 단위 연산 모음 (에너지, 형식 변환, FIR 내적)
+// JVM에 jdk.incubator.vector 모듈이 있으면(--add-modules jdk.incubator.vector) SIMD 구현, 없으면 스칼라 구현을 쓴다
+// -Damn.dsp.vector=false로 스칼라를 강제할 수 있다
+// PCM은 ByteBuffer에서 바로 읽으며, buf의 order/position과 무관하게 offset부터 LE로 해석한다
+@Slf4j
+public final class PcmKernels {
+
+    interface Impl {
+        long sumOfSquares(ByteBuffer buf, int offset, int samples);
+
+        void toFloat(ByteBuffer buf, int offset, float[] dst, int dstOffset, int samples);
+
+        float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+    }
+
+    private static final Impl IMPL = select();
+
+    private PcmKernels() {
+    }
+
+    /**
+     * buf의 [offset, offset + samples*2) 구간 RMS.
+     */
+    public static double rms(ByteBuffer buf, int offset, int samples) {
+        return samples == 0 ? 0 : Math.sqrt((double) IMPL.sumOfSquares(buf, offset, samples) / samples);
+    }
+
+    public static long sumOfSquares(ByteBuffer buf, int offset, int samples) {
+        return IMPL.sumOfSquares(buf, offset, samples);
+    }
+
+    /**
+     * buf의 offset부터 samples개 샘플을 dst[dstOffset..]에 float(-32768 ~ 32767 그대로)로 옮긴다.
+     */
+    public static void toFloat(ByteBuffer buf, int offset, float[] dst, int dstOffset, int samples) {
+        IMPL.toFloat(buf, offset, dst, dstOffset, samples);
+    }
+
+    /**
+     * a[aOffset..], b[bOffset..]의 length개 원소 내적. 합산 순서는 구현마다 다를 수 있다.
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return IMPL.dot(a, aOffset, b, bOffset, length);
+    }
+
+    public static String implementation() {
+        return IMPL.getClass().getSimpleName();
+    }
+
+    private static Impl select() {
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        if (vectorModule && Boolean.parseBoolean(System.getProperty("amn.dsp.vector", "true"))) {
+            try {
+                // 모듈이 없는 JVM에서 링크 오류가 나지 않도록 이름으로 로드
+                Impl impl = (Impl) Class.forName("com.ibkpoc.amn.audio.VectorPcmKernels")
+                        .getDeclaredConstructor().newInstance();
+                log.info("PCM 연산: SIMD 구현 사용 ({})", impl);
+                return impl;
+            } catch (ReflectiveOperationException | LinkageError e) {
+                log.warn("PCM 연산 SIMD 구현 로드 실패, 스칼라 사용: {}", e.toString());
+            }
+        }
+        return new ScalarPcmKernels();
+    }
+}
@@ -0,0 +1,152 @@
+package com.ibkpoc.amn.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+// audio/PolyphaseResampler.java
+// 16비트 모노 PCM 유리수 비율 리샘플러 (예: 44100 -> 16000은 L=160 업, M=441 다운)
+// L배 보간 + 저역 통과 + M배 추림을 폴리페이즈로 합쳐, 출력 한 샘플당 tapsPerPhase번의 곱셈만 한다
+// 생성 후 process/flush는 힙 할당을 하지 않는다 (스트리밍 용도, 스레드 안전하지 않음)
+public class PolyphaseResampler {
+    private static final int BLOCK = 4096;
+    private static final double KAISER_BETA = 8.0;
+    private static final double CUTOFF_RATIO = 0.92;
+
+    private final int up;
+    private final int down;
+    private final int taps;
+    private final float[] coefficients;  // [phase][tap], phase-major, 위상 안에서는 탭 역순 (입력 이력과 같은 방향으로 내적)
+    private final float[] buffer;        // taps-1개 이력 + 입력 블록
+    private int buffered;                // buffer에 들어 있는 샘플 수
+    private long bufferStart;            // buffer[0]의 입력 샘플 번호
+    private long consumed;               // 지금까지 받은 입력 샘플 수
+    private long nextUp;                 // 다음 출력 샘플의 업샘플 영역 위치
+    private long produced;
+
+    public PolyphaseResampler(int inputRate, int outputRate, int tapsPerPhase) {
+        int g = gcd(inputRate, outputRate);
+        this.up = outputRate / g;
+        this.down = inputRate / g;
+        this.taps = tapsPerPhase;
+        this.coefficients = design(up, down, tapsPerPhase);
+        this.buffer = new float[tapsPerPhase - 1 + BLOCK];
+        reset();
+    }
+
+    public PolyphaseResampler(int inputRate, int outputRate) {
+        this(inputRate, outputRate, 32);
+    }
+
+    public void reset() {
+        Arrays.fill(buffer, 0f);
+        buffered = taps - 1;
+        bufferStart = -(taps - 1);
+        consumed = 0;
+        produced = 0;
+        // 필터 지연((L*T-1)/2)만큼 앞당겨 출력이 입력과 시간상 맞도록 함
+        nextUp = (long) up * taps / 2;
+    }
+
+    /**
+     * inputBytes 바이트를 넣었을 때 생길 수 있는 최대 출력 바이트 (dst 크기 산정용).
+     */
+    public int maxOutputBytes(int inputBytes) {
+        return (int) (((long) inputBytes / 2 * up + down - 1) / down + 2) * 2;
+    }
+
+    /**
+     * src의 16비트 LE 샘플을 모두 소비하고, 만들어진 출력을 dst에 기록한다.
+     * dst는 maxOutputBytes(src.remaining()) 이상 남아 있어야 한다.
+     */
+    public void process(ByteBuffer src, ByteBuffer dst) {
+        while (src.remaining() >= 2) {
+            int n = Math.min(buffer.length - buffered, src.remaining() / 2);
+            PcmKernels.toFloat(src, src.position(), buffer, buffered, n);
+            src.position(src.position() + n * 2);
+            buffered += n;
+            consumed += n;
+            drain(dst, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * 입력 끝. 필터에 남은 샘플을 0으로 밀어내며 남은 출력을 기록한다.
+     */
+    public void flush(ByteBuffer dst) {
+        long expected = (consumed * up + down - 1) / down;
+        int padding = taps;
+        while (produced < expected && padding > 0) {
+            int n = Math.min(buffer.length - buffered, padding);
+            Arrays.fill(buffer, buffered, buffered + n, 0f);
+            buffered += n;
+            padding -= n;
+            drain(dst, expected);
+        }
+    }
+
+    private void drain(ByteBuffer dst, long limit) {
+        boolean swap = dst.order() != ByteOrder.LITTLE_ENDIAN;
+        long available = bufferStart + buffered;
+        while (produced < limit) {
+            long base = nextUp / up;
+            if (base >= available) {
+                break;
+            }
+            int phase = (int) (nextUp - base * up);
+            int idx = (int) (base - bufferStart);
+            // buffer[idx - taps + 1 .. idx]와 역순 계수의 내적 = sum(h[k] * x[idx - k])
+            float acc = PcmKernels.dot(coefficients, phase * taps, buffer, idx - taps + 1, taps);
+            short s = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(acc)));
+            dst.putShort(swap ? Short.reverseBytes(s) : s);
+            nextUp += down;
+            produced++;
+        }
+
+        // 다음 출력에 필요한 taps-1개 이력만 남기고 앞으로 당김
+        long keepFrom = Math.min(nextUp / up, available) - (taps - 1);
+        int drop = (int) (keepFrom - bufferStart);
+        if (drop > 0) {
+            System.arraycopy(buffer, drop, buffer, 0, buffered - drop);
+            buffered -= drop;
+            bufferStart += drop;
+        }
+    }
+
+    // Kaiser 창 sinc 저역 통과 필터를 L개 위상으로 나눔 (보간 이득 L 포함)
+    private static float[] design(int up, int down, int taps) {
+        int length = up * taps;
+        double cutoff = CUTOFF_RATIO * 0.5 / Math.max(up, down);   // 업샘플 영역 기준 정규화 주파수
+        double center = (length - 1) / 2.0;
+        double i0Beta = besselI0(KAISER_BETA);
+        float[] coefficients = new float[length];
+        for (int i = 0; i < length; i++) {
+            double x = i - center;
+            double sinc = x == 0 ? 1.0 : Math.sin(2 * Math.PI * cutoff * x) / (Math.PI * x);
+            double r = 2.0 * i / (length - 1) - 1.0;
+            double window = besselI0(KAISER_BETA * Math.sqrt(Math.max(0, 1 - r * r))) / i0Beta;
+            double h = (x == 0 ? 2 * cutoff : sinc) * window * up;
+            int phase = i % up;
+            int tap = i / up;
+            coefficients[phase * taps + (taps - 1 - tap)] = (float) h;
+        }
+        return coefficients;
+    }
+
+    private static double besselI0(double x) {
+        double sum = 1.0;
+        double term = 1.0;
+        for (int k = 1; k < 50; k++) {
+            term *= (x / (2 * k)) * (x / (2 * k));
+            sum += term;
+            if (term < 1e-12 * sum) {
+                break;
+            }
+        }
+        return sum;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
@@ -0,0 +1,42 @@
+package com.ibkpoc.amn.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// audio/ScalarPcmKernels.java
+// PcmKernels 스칼라 구현 (SIMD를 쓸 수 없을 때, 그리고 SIMD 구현의 꼬리 처리용)
+final class ScalarPcmKernels implements PcmKernels.Impl {
+
+    @Override
+    public long sumOfSquares(ByteBuffer buf, int offset, int samples) {
+        boolean swap = buf.order() != ByteOrder.LITTLE_ENDIAN;
+        long sum = 0;
+        for (int i = 0; i < samples; i++) {
+            int s = sample(buf, offset + i * 2, swap);
+            sum += s * s;
+        }
+        return sum;
+    }
+
+    @Override
+    public void toFloat(ByteBuffer buf, int offset, float[] dst, int dstOffset, int samples) {
+        boolean swap = buf.order() != ByteOrder.LITTLE_ENDIAN;
+        for (int i = 0; i < samples; i++) {
+            dst[dstOffset + i] = sample(buf, offset + i * 2, swap);
+        }
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float acc = 0f;
+        for (int i = 0; i < length; i++) {
+            acc += a[aOffset + i] * b[bOffset + i];
+        }
+        return acc;
+    }
+
+    private static short sample(ByteBuffer buf, int index, boolean swap) {
+        short s = buf.getShort(index);
+        return swap ? Short.reverseBytes(s) : s;
+    }
+}
@@ -0,0 +1,117 @@
+package com.ibkpoc.amn.audio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+// audio/SpeechSegmenter.java
+// 순서대로 들어오는 PCM을 20ms 프레임 에너지로 보고 무음 구간에서 구간을 나눈다
+// 구간 길이는 minSegment 이상이고, maxSegment까지 무음이 없으면 그 사이 가장 조용한 프레임에서 자른다
+public class SpeechSegmenter {
+    private static final int FRAMES_PER_SECOND = 50;
+
+    private final int frameBytes;
+    private final int bitsPerSample;
+    private final long minSegmentBytes;
+    private final long maxSegmentBytes;
+    private final long minSilenceBytes;
+    private final double silenceThreshold;
+    private final byte[] carry;
+    private int carryLength;
+
+    private long position;          // 지금까지 처리한 PCM 바이트 (프레임 경계)
+    private long segmentStart;
+    private long silenceStart = -1;
+    private long quietestFrame = -1;
+    private double quietestEnergy = Double.MAX_VALUE;
+
+    public SpeechSegmenter(WavHeader header, int minSegmentSeconds, int maxSegmentSeconds,
+                           int minSilenceMs, double silenceThreshold) {
+        this.frameBytes = header.getSampleRate() / FRAMES_PER_SECOND * header.getBlockAlign();
+        this.bitsPerSample = header.getBitsPerSample();
+        this.minSegmentBytes = (long) header.getByteRate() * minSegmentSeconds / frameBytes * frameBytes;
+        this.maxSegmentBytes = Math.max(minSegmentBytes,
+                (long) header.getByteRate() * maxSegmentSeconds / frameBytes * frameBytes);
+        this.minSilenceBytes = Math.max(frameBytes, (long) header.getByteRate() * minSilenceMs / 1000);
+        this.silenceThreshold = silenceThreshold;
+        this.carry = new byte[frameBytes];
+    }
+
+    public long getSegmentStart() {
+        return segmentStart;
+    }
+
+    public long getPosition() {
+        return position + carryLength;
+    }
+
+    /**
+     * 이어지는 PCM을 넣고, 이번에 확정된 자르는 위치(PCM 시작 기준 바이트)를 순서대로 반환한다.
+     */
+    public List<Long> feed(ByteBuffer pcm) {
+        List<Long> cuts = new ArrayList<>();
+        ByteBuffer src = pcm.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (carryLength > 0) {
+            int n = Math.min(frameBytes - carryLength, src.remaining());
+            src.get(carry, carryLength, n);
+            carryLength += n;
+            if (carryLength < frameBytes) {
+                return cuts;
+            }
+            onFrame(ByteBuffer.wrap(carry).order(ByteOrder.LITTLE_ENDIAN), cuts);
+            carryLength = 0;
+        }
+        while (src.remaining() >= frameBytes) {
+            ByteBuffer frame = src.slice().order(ByteOrder.LITTLE_ENDIAN).limit(frameBytes);
+            onFrame(frame, cuts);
+            src.position(src.position() + frameBytes);
+        }
+        carryLength = src.remaining();
+        src.get(carry, 0, carryLength);
+        return cuts;
+    }
+
+    private void onFrame(ByteBuffer frame, List<Long> cuts) {
+        double energy = rms(frame);
+        long frameStart = position;
+        position += frameBytes;
+        boolean pastMin = frameStart >= segmentStart + minSegmentBytes;
+
+        if (energy < silenceThreshold) {
+            if (silenceStart < 0) {
+                silenceStart = frameStart;
+            }
+            long cut = silenceStart + minSilenceBytes / 2 / frameBytes * frameBytes;
+            if (position - silenceStart >= minSilenceBytes && cut >= segmentStart + minSegmentBytes) {
+                cut(cut, cuts);
+                return;
+            }
+        } else {
+            silenceStart = -1;
+        }
+
+        if (pastMin && energy < quietestEnergy) {
+            quietestEnergy = energy;
+            quietestFrame = frameStart;
+        }
+        if (position - segmentStart >= maxSegmentBytes) {
+            cut(quietestFrame > segmentStart ? quietestFrame : position, cuts);
+        }
+    }
+
+    private void cut(long at, List<Long> cuts) {
+        cuts.add(at);
+        segmentStart = at;
+        quietestFrame = -1;
+        quietestEnergy = Double.MAX_VALUE;
+    }
+
+    // 16비트 PCM만 에너지를 계산하고, 그 외 형식은 무음 없음으로 보고 최대 길이에서만 자른다
+    private double rms(ByteBuffer frame) {
+        if (bitsPerSample != 16) {
+            return Double.MAX_VALUE;
+        }
+        return PcmKernels.rms(frame, 0, frame.remaining() / 2);
+    }
+}
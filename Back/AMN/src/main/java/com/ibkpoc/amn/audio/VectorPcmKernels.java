@@ -0,0 +1,70 @@
+package com.ibkpoc.amn.audio;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// audio/VectorPcmKernels.java
+// PcmKernels SIMD 구현 (jdk.incubator.vector). 벡터 길이로 나누어떨어지지 않는 꼬리는 스칼라로 처리
+// PcmKernels가 모듈 존재를 확인한 뒤 이름으로만 로드하므로 다른 클래스에서 직접 참조하지 않는다
+final class VectorPcmKernels implements PcmKernels.Impl {
+    // 같은 비트 폭(shape)을 쓰므로 short 1벡터 = int/float 2벡터 = long 4벡터
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final long UNSIGNED_INT = 0xFFFFFFFFL;
+
+    private final ScalarPcmKernels tail = new ScalarPcmKernels();
+
+    @Override
+    public long sumOfSquares(ByteBuffer buf, int offset, int samples) {
+        LongVector acc = LongVector.zero(LONGS);
+        int bound = SHORTS.loopBound(samples);
+        for (int i = 0; i < bound; i += SHORTS.length()) {
+            ShortVector s = ShortVector.fromByteBuffer(SHORTS, buf, offset + i * 2, ByteOrder.LITTLE_ENDIAN);
+            IntVector lo = (IntVector) s.convertShape(VectorOperators.S2I, INTS, 0);
+            IntVector hi = (IntVector) s.convertShape(VectorOperators.S2I, INTS, 1);
+            // 제곱 두 개의 합은 최대 2^31이라 부호 없는 32비트로 보면 넘치지 않음
+            IntVector squares = lo.mul(lo).add(hi.mul(hi));
+            acc = acc.add(((LongVector) squares.convertShape(VectorOperators.I2L, LONGS, 0)).and(UNSIGNED_INT))
+                    .add(((LongVector) squares.convertShape(VectorOperators.I2L, LONGS, 1)).and(UNSIGNED_INT));
+        }
+        return acc.reduceLanes(VectorOperators.ADD)
+                + tail.sumOfSquares(buf, offset + bound * 2, samples - bound);
+    }
+
+    @Override
+    public void toFloat(ByteBuffer buf, int offset, float[] dst, int dstOffset, int samples) {
+        int bound = SHORTS.loopBound(samples);
+        for (int i = 0; i < bound; i += SHORTS.length()) {
+            ShortVector s = ShortVector.fromByteBuffer(SHORTS, buf, offset + i * 2, ByteOrder.LITTLE_ENDIAN);
+            ((FloatVector) s.convertShape(VectorOperators.S2F, FLOATS, 0)).intoArray(dst, dstOffset + i);
+            ((FloatVector) s.convertShape(VectorOperators.S2F, FLOATS, 1)).intoArray(dst, dstOffset + i + FLOATS.length());
+        }
+        tail.toFloat(buf, offset + bound * 2, dst, dstOffset + bound, samples - bound);
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(FLOATS);
+        int bound = FLOATS.loopBound(length);
+        for (int i = 0; i < bound; i += FLOATS.length()) {
+            acc = FloatVector.fromArray(FLOATS, a, aOffset + i)
+                    .fma(FloatVector.fromArray(FLOATS, b, bOffset + i), acc);
+        }
+        return acc.reduceLanes(VectorOperators.ADD)
+                + tail.dot(a, aOffset + bound, b, bOffset + bound, length - bound);
+    }
+
+    @Override
+    public String toString() {
+        return "VectorPcmKernels(" + SHORTS.vectorBitSize() + "bit)";
+    }
+}
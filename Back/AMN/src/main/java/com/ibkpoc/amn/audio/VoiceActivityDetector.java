@@ -0,0 +1,112 @@
+package com.ibkpoc.amn.audio;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// audio/VoiceActivityDetector.java
+// 20ms 프레임 에너지 기반 음성 구간 검출
+// 1) feed로 전체 PCM을 흘리며 프레임별 RMS만 모은다 (한 시간에 약 18만 개)
+// 2) speechRegions에서 하위 NOISE_PERCENTILE 에너지를 잡음 바닥으로 보고 그 배수를 임계값으로 삼아,
+//    minSilence 이상 이어지는 무음만 앞뒤 padding을 남기고 제거한 나머지를 음성 구간으로 반환한다
+public class VoiceActivityDetector {
+    private static final int FRAMES_PER_SECOND = 50;
+    private static final double NOISE_PERCENTILE = 0.1;
+
+    private final int frameBytes;
+    private final int minSilenceFrames;
+    private final int paddingFrames;
+    private final double thresholdFactor;
+    private final double minThreshold;
+    private final byte[] carry;
+    private int carryLength;
+    private float[] energies = new float[1024];
+    private int frames;
+    private long totalBytes;
+
+    public VoiceActivityDetector(WavHeader header, int minSilenceMs, int paddingMs,
+                                 double thresholdFactor, double minThreshold) {
+        this.frameBytes = header.getSampleRate() / FRAMES_PER_SECOND * header.getBlockAlign();
+        this.minSilenceFrames = Math.max(1, minSilenceMs * FRAMES_PER_SECOND / 1000);
+        this.paddingFrames = paddingMs * FRAMES_PER_SECOND / 1000;
+        this.thresholdFactor = thresholdFactor;
+        this.minThreshold = minThreshold;
+        this.carry = new byte[frameBytes];
+    }
+
+    public void feed(ByteBuffer pcm) {
+        ByteBuffer src = pcm.duplicate();
+        totalBytes += src.remaining();
+        if (carryLength > 0) {
+            int n = Math.min(frameBytes - carryLength, src.remaining());
+            src.get(carry, carryLength, n);
+            carryLength += n;
+            if (carryLength < frameBytes) {
+                return;
+            }
+            addFrame(PcmKernels.rms(ByteBuffer.wrap(carry), 0, frameBytes / 2));
+            carryLength = 0;
+        }
+        while (src.remaining() >= frameBytes) {
+            addFrame(PcmKernels.rms(src, src.position(), frameBytes / 2));
+            src.position(src.position() + frameBytes);
+        }
+        carryLength = src.remaining();
+        src.get(carry, 0, carryLength);
+    }
+
+    private void addFrame(double energy) {
+        if (frames == energies.length) {
+            energies = Arrays.copyOf(energies, frames * 2);
+        }
+        energies[frames++] = (float) energy;
+    }
+
+    public double threshold() {
+        if (frames == 0) {
+            return minThreshold;
+        }
+        float[] sorted = Arrays.copyOf(energies, frames);
+        Arrays.sort(sorted);
+        double noiseFloor = sorted[(int) (frames * NOISE_PERCENTILE)];
+        return Math.max(minThreshold, noiseFloor * thresholdFactor);
+    }
+
+    /**
+     * 남길 구간을 PCM 시작 기준 바이트 [start, end) 목록으로 반환한다. 음성이 전혀 없으면 빈 목록이다.
+     */
+    public List<long[]> speechRegions() {
+        double threshold = threshold();
+        List<long[]> regions = new ArrayList<>();
+        long keepFrom = 0;
+        boolean anySpeech = false;
+        int i = 0;
+        while (i < frames) {
+            if (energies[i] > threshold) {
+                anySpeech = true;
+                i++;
+                continue;
+            }
+            int runStart = i;
+            while (i < frames && energies[i] <= threshold) {
+                i++;
+            }
+            if (i - runStart < minSilenceFrames) {
+                continue;
+            }
+            // 긴 무음: 앞뒤 padding만 남기고 제거 (파일 처음/끝의 무음은 바깥쪽 padding 없음)
+            long dropFrom = runStart == 0 ? 0 : (long) (runStart + paddingFrames) * frameBytes;
+            long dropTo = i == frames ? totalBytes : (long) (i - paddingFrames) * frameBytes;
+            if (dropFrom > keepFrom) {
+                regions.add(new long[]{keepFrom, dropFrom});
+            }
+            keepFrom = Math.max(keepFrom, dropTo);
+        }
+        // 끝까지 이어진 긴 무음이면 keepFrom이 이미 totalBytes
+        if (keepFrom < totalBytes) {
+            regions.add(new long[]{keepFrom, totalBytes});
+        }
+        return anySpeech ? regions : List.of();
+    }
+}
@@ -0,0 +1,130 @@
+package com.ibkpoc.amn.audio;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+// audio/WavHeader.java
+// RIFF/WAVE 헤더 파싱 및 크기 필드 보정
+@Getter
+@AllArgsConstructor
+public class WavHeader {
+    public static final int CANONICAL_SIZE = 44;
+    private static final int MAX_HEADER_SCAN = 4096;
+
+    private final int sampleRate;
+    private final int channels;
+    private final int bitsPerSample;
+    private final long dataOffset;          // PCM 데이터 시작 위치
+    private final long dataSizeFieldOffset; // "data" 청크 크기 필드 위치
+
+    public int getBlockAlign() {
+        return channels * bitsPerSample / 8;
+    }
+
+    public int getByteRate() {
+        return sampleRate * getBlockAlign();
+    }
+
+    public static WavHeader read(FileChannel channel) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(MAX_HEADER_SCAN, channel.size()))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, buf.position()) < 0) {
+                break;
+            }
+        }
+        buf.flip();
+        return parse(buf);
+    }
+
+    public static WavHeader parse(ByteBuffer src) throws IOException {
+        ByteBuffer buf = src.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (buf.remaining() < 12 || buf.getInt(0) != fourCc("RIFF") || buf.getInt(8) != fourCc("WAVE")) {
+            throw new IOException("RIFF/WAVE 헤더가 아닙니다");
+        }
+
+        int sampleRate = 0;
+        int channels = 0;
+        int bitsPerSample = 0;
+        int pos = 12;
+        while (pos + 8 <= buf.limit()) {
+            int id = buf.getInt(pos);
+            long size = Integer.toUnsignedLong(buf.getInt(pos + 4));
+            if (id == fourCc("fmt ") && pos + 24 <= buf.limit()) {
+                channels = buf.getShort(pos + 10);
+                sampleRate = buf.getInt(pos + 12);
+                bitsPerSample = buf.getShort(pos + 22);
+            } else if (id == fourCc("data")) {
+                if (sampleRate == 0) {
+                    throw new IOException("fmt 청크가 data 청크보다 먼저 와야 합니다");
+                }
+                return new WavHeader(sampleRate, channels, bitsPerSample, pos + 8, pos + 4);
+            }
+            // RIFF 청크는 짝수 바이트로 정렬됨
+            pos += 8 + (int) (size + (size & 1));
+        }
+        throw new IOException("data 청크를 찾을 수 없습니다");
+    }
+
+    /**
+     * RIFF 및 data 크기 필드를 실제 파일 길이에 맞게 덮어쓴다.
+     * 헤더 앞부분 두 필드만 쓰므로 파일 크기와 무관하게 O(1)이다.
+     */
+    public void fixSizes(FileChannel channel, long fileLength) throws IOException {
+        long dataSize = Math.max(0, fileLength - dataOffset);
+        writeUInt32(channel, 4, Math.min(0xFFFFFFFFL, fileLength - 8));
+        writeUInt32(channel, dataSizeFieldOffset, Math.min(0xFFFFFFFFL, dataSize));
+    }
+
+    /**
+     * 헤더의 data 크기 필드 값. 마지막으로 fixSizes 한 시점까지의 데이터 길이다.
+     */
+    public long readDataSize(FileChannel channel) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, dataSizeFieldOffset + buf.position()) < 0) {
+                throw new IOException("data 크기 필드를 읽을 수 없습니다");
+            }
+        }
+        return Integer.toUnsignedLong(buf.getInt(0));
+    }
+
+    /**
+     * 44바이트 표준 PCM 헤더를 만든다. dataSize를 모르면 0을 넘기고 나중에 fixSizes로 보정한다.
+     */
+    public static ByteBuffer canonical(int sampleRate, int channels, int bitsPerSample, long dataSize) {
+        int blockAlign = channels * bitsPerSample / 8;
+        ByteBuffer buf = ByteBuffer.allocate(CANONICAL_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(fourCc("RIFF"));
+        buf.putInt((int) Math.min(0xFFFFFFFFL, dataSize + CANONICAL_SIZE - 8));
+        buf.putInt(fourCc("WAVE"));
+        buf.putInt(fourCc("fmt "));
+        buf.putInt(16);
+        buf.putShort((short) 1); // PCM
+        buf.putShort((short) channels);
+        buf.putInt(sampleRate);
+        buf.putInt(sampleRate * blockAlign);
+        buf.putShort((short) blockAlign);
+        buf.putShort((short) bitsPerSample);
+        buf.putInt(fourCc("data"));
+        buf.putInt((int) Math.min(0xFFFFFFFFL, dataSize));
+        buf.flip();
+        return buf;
+    }
+
+    private static void writeUInt32(FileChannel channel, long position, long value) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt((int) value).flip();
+        while (buf.hasRemaining()) {
+            position += channel.write(buf, position);
+        }
+    }
+
+    private static int fourCc(String s) {
+        return (s.charAt(0)) | (s.charAt(1) << 8) | (s.charAt(2) << 16) | (s.charAt(3) << 24);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ibkpoc.amn.config;
+
+import com.ibkpoc.amn.controller.LiveAudioWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+// config/WebSocketConfig.java
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+    private final LiveAudioWebSocketHandler liveAudioWebSocketHandler;
+
+    // 실시간 PCM 메시지 최대 크기 (앱은 AudioRecord 버퍼 단위로 전송)
+    @Value("${app.live.max-message-bytes:262144}")
+    private int maxMessageBytes;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(liveAudioWebSocketHandler, "/meeting/live")
+                .setAllowedOriginPatterns("*");
+    }
+
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(maxMessageBytes);
+        container.setMaxTextMessageBufferSize(8192);
+        return container;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ibkpoc.amn.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.service.LiveRecording;
+import com.ibkpoc.amn.service.LiveRecordingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// controller/LiveAudioWebSocketHandler.java
+// 회의 중 실시간 PCM 수신: ws /meeting/live?meetingId=&startTime=&sampleRate=&channels=&bitsPerSample=
+// 1. 연결 직후 서버가 {"type":"ready","offset":N} 전송 -> 클라이언트는 PCM 바이트 오프셋 N부터 binary 메시지로 전송
+// 2. 서버는 디스크에 반영된 길이를 {"type":"ack","offset":M}로 알림 -> 클라이언트는 M 이전 데이터를 재전송 대상에서 제외
+// 3. 회의 종료 시 클라이언트가 {"type":"end"} 전송 -> 서버가 파일을 마무리하고 {"type":"done"} 응답 후 종료
+// 끊기면 같은 쿼리로 다시 연결해 ready의 offset부터 이어 보낸다.
+// 메시지는 컨테이너 스레드에서 순서대로 처리되므로 파일 기록이 밀리면 다음 프레임을 읽지 않아 TCP 수준에서 송신이 늦춰진다.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LiveAudioWebSocketHandler extends AbstractWebSocketHandler {
+    private static final String RECORDING = "liveRecording";
+    private static final String SENDER = "liveSender";
+    private static final String ACKED = "liveAcked";
+    private static final int SEND_TIME_LIMIT_MS = 10_000;
+    private static final int SEND_BUFFER_LIMIT = 64 * 1024;
+
+    private final LiveRecordingService liveRecordingService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        Long meetingId = Long.valueOf(params.getFirst("meetingId"));
+        String startTime = params.getFirst("startTime");
+        int sampleRate = Integer.parseInt(Optional.ofNullable(params.getFirst("sampleRate")).orElse("44100"));
+        int channels = Integer.parseInt(Optional.ofNullable(params.getFirst("channels")).orElse("1"));
+        int bitsPerSample = Integer.parseInt(Optional.ofNullable(params.getFirst("bitsPerSample")).orElse("16"));
+
+        // ack는 fsync 스레드에서 보내므로 동시 전송이 안전한 데코레이터 사용 (느린 수신자는 제한 초과 시 끊김)
+        WebSocketSession sender = new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT);
+        try {
+            LiveRecording recording = liveRecordingService.open(meetingId, startTime, sampleRate, channels,
+                    bitsPerSample, session);
+            session.getAttributes().put(RECORDING, recording);
+            session.getAttributes().put(SENDER, sender);
+            session.getAttributes().put(ACKED, new AtomicLong(recording.getDurableLength()));
+            send(sender, Map.of("type", "ready", "offset", recording.getPcmLength()));
+        } catch (Exception e) {
+            log.error("실시간 녹음 연결 실패: meetingId={}", meetingId, e);
+            send(sender, Map.of("type", "error", "message", String.valueOf(e.getMessage())));
+            session.close(CloseStatus.POLICY_VIOLATION);
+        }
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        LiveRecording recording = recordingOf(session);
+        if (recording == null) {
+            return;
+        }
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().get(SENDER);
+        AtomicLong acked = (AtomicLong) session.getAttributes().get(ACKED);
+
+        liveRecordingService.append(recording, session, message.getPayload()).whenComplete((ignored, error) -> {
+            if (error != null) {
+                return;
+            }
+            // 같은 fsync 묶음의 여러 메시지가 각각 ack를 보내지 않도록 늘어난 경우에만 전송
+            long durable = recording.getDurableLength();
+            long previous = acked.get();
+            if (durable > previous && acked.compareAndSet(previous, durable) && sender.isOpen()) {
+                try {
+                    send(sender, Map.of("type", "ack", "offset", durable));
+                } catch (IOException e) {
+                    log.warn("실시간 녹음 ack 전송 실패: meetingId={}, error={}", recording.getMeetingId(), e.getMessage());
+                }
+            }
+        });
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        LiveRecording recording = recordingOf(session);
+        if (recording == null) {
+            return;
+        }
+        WebSocketSession sender = (WebSocketSession) session.getAttributes().get(SENDER);
+        JsonNode command = objectMapper.readTree(message.getPayload());
+        if (!"end".equals(command.path("type").asText())) {
+            send(sender, Map.of("type", "error", "message", "알 수 없는 메시지: " + command.path("type").asText()));
+            return;
+        }
+        // 재연결로 대체된 이전 연결의 end는 무시 (append와 같은 owner 확인)
+        if (recording.getOwner() != session) {
+            send(sender, Map.of("type", "error", "message", "다른 연결이 이 녹음을 이어받았습니다"));
+            session.close(CloseStatus.POLICY_VIOLATION);
+            return;
+        }
+
+        Optional<String> wavSrc = liveRecordingService.finish(recording.getMeetingId());
+        send(sender, Map.of("type", "done", "offset", recording.getPcmLength(), "wavSrc", wavSrc.orElse("")));
+        session.close(CloseStatus.NORMAL);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.warn("실시간 녹음 연결 오류: uri={}, error={}", session.getUri(), exception.getMessage());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        LiveRecording recording = (LiveRecording) session.getAttributes().get(RECORDING);
+        if (recording != null) {
+            // 마무리되지 않았다면 재연결 대기 (resume-timeout 후 자동 마무리)
+            liveRecordingService.release(recording, session);
+            log.info("실시간 녹음 연결 종료: meetingId={}, offset={}, status={}",
+                    recording.getMeetingId(), recording.getPcmLength(), status);
+        }
+    }
+
+    // 연결 준비에 실패한 세션(녹음 없음)으로 들어온 프레임은 처리하지 않고 연결을 닫음
+    private LiveRecording recordingOf(WebSocketSession session) throws IOException {
+        LiveRecording recording = (LiveRecording) session.getAttributes().get(RECORDING);
+        if (recording == null && session.isOpen()) {
+            session.close(CloseStatus.POLICY_VIOLATION);
+        }
+        return recording;
+    }
+
+    private void send(WebSocketSession sender, Map<String, Object> body) throws IOException {
+        sender.sendMessage(new TextMessage(objectMapper.writeValueAsString(body)));
+    }
+}
@@ -1,15 +1,27 @@
 package com.ibkpoc.amn.controller;
 
 import com.ibkpoc.amn.dto.*;
+import com.ibkpoc.amn.service.ChunkRetryableException;
 import com.ibkpoc.amn.service.MeetingService;
 import com.ibkpoc.amn.service.RecordService;
+import com.ibkpoc.amn.service.RecordingArchiveService;
+import com.ibkpoc.amn.service.SttJobService;
+import com.ibkpoc.amn.service.UploadBudgetExceededException;
+import com.ibkpoc.amn.service.UploadBudgetService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.concurrent.Callable;
 
 // controller/MeetingController.java
 @Slf4j
@@ -19,6 +31,9 @@ import java.util.List;
 public class MeetingController {
     private final MeetingService meetingService;
     private final RecordService recordService;
+    private final UploadBudgetService uploadBudgetService;
+    private final RecordingArchiveService recordingArchiveService;
+    private final SttJobService sttJobService;
 
     @PostMapping("/start")
     public ResponseEntity<CommonResponse<?>> startMeeting(@RequestBody StartMeetingRequest request) {
@@ -41,39 +56,148 @@ public class MeetingController {
         }
     }
 
+    // 업로드 예산은 본문 파싱 전에 MultipartUploadBudgetFilter가 Content-Length로 잡음
     @PostMapping("/upload/chunk")
     public ResponseEntity<CommonResponse<?>> uploadWavChunk(@ModelAttribute WavUploadRequest request) {
+        log.info("WAV 청크 업로드 요청: meetingId={}, chunk={}/{}, 파일크기={}",
+                request.getMeetingId(),
+                request.getCurrentChunk(),
+                request.getTotalChunks(),
+                request.getFile().getSize());
+        return upload(request.getMeetingId(), () -> recordService.saveWavFile(request));
+    }
+
+    // multipart 임시 파일 없이 요청 본문(application/octet-stream)을 녹음 파일 위치로 바로 옮김
+    @PutMapping(value = "/upload/{meetingId}/chunks/{chunk}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<CommonResponse<?>> uploadWavChunkStream(@PathVariable Long meetingId,
+                                                                  @PathVariable Integer chunk,
+                                                                  @RequestParam Integer totalChunks,
+                                                                  @RequestParam String startTime,
+                                                                  @RequestParam(required = false) Long crc32c,
+                                                                  HttpServletRequest httpRequest) {
+        long length = httpRequest.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(new CommonResponse<>("ERROR", "Content-Length가 필요합니다", null));
+        }
+        return uploadWithinBudget(meetingId, length, () -> recordService.saveChunk(
+                meetingId, startTime, totalChunks, chunk, length, crc32c, httpRequest.getInputStream()));
+    }
+
+    // 한 요청 본문에 [chunk int32][length int32][payload] 프레임을 여러 개 담아 전송, 청크별 결과를 acks로 반환
+    // checksums=true면 각 프레임의 length 뒤에 crc32c int32가 붙음
+    @PostMapping(value = "/upload/{meetingId}/chunks", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<CommonResponse<?>> uploadWavChunkBatch(@PathVariable Long meetingId,
+                                                                 @RequestParam Integer totalChunks,
+                                                                 @RequestParam String startTime,
+                                                                 @RequestParam(defaultValue = "false") boolean checksums,
+                                                                 HttpServletRequest httpRequest) {
+        long length = httpRequest.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                    .body(new CommonResponse<>("ERROR", "Content-Length가 필요합니다", null));
+        }
+        return uploadWithinBudget(meetingId, length, () -> recordService.saveChunkBatch(
+                meetingId, startTime, totalChunks, checksums, httpRequest.getInputStream()));
+    }
+
+    private ResponseEntity<CommonResponse<?>> uploadWithinBudget(Long meetingId, long size,
+                                                               Callable<?> upload) {
+        return upload(meetingId, () -> {
+            try (UploadBudgetService.Permit permit = uploadBudgetService.acquire(meetingId, size)) {
+                return upload.call();
+            }
+        });
+    }
+
+    private ResponseEntity<CommonResponse<?>> upload(Long meetingId, Callable<?> upload) {
         try {
-            log.info("WAV 청크 업로드 요청: meetingId={}, chunk={}/{}, 파일크기={}",
-                    request.getMeetingId(),
-                    request.getCurrentChunk(),
-                    request.getTotalChunks(),
-                    request.getFile().getSize());
-
-            recordService.saveWavFile(request);
-            return ResponseEntity.ok(new CommonResponse<>("SUCCESS", "WAV 청크가 업로드되었습니다", null));
+            Object response = upload.call();
+            return ResponseEntity.ok(new CommonResponse<>("SUCCESS", "WAV 청크가 업로드되었습니다", response));
+        } catch (UploadBudgetExceededException e) {
+            // 노드 전체 초과는 503, 회의별 초과는 429 (클라이언트는 Retry-After 후 재전송)
+            HttpStatus status = e.getScope() == UploadBudgetExceededException.Scope.NODE
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+            return ResponseEntity.status(status)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(new CommonResponse<>("BUSY", e.getMessage(), null));
+        } catch (ChunkRetryableException e) {
+            // 본문 손상은 422, 같은 청크를 다른 요청이 기록 중이면 409 (둘 다 같은 청크를 다시 보내면 됨)
+            HttpStatus status = e.getReason() == ChunkRetryableException.Reason.CHECKSUM_MISMATCH
+                    ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CONFLICT;
+            return ResponseEntity.status(status)
+                    .body(new CommonResponse<>("RETRY", e.getMessage(), null));
         } catch (Exception e) {
-            log.error("WAV 청크 업로드 실패: meetingId={}", request.getMeetingId(), e);
+            log.error("WAV 청크 업로드 실패: meetingId={}", meetingId, e);
             return ResponseEntity.badRequest()
                     .body(new CommonResponse<>("ERROR", "청크 업로드 실패: " + e.getMessage(), null));
         }
     }
 
+    @GetMapping("/upload/{meetingId}/status")
+    public ResponseEntity<CommonResponse<?>> getUploadStatus(@PathVariable Long meetingId) {
+        return recordService.getUploadStatus(meetingId)
+                .<ResponseEntity<CommonResponse<?>>>map(status ->
+                        ResponseEntity.ok(new CommonResponse<>("SUCCESS", "업로드 상태 조회 성공", status)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new CommonResponse<>("ERROR", "진행 중인 업로드가 없습니다", null)));
+    }
+
+    // 회의 녹음 WAV (압축 보관된 녹음은 읽으면서 풀어서 전송, Range 요청 지원)
+    @GetMapping("/{meetingId}/audio")
+    public ResponseEntity<Resource> getRecording(@PathVariable Long meetingId) {
+        return recordingArchiveService.openRecording(meetingId)
+                .map(resource -> ResponseEntity.ok()
+                        .contentType(MediaType.parseMediaType("audio/wav"))
+                        .body(resource))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // STT는 작업 큐에 넣고 바로 202 + 작업 ID 반환 (진행 상태는 /stt-jobs/{jobId} 조회 또는 /events 구독)
     @PostMapping("/stt-request")
     public ResponseEntity<CommonResponse<?>> processStt(@RequestBody SttRequest request) {
         try {
             log.info("STT 요청 수신: meetingId={}", request.getMeetingId());
 
-            // 서비스 호출
-            meetingService.processSttRequest(request.getMeetingId());
+            SttJobResponse job = sttJobService.submit(request.getMeetingId());
 
-            return ResponseEntity.ok(new CommonResponse<>("SUCCESS", "STT 요청이 처리되었습니다", null));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(new CommonResponse<>("SUCCESS", "STT 요청이 접수되었습니다", job));
         } catch (Exception e) {
             log.error("STT 요청 처리 실패: meetingId={}", request.getMeetingId(), e);
             return ResponseEntity.badRequest()
                     .body(new CommonResponse<>("ERROR", "STT 요청 처리 실패: " + e.getMessage(), null));
         }
     }
+
+    @GetMapping("/stt-jobs/{jobId}")
+    public ResponseEntity<CommonResponse<?>> getSttJob(@PathVariable Long jobId) {
+        return sttJobService.find(jobId)
+                .<ResponseEntity<CommonResponse<?>>>map(job ->
+                        ResponseEntity.ok(new CommonResponse<>("SUCCESS", "STT 작업 조회 성공", job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new CommonResponse<>("ERROR", "STT 작업이 없습니다", null)));
+    }
+
+    // 회의의 가장 최근 STT 작업
+    @GetMapping("/{meetingId}/stt-job")
+    public ResponseEntity<CommonResponse<?>> getLatestSttJob(@PathVariable Long meetingId) {
+        return sttJobService.findLatest(meetingId)
+                .<ResponseEntity<CommonResponse<?>>>map(job ->
+                        ResponseEntity.ok(new CommonResponse<>("SUCCESS", "STT 작업 조회 성공", job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(new CommonResponse<>("ERROR", "STT 작업이 없습니다", null)));
+    }
+
+    // 상태가 바뀔 때마다 "status" 이벤트, DONE/FAILED에서 종료
+    @GetMapping(value = "/stt-jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeSttJob(@PathVariable Long jobId) {
+        try {
+            return ResponseEntity.ok(sttJobService.subscribe(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
 
 
@@ -0,0 +1,87 @@
+package com.ibkpoc.amn.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.dto.CommonResponse;
+import com.ibkpoc.amn.service.UploadBudgetExceededException;
+import com.ibkpoc.amn.service.UploadBudgetService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// controller/MultipartUploadBudgetFilter.java
+// multipart 청크 업로드(/meeting/upload/chunk)는 컨트롤러에 오기 전에 본문 전체가 파싱/임시 저장되므로
+// 본문을 읽기 전에 Content-Length로 업로드 예산을 잡고, 초과면 컨트롤러와 같은 503/429 + Retry-After로 거절한다
+// meetingId는 본문 안에 있어 X-Meeting-Id 헤더가 있을 때만 회의별 예산도 본다 (없으면 노드 예산만)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MultipartUploadBudgetFilter extends OncePerRequestFilter {
+    static final String PATH = "/meeting/upload/chunk";
+    private static final String MEETING_HEADER = "X-Meeting-Id";
+
+    private final UploadBudgetService uploadBudgetService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || !PATH.equals(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            write(response, HttpStatus.LENGTH_REQUIRED, null, new CommonResponse<>("ERROR", "Content-Length가 필요합니다", null));
+            return;
+        }
+        Long meetingId = parseMeetingId(request.getHeader(MEETING_HEADER));
+        UploadBudgetService.Permit permit;
+        try {
+            permit = uploadBudgetService.acquire(meetingId, length);
+        } catch (UploadBudgetExceededException e) {
+            // 노드 전체 초과는 503, 회의별 초과는 429 (클라이언트는 Retry-After 후 재전송)
+            HttpStatus status = e.getScope() == UploadBudgetExceededException.Scope.NODE
+                    ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+            write(response, status, String.valueOf(e.getRetryAfterSeconds()),
+                    new CommonResponse<>("BUSY", e.getMessage(), null));
+            return;
+        }
+        try (permit) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static Long parseMeetingId(String header) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private void write(HttpServletResponse response, HttpStatus status, String retryAfter,
+                       CommonResponse<?> body) throws IOException {
+        response.setStatus(status.value());
+        if (retryAfter != null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
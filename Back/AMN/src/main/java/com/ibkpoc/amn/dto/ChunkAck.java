@@ -0,0 +1,15 @@
+package com.ibkpoc.amn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 배치 업로드에서 청크별 처리 결과
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkAck {
+    private Integer chunk;
+    private String status;   // SUCCESS, DUPLICATE, RETRY, ERROR
+    private String message;
+}
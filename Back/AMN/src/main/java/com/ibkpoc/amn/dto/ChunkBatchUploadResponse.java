@@ -0,0 +1,20 @@
+package com.ibkpoc.amn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkBatchUploadResponse {
+    private List<ChunkAck> acks;            // 본문 프레임 순서대로의 청크별 결과
+    private Integer receivedChunks;
+    private Integer totalChunks;
+    private boolean complete;               // 이 배치로 파일이 완성되었는지
+    private Integer recommendedParallelism; // 권장 동시 청크 업로드 수
+}
@@ -0,0 +1,19 @@
+package com.ibkpoc.amn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkUploadResponse {
+    private Integer chunk;
+    private Integer receivedChunks;
+    private Integer totalChunks;
+    private boolean complete;               // 이 청크로 파일이 완성되었는지
+    private boolean duplicate;              // 이미 받은 청크라 기록하지 않음
+    private Integer recommendedParallelism; // 권장 동시 청크 업로드 수
+}
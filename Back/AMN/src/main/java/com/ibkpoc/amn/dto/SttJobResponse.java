@@ -0,0 +1,23 @@
+package com.ibkpoc.amn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SttJobResponse {
+    private Long jobId;
+    private Long meetingId;
+    private String status;           // QUEUED, RUNNING, DONE, FAILED
+    private Integer attempts;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,22 @@
+package com.ibkpoc.amn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadStatusResponse {
+    private Long meetingId;
+    private boolean complete;
+    private String state;            // RECEIVING, FINALIZING, DONE, ABORTED
+    private Integer totalChunks;
+    private Integer receivedChunks;
+    private String receivedBitmap;   // Base64, 청크 i는 byte[i/8]의 (i%8)번째 비트 (LSB 우선)
+    private Long totalBytes;
+    private Long timeoutRemainingMs; // 이 시간 안에 다음 청크가 오지 않으면 업로드 종료
+    private Integer recommendedParallelism; // 권장 동시 청크 업로드 수
+}
@@ -14,4 +14,5 @@ public class WavUploadRequest {
     private Integer currentChunk;
     private Integer totalChunks;
     private MultipartFile file;
+    private Long crc32c; // 선택: 청크 본문의 CRC32C (부호 없는 32비트 값)
 }
\ No newline at end of file
@@ -26,5 +26,6 @@ public class Meeting {
     @Column(name = "participant_count") // 컬럼명 명시
     private Integer participants; // 참가자 수
     private String wavSrc; // 녹음 파일 위치 추가
+    private String wavDigest; // 병합된 녹음 파일의 SHA-256 (hex)
     private String sttSrc; // 녹음 파일 위치 추가
 }
\ No newline at end of file
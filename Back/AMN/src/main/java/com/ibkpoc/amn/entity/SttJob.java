@@ -0,0 +1,41 @@
+package com.ibkpoc.amn.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// STT 작업 큐 (여러 백엔드 노드가 FOR UPDATE SKIP LOCKED로 나눠 가져감)
+@Entity
+@Table(name = "ibk_poc_stt_job", indexes = {
+        @Index(name = "idx_stt_job_status", columnList = "status, availableAt"),
+        @Index(name = "idx_stt_job_meeting", columnList = "meetingId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+public class SttJob {
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long jobId;
+
+    private Long meetingId;
+    private String status;              // QUEUED, RUNNING, DONE, FAILED
+    private Integer attempts;           // 실행을 시작한 횟수
+    @Column(length = 2000)
+    private String error;               // 마지막 실패 사유
+    private String lockedBy;            // 실행 중인 노드
+    private LocalDateTime lockedUntil;  // 이 시각까지 heartbeat가 없으면 다른 노드가 다시 가져감
+    private LocalDateTime availableAt;  // 재시도 대기 중이면 이 시각 이후에 가져감
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime updatedAt;
+}
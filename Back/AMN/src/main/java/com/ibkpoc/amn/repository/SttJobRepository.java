@@ -0,0 +1,35 @@
+package com.ibkpoc.amn.repository;
+
+import com.ibkpoc.amn.entity.SttJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SttJobRepository extends JpaRepository<SttJob, Long> {
+    // 대기 중이거나 실행 노드의 임대가 끝난 작업 하나를 잠그고 가져옴. 다른 노드가 잠근 행은 건너뜀
+    @Query(value = "SELECT * FROM ibk_poc_stt_job"
+            + " WHERE (status = 'QUEUED' AND available_at <= :now)"
+            + " OR (status = 'RUNNING' AND locked_until < :now)"
+            + " ORDER BY job_id LIMIT 1 FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<SttJob> lockNext(@Param("now") LocalDateTime now);
+
+    Optional<SttJob> findFirstByMeetingIdAndStatusInOrderByJobIdDesc(Long meetingId, Collection<String> statuses);
+
+    Optional<SttJob> findFirstByMeetingIdOrderByJobIdDesc(Long meetingId);
+
+    List<SttJob> findByJobIdIn(Collection<Long> jobIds);
+
+    @Modifying
+    @Query("UPDATE SttJob j SET j.lockedUntil = :until, j.updatedAt = :now"
+            + " WHERE j.jobId = :jobId AND j.lockedBy = :node AND j.status = 'RUNNING'")
+    int extendLease(@Param("jobId") Long jobId, @Param("node") String node,
+                    @Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,56 @@
+package com.ibkpoc.amn.service;
+
+// service/AdaptiveIdleTimeout.java
+// 청크 도착 간격의 이동 평균/편차로 녹음별 유휴 타임아웃을 계산 (TCP RTO 추정과 같은 방식)
+public class AdaptiveIdleTimeout {
+    private static final double GAIN = 0.125;     // 평균 반영 비율
+    private static final double DEV_GAIN = 0.25;  // 편차 반영 비율
+
+    private final long minNanos;
+    private final long maxNanos;
+    private final double deviationMultiplier;
+
+    private long lastArrivalNanos = -1;
+    private double meanGapNanos;
+    private double deviationNanos;
+    private boolean hasSample;
+    private volatile long timeoutNanos;
+
+    public AdaptiveIdleTimeout(long initialNanos, long minNanos, long maxNanos, double deviationMultiplier) {
+        this.minNanos = minNanos;
+        this.maxNanos = maxNanos;
+        this.deviationMultiplier = deviationMultiplier;
+        this.timeoutNanos = clamp(initialNanos);
+    }
+
+    /**
+     * 청크 도착 시각을 반영하고 직전 청크와의 간격을 반환한다. 첫 청크는 -1을 반환한다.
+     * 간격 표본이 생기기 전까지는 초기 타임아웃을 유지한다.
+     */
+    public synchronized long onArrival(long nowNanos) {
+        if (lastArrivalNanos < 0) {
+            lastArrivalNanos = nowNanos;
+            return -1;
+        }
+        long gap = Math.max(0, nowNanos - lastArrivalNanos);
+        lastArrivalNanos = Math.max(lastArrivalNanos, nowNanos);
+        if (!hasSample) {
+            meanGapNanos = gap;
+            deviationNanos = gap / 2.0;
+            hasSample = true;
+        } else {
+            deviationNanos += DEV_GAIN * (Math.abs(gap - meanGapNanos) - deviationNanos);
+            meanGapNanos += GAIN * (gap - meanGapNanos);
+        }
+        timeoutNanos = clamp((long) (meanGapNanos + deviationMultiplier * deviationNanos));
+        return gap;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    private long clamp(long nanos) {
+        return Math.max(minNanos, Math.min(maxNanos, nanos));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ibkpoc.amn.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// service/ChunkBitmap.java
+// 여러 요청 스레드가 동시에 갱신하는 수신 청크 비트맵
+public class ChunkBitmap {
+    private final int size;
+    private final AtomicLongArray words;
+    private final AtomicInteger cardinality = new AtomicInteger();
+
+    public ChunkBitmap(int size) {
+        this.size = size;
+        this.words = new AtomicLongArray((size + 63) >>> 6);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 비트를 설정하고, 이번 호출이 처음 설정한 경우에만 설정 후 개수를 반환한다.
+     * 이미 설정되어 있었다면 -1을 반환한다.
+     */
+    public int set(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0) {
+                return -1;
+            }
+            if (words.compareAndSet(word, current, current | mask)) {
+                return cardinality.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 비트를 해제하고, 이번 호출이 해제한 경우 true를 반환한다.
+     */
+    public boolean clear(int index) {
+        int word = index >>> 6;
+        long mask = 1L << index;
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) == 0) {
+                return false;
+            }
+            if (words.compareAndSet(word, current, current & ~mask)) {
+                cardinality.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public boolean get(int index) {
+        return (words.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    public int cardinality() {
+        return cardinality.get();
+    }
+
+    public boolean isFull() {
+        return size > 0 && cardinality.get() == size;
+    }
+
+    public int nextClearBit(int from) {
+        for (int i = from; i < size; i++) {
+            if (!get(i)) {
+                return i;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * java.util.BitSet#toByteArray와 같은 형식 (청크 i는 byte[i/8]의 i%8번째 비트).
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[(size + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words.get(i >>> 3) >>> ((i & 7) * 8));
+        }
+        return bytes;
+    }
+}
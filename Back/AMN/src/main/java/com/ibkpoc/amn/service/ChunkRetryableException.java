@@ -0,0 +1,19 @@
+package com.ibkpoc.amn.service;
+
+import lombok.Getter;
+
+// service/ChunkRetryableException.java
+// 같은 청크를 다시 보내면 성공할 수 있는 실패 (기록된 내용은 수신으로 인정되지 않음)
+@Getter
+public class ChunkRetryableException extends RuntimeException {
+    public enum Reason { CHECKSUM_MISMATCH, IN_PROGRESS }
+
+    private final Reason reason;
+    private final int chunk;
+
+    public ChunkRetryableException(Reason reason, int chunk, String message) {
+        super(message);
+        this.reason = reason;
+        this.chunk = chunk;
+    }
+}
@@ -0,0 +1,175 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.audio.WavHeader;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+// service/ChunkedWavFile.java
+// 고정 크기 청크를 도착 즉시 해당 오프셋에 기록하는 WAV 파일
+@Slf4j
+public class ChunkedWavFile implements Closeable {
+    @Getter
+    private final Path path;
+    @Getter
+    private final int chunkSize;
+    @Getter
+    private final int totalChunks;
+    private final FileChannel channel;
+    private volatile long lastChunkLength = -1;
+
+    public ChunkedWavFile(Path path, int chunkSize, int totalChunks) throws IOException {
+        this.path = path;
+        this.chunkSize = chunkSize;
+        this.totalChunks = totalChunks;
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // 최대 크기로 미리 확보 (마지막 청크 도착 후 실제 길이로 잘라냄)
+        long capacity = (long) chunkSize * totalChunks;
+        if (channel.size() < capacity) {
+            channel.write(ByteBuffer.allocate(1), capacity - 1);
+        }
+    }
+
+    public long offsetOf(int index) {
+        return (long) index * chunkSize;
+    }
+
+    public void validate(int index, long length) {
+        if (index < 0 || index >= totalChunks) {
+            throw new IllegalArgumentException("청크 번호 범위 초과: " + index + "/" + totalChunks);
+        }
+        boolean last = index == totalChunks - 1;
+        if (length <= 0 || length > chunkSize || (!last && length != chunkSize)) {
+            throw new IllegalArgumentException(String.format(
+                    "청크 크기 오류: chunk=%d, size=%d, 기대 크기=%d", index, length, chunkSize));
+        }
+    }
+
+    public void writeChunk(int index, ByteBuffer data) throws IOException {
+        validate(index, data.remaining());
+        int length = data.remaining();
+        long position = offsetOf(index);
+        while (data.hasRemaining()) {
+            position += channel.write(data, position);
+        }
+        if (index == totalChunks - 1) {
+            lastChunkLength = length;
+        }
+    }
+
+    /**
+     * 요청 본문 채널에서 파일의 청크 위치로 바로 옮긴다 (힙 byte[] 복사 없음).
+     * 지나가는 바이트로 CRC32C를 함께 계산해 반환한다.
+     */
+    public int writeChunk(int index, ReadableByteChannel src, long length) throws IOException {
+        validate(index, length);
+        CRC32C crc = new CRC32C();
+        ReadableByteChannel checksummed = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                int start = dst.position();
+                int n = src.read(dst);
+                if (n > 0) {
+                    crc.update(dst.duplicate().flip().position(start));
+                }
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return src.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                src.close();
+            }
+        };
+
+        long position = offsetOf(index);
+        long written = 0;
+        while (written < length) {
+            long n = channel.transferFrom(checksummed, position + written, length - written);
+            if (n <= 0) {
+                throw new EOFException(String.format("청크 본문이 짧습니다: chunk=%d, %d/%d", index, written, length));
+            }
+            written += n;
+        }
+        if (index == totalChunks - 1) {
+            lastChunkLength = length;
+        }
+        return (int) crc.getValue();
+    }
+
+    /**
+     * 재시작 복구용: 파일에 남아 있는 청크 내용이 로그의 CRC32C와 일치하는지 확인한다.
+     * 일치하면 기록된 청크로 인정한다(마지막 청크 길이 복원 포함).
+     */
+    public boolean verifyChunk(int index, int length, int crc) throws IOException {
+        validate(index, length);
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        long position = offsetOf(index);
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                return false;
+            }
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(buf.flip());
+        if ((int) checksum.getValue() != crc) {
+            return false;
+        }
+        if (index == totalChunks - 1) {
+            lastChunkLength = length;
+        }
+        return true;
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    public long expectedLength() {
+        return lastChunkLength < 0 ? -1 : offsetOf(totalChunks - 1) + lastChunkLength;
+    }
+
+    /**
+     * 파일을 실제 길이로 자르고 헤더 크기 필드를 보정한다.
+     */
+    public long complete() throws IOException {
+        long length = expectedLength();
+        if (length < 0) {
+            throw new IllegalStateException("마지막 청크가 아직 도착하지 않았습니다: " + path);
+        }
+        channel.truncate(length);
+        try {
+            WavHeader.read(channel).fixSizes(channel, length);
+        } catch (IOException e) {
+            log.warn("WAV 헤더 보정 실패: path={}, error={}", path, e.getMessage());
+        }
+        channel.force(false);
+        return length;
+    }
+
+    /**
+     * 마무리된 파일 전체의 SHA-256을 hex 문자열로 반환한다.
+     */
+    public String sha256() throws IOException {
+        return FileDigests.sha256(channel);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
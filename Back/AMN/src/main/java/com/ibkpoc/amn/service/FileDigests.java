@@ -0,0 +1,54 @@
+package com.ibkpoc.amn.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// service/FileDigests.java
+// 완성된 녹음 파일의 무결성 값 (Meeting.wavDigest)
+final class FileDigests {
+
+    private FileDigests() {
+    }
+
+    /**
+     * 채널 전체의 SHA-256을 hex 문자열로 반환한다. 채널 position은 바꾸지 않는다.
+     */
+    static String sha256(FileChannel channel) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+        long position = 0;
+        int n;
+        while ((n = channel.read(buf, position)) > 0) {
+            position += n;
+            digest.update(buf.flip());
+            buf.clear();
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 스트림 끝까지의 SHA-256 (압축 보관본 검증용). 스트림은 닫지 않는다.
+     */
+    static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buf = new byte[1 << 16];
+        int n;
+        while ((n = in.read(buf)) > 0) {
+            digest.update(buf, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.audio.WavHeader;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// service/LiveRecording.java
+// 실시간으로 들어오는 PCM을 뒤에 이어 붙이는 WAV 파일
+// fsync 때마다 헤더 크기 필드를 함께 갱신하므로, 재시작 후에는 헤더의 data 크기가 디스크에 반영된 길이다
+@Slf4j
+public class LiveRecording implements Closeable, SpoolSyncer.Target {
+    @Getter
+    private final Long meetingId;
+    @Getter
+    private final Path path;
+    @Getter
+    private final int sampleRate;
+    @Getter
+    private final int channels;
+    @Getter
+    private final int bitsPerSample;
+    private final FileChannel channel;
+    private final WavHeader header;
+    private volatile long pcmLength;
+    private volatile long durableLength;
+    @Getter
+    private volatile long lastActivityNanos = System.nanoTime();
+    // 현재 이 녹음에 PCM을 보내는 연결 (재연결 시 이전 연결을 대체)
+    @Getter
+    private volatile Object owner;
+
+    private LiveRecording(Long meetingId, Path path, FileChannel channel, WavHeader header, long pcmLength) {
+        this.meetingId = meetingId;
+        this.path = path;
+        this.channel = channel;
+        this.header = header;
+        this.sampleRate = header.getSampleRate();
+        this.channels = header.getChannels();
+        this.bitsPerSample = header.getBitsPerSample();
+        this.pcmLength = pcmLength;
+        this.durableLength = pcmLength;
+    }
+
+    /**
+     * 파일이 없으면 표준 헤더로 새로 만들고, 있으면 헤더에 기록된(디스크에 반영된) 길이에서 이어 쓴다.
+     * 헤더 이후에 남은 반영되지 않은 꼬리는 잘라낸다.
+     */
+    public static LiveRecording open(Long meetingId, Path path, int sampleRate, int channels,
+                                     int bitsPerSample) throws IOException {
+        boolean exists = Files.exists(path) && Files.size(path) >= WavHeader.CANONICAL_SIZE;
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (!exists) {
+                ByteBuffer canonical = WavHeader.canonical(sampleRate, channels, bitsPerSample, 0);
+                while (canonical.hasRemaining()) {
+                    channel.write(canonical, canonical.position());
+                }
+                channel.truncate(WavHeader.CANONICAL_SIZE);
+                channel.force(true);
+                return new LiveRecording(meetingId, path, channel,
+                        WavHeader.parse(WavHeader.canonical(sampleRate, channels, bitsPerSample, 0)), 0);
+            }
+
+            WavHeader header = WavHeader.read(channel);
+            if (header.getSampleRate() != sampleRate || header.getChannels() != channels
+                    || header.getBitsPerSample() != bitsPerSample) {
+                throw new IllegalArgumentException(String.format(
+                        "기존 녹음과 형식이 다릅니다: 기존=%dHz/%dch/%dbit, 요청=%dHz/%dch/%dbit",
+                        header.getSampleRate(), header.getChannels(), header.getBitsPerSample(),
+                        sampleRate, channels, bitsPerSample));
+            }
+            long available = channel.size() - header.getDataOffset();
+            long pcmLength = Math.min(header.readDataSize(channel), available);
+            channel.truncate(header.getDataOffset() + pcmLength);
+            log.info("실시간 녹음 이어쓰기: meetingId={}, path={}, offset={}", meetingId, path, pcmLength);
+            return new LiveRecording(meetingId, path, channel, header, pcmLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 재시작 후 남은 파일을 헤더의 형식 그대로 다시 연다. 헤더가 없을 만큼 짧은 파일이면 IOException.
+     */
+    public static LiveRecording recover(Long meetingId, Path path) throws IOException {
+        WavHeader header;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < WavHeader.CANONICAL_SIZE) {
+                throw new IOException("WAV 헤더가 없는 실시간 녹음 파일: " + path);
+            }
+            header = WavHeader.read(channel);
+        }
+        return open(meetingId, path, header.getSampleRate(), header.getChannels(), header.getBitsPerSample());
+    }
+
+    public long getDataOffset() {
+        return header.getDataOffset();
+    }
+
+    public long getPcmLength() {
+        return pcmLength;
+    }
+
+    public long getDurableLength() {
+        return durableLength;
+    }
+
+    public void claim(Object owner) {
+        this.owner = owner;
+        this.lastActivityNanos = System.nanoTime();
+    }
+
+    public void release(Object owner) {
+        if (this.owner == owner) {
+            this.owner = null;
+            this.lastActivityNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 현재 끝에 PCM을 이어 붙이고 새 길이를 반환한다. 한 번에 한 연결만 쓰므로 동기화는 안전장치다.
+     */
+    public synchronized long append(ByteBuffer pcm) throws IOException {
+        long position = header.getDataOffset() + pcmLength;
+        while (pcm.hasRemaining()) {
+            position += channel.write(pcm, position);
+        }
+        pcmLength = position - header.getDataOffset();
+        lastActivityNanos = System.nanoTime();
+        return pcmLength;
+    }
+
+    // 데이터와 헤더 크기 필드를 함께 반영, 반영된 길이를 재개 지점으로 사용
+    @Override
+    public void sync() throws IOException {
+        long length = pcmLength;
+        header.fixSizes(channel, header.getDataOffset() + length);
+        channel.force(false);
+        durableLength = Math.max(durableLength, length);
+    }
+
+    /**
+     * 마지막 길이로 헤더를 보정하고 파일 SHA-256을 반환한다.
+     */
+    public synchronized String complete() throws IOException {
+        sync();
+        return FileDigests.sha256(channel);
+    }
+
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
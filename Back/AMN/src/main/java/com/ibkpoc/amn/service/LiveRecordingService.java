@@ -0,0 +1,225 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// service/LiveRecordingService.java
+// 회의 중 실시간 PCM 수신. 회의가 끝나는 순간 녹음 파일도 완성된다.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LiveRecordingService implements DisposableBean {
+    private final MeetingService meetingService;
+    private final ProgressiveSttService progressiveSttService;
+    private final RecordingLayout recordingLayout;
+
+    // 연결이 끊긴 뒤 이 시간 안에 재연결이 없으면 받은 데까지로 녹음을 마무리
+    @Value("${app.live.resume-timeout-ms:120000}")
+    private long resumeTimeoutMs;
+
+    @Value("${app.record.spool.fsync-interval-ms:100}")
+    private long fsyncIntervalMs;
+
+    // meeting_<id>_<startTime>_live.wav (구간 STT 파일 _live_seg000.wav는 제외)
+    private static final Pattern LIVE_FILE = Pattern.compile("meeting_(\\d+)_.*_live\\.wav");
+    // base/yyyy/MM/dd/shard/파일
+    private static final int LAYOUT_DEPTH = 5;
+
+    private final Map<Long, LiveRecording> activeRecordings = new ConcurrentHashMap<>();
+    private SpoolSyncer spoolSyncer;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("live-recording-sweeper-%d").build()
+    );
+
+    @PostConstruct
+    public void init() {
+        spoolSyncer = new SpoolSyncer(fsyncIntervalMs);
+        recoverRecordings();
+        scheduler.scheduleWithFixedDelay(this::sweepAbandoned, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 이전 프로세스가 마무리하지 못한 실시간 녹음을 헤더에 반영된 길이로 다시 연다.
+     * 연결이 없는 상태로 등록되므로 resume-timeout 안에 재연결하면 getPcmLength()부터 이어 받고, 아니면 받은 데까지로 마무리된다.
+     */
+    private void recoverRecordings() {
+        if (!Files.isDirectory(recordingLayout.getBasePath())) {
+            return;
+        }
+        List<Path> files;
+        try (Stream<Path> paths = Files.find(recordingLayout.getBasePath(), LAYOUT_DEPTH,
+                (path, attrs) -> attrs.isRegularFile() && LIVE_FILE.matcher(path.getFileName().toString()).matches())) {
+            files = paths.toList();
+        } catch (IOException e) {
+            log.error("실시간 녹음 파일 조회 실패: {}", recordingLayout.getBasePath(), e);
+            return;
+        }
+
+        for (Path path : files) {
+            Matcher matcher = LIVE_FILE.matcher(path.getFileName().toString());
+            if (!matcher.matches()) {
+                continue;
+            }
+            Long meetingId = Long.valueOf(matcher.group(1));
+            try {
+                // 마무리된 실시간 녹음은 파일 이름을 그대로 wavSrc로 씀
+                if (meetingService.findWavSrc(meetingId).isPresent() || activeRecordings.containsKey(meetingId)) {
+                    continue;
+                }
+                LiveRecording recording = LiveRecording.recover(meetingId, path);
+                activeRecordings.put(meetingId, recording);
+                log.info("실시간 녹음 복구: meetingId={}, path={}, offset={}", meetingId, path, recording.getPcmLength());
+            } catch (Exception e) {
+                log.error("실시간 녹음 복구 실패: path={}", path, e);
+            }
+        }
+    }
+
+    /**
+     * 녹음을 열거나(재연결이면 기존 녹음을) 가져와 owner를 현재 연결로 바꾼다.
+     * 반환된 녹음의 getPcmLength()가 클라이언트가 이어서 보낼 PCM 바이트 오프셋이다.
+     */
+    public LiveRecording open(Long meetingId, String startTime, int sampleRate, int channels,
+                              int bitsPerSample, Object owner) {
+        if (!activeRecordings.containsKey(meetingId)
+                && meetingService.findWavSrc(meetingId).isPresent()) {
+            throw new IllegalStateException("이미 업로드가 완료된 회의입니다: meetingId=" + meetingId);
+        }
+        LiveRecording recording = activeRecordings.computeIfAbsent(meetingId, k -> {
+            try {
+                Path directory = recordingLayout.directoryFor(meetingId, LocalDate.now());
+                Files.createDirectories(directory);
+                // 청크 업로드 파일과 겹치지 않도록 별도 이름 사용 (청크 업로드로 대신 완료될 수 있음)
+                Path wavPath = directory.resolve(String.format("meeting_%d_%s_live.wav", meetingId, startTime));
+                return LiveRecording.open(meetingId, wavPath, sampleRate, channels, bitsPerSample);
+            } catch (IOException e) {
+                log.error("실시간 녹음 파일 초기화 실패: meetingId={}", meetingId, e);
+                throw new RuntimeException("실시간 녹음 파일 초기화 실패", e);
+            }
+        });
+        if (recording.getSampleRate() != sampleRate || recording.getChannels() != channels
+                || recording.getBitsPerSample() != bitsPerSample) {
+            throw new IllegalArgumentException("진행 중인 실시간 녹음과 형식이 다릅니다: meetingId=" + meetingId);
+        }
+        recording.claim(owner);
+        log.info("실시간 녹음 연결: meetingId={}, offset={}", meetingId, recording.getPcmLength());
+        return recording;
+    }
+
+    /**
+     * PCM을 이어 붙인다. 반환된 future는 이 데이터까지 디스크에 반영된 뒤 완료된다.
+     * 현재 owner가 아닌(재연결로 대체된) 연결의 데이터는 거부한다.
+     */
+    public CompletableFuture<Void> append(LiveRecording recording, Object owner, ByteBuffer pcm) throws IOException {
+        if (recording.getOwner() != owner) {
+            throw new IllegalStateException("다른 연결이 이 녹음을 이어받았습니다: meetingId=" + recording.getMeetingId());
+        }
+        long pcmLength = recording.append(pcm);
+        progressiveSttService.onPrefixAdvanced(recording.getMeetingId(), recording.getPath(),
+                recording.getDataOffset() + pcmLength);
+        return spoolSyncer.requestSync(recording);
+    }
+
+    public void release(LiveRecording recording, Object owner) {
+        recording.release(owner);
+    }
+
+    /**
+     * 녹음을 마무리하고 wavSrc에 등록한다. 이미 청크 업로드로 완료된 회의면 실시간 파일은 버린다.
+     */
+    public Optional<String> finish(Long meetingId) throws IOException {
+        LiveRecording recording = activeRecordings.remove(meetingId);
+        if (recording == null) {
+            return meetingService.findWavSrc(meetingId);
+        }
+        try {
+            if (meetingService.findWavSrc(meetingId).isPresent()) {
+                log.warn("청크 업로드로 이미 완료된 회의, 실시간 녹음 폐기: meetingId={}", meetingId);
+                recording.delete();
+                progressiveSttService.discard(meetingId, recording.getPath());
+                return meetingService.findWavSrc(meetingId);
+            }
+            String digest = recording.complete();
+            String wavSrc = recording.getPath().toAbsolutePath().toString();
+            meetingService.updateWavSrc(meetingId, wavSrc, digest);
+            progressiveSttService.onComplete(meetingId, recording.getPath(),
+                    recording.getDataOffset() + recording.getPcmLength());
+            log.info("실시간 녹음 완료: meetingId={}, path={}, pcmBytes={}, sha256={}",
+                    meetingId, wavSrc, recording.getPcmLength(), digest);
+            return Optional.of(wavSrc);
+        } finally {
+            recording.close();
+        }
+    }
+
+    /**
+     * 앱이 실시간 전송을 포기하고 청크 업로드로 전환한 회의의 실시간 녹음을 버린다.
+     * resume-timeout 뒤에 받은 데까지로 마무리되어 청크 업로드보다 먼저 wavSrc가 되는 것을 막는다.
+     */
+    public void discard(Long meetingId) {
+        LiveRecording recording = activeRecordings.remove(meetingId);
+        if (recording == null) {
+            return;
+        }
+        log.info("청크 업로드로 전환, 실시간 녹음 폐기: meetingId={}, pcmBytes={}", meetingId, recording.getPcmLength());
+        try {
+            recording.delete();
+        } catch (IOException e) {
+            log.warn("실시간 녹음 파일 삭제 실패: meetingId={}, error={}", meetingId, e.getMessage());
+        }
+        progressiveSttService.discard(meetingId, recording.getPath());
+    }
+
+    private void sweepAbandoned() {
+        long now = System.nanoTime();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(resumeTimeoutMs);
+        for (LiveRecording recording : activeRecordings.values()) {
+            if (recording.getOwner() == null && now - recording.getLastActivityNanos() >= timeoutNanos) {
+                log.warn("실시간 녹음 재연결 없음, 받은 데까지 마무리: meetingId={}, pcmBytes={}",
+                        recording.getMeetingId(), recording.getPcmLength());
+                try {
+                    finish(recording.getMeetingId());
+                } catch (Exception e) {
+                    log.error("실시간 녹음 마무리 실패: meetingId={}", recording.getMeetingId(), e);
+                }
+            }
+        }
+    }
+
+    // 종료 시에는 마무리하지 않고 반영만 함 (재시작 후 같은 파일에서 이어받음)
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        spoolSyncer.shutdown();
+        for (LiveRecording recording : activeRecordings.values()) {
+            try {
+                recording.sync();
+                recording.close();
+            } catch (IOException e) {
+                log.error("실시간 녹음 닫기 실패: meetingId={}", recording.getMeetingId(), e);
+            }
+        }
+    }
+}
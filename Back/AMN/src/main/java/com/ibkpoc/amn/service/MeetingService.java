@@ -3,28 +3,37 @@ package com.ibkpoc.amn.service;
 import com.ibkpoc.amn.dto.*;
 import com.ibkpoc.amn.entity.*;
 import com.ibkpoc.amn.repository.*;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.Map;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MeetingService {
     private final MeetingRepository meetingRepository;
-    @PersistenceContext
-    private EntityManager entityManager; // EntityManager 주입
+    private final SttFanoutService sttFanoutService;
+    private final SttAudioConverter sttAudioConverter;
+    private final ProgressiveSttService progressiveSttService;
+    private final RecordingArchiveService recordingArchiveService;
+    private final RecordingSegmentService recordingSegmentService;
+    private final RecordingCatalog recordingCatalog;
 
+    // 업로드 중에 구간별로 보낸 STT가 끝나길 기다리는 최대 시간 (넘기면 작업 실패로 재시도)
+    @Value("${app.stt.progressive.result-timeout-minutes:30}")
+    private long progressiveResultTimeoutMinutes;
 
     // 회의 시작
     public StartMeetingResponse startMeeting(Integer participants,String startTimeStr) {
@@ -65,22 +74,31 @@ public class MeetingService {
         meetingRepository.save(meeting);
     }
 
-    public void updateWavSrc(Long meetingId, String filePath) {
+    public void updateWavSrc(Long meetingId, String filePath, String digest) {
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new IllegalStateException("회의를 찾을 수 없습니다."));
 
         meeting.setWavSrc(filePath);
+        meeting.setWavDigest(digest);
         meetingRepository.save(meeting);
+        recordingCatalog.update(meetingId, Paths.get(filePath), digest);
     }
 
-    @Transactional
-    public void processSttRequest(Long meetingId) {
+    public Optional<String> findWavSrc(Long meetingId) {
+        return meetingRepository.findById(meetingId).map(Meeting::getWavSrc);
+    }
+
+    /**
+     * 회의 녹음의 STT를 끝까지 실행한다. 오래 걸리므로 요청 스레드가 아니라 SttJobWorker에서 트랜잭션 없이 호출한다.
+     * 업로드 중에 구간별로 보낸 STT가 아직 진행 중이면 끝날 때까지 기다린다. 실패하면 예외를 던진다.
+     *
+     * @return 이어 붙여 저장한 대화록 경로. STT 응답이 대화록 형식이 아니면(STT 서버가 저장한 결과를 씀) empty
+     */
+    public Optional<Path> processSttRequest(Long meetingId) {
         // DB에서 회의 정보 조회
         Meeting meeting = meetingRepository.findById(meetingId)
                 .orElseThrow(() -> new IllegalArgumentException("회의 정보를 찾을 수 없습니다: meetingId=" + meetingId));
 
-        entityManager.refresh(meeting);
-
         // 필요한 정보 로그
         log.info("STT 파라미터 조회: meetingId={}, participants={}, wavSrc={}",
                 meetingId, meeting.getParticipants(), meeting.getWavSrc());
@@ -89,46 +107,64 @@ public class MeetingService {
             throw new IllegalStateException("WAV 파일 경로가 존재하지 않습니다: meetingId=" + meetingId);
         }
 
-        // API URL 설정
-        String apiUrl = "http://localhost:8081/run";
-
-        // 요청 데이터 생성
-        Map<String, Object> requestData = Map.of(
-                "data", Map.of(
-                        "file_name", meeting.getWavSrc(),
-                        "participant", meeting.getParticipants()
-                )
-        );
-
-        try {
-            // 파이썬 코드의 data 파라미터 구조에 맞춤
-            String requestJson = String.format(
-                    "{\"file_name\": \"%s\", \"participant\": %d}",
-                    meeting.getWavSrc(),
-                    meeting.getParticipants()
-            );
-
-            HttpClient client = HttpClient.newHttpClient();
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(apiUrl))
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestJson))
-                    .build();
-
-            log.info("STT API 호출 시작: {}, 요청 데이터: {}", apiUrl, requestJson);
-
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-            if (response.statusCode() == 200) {
-                log.info("STT API 호출 성공: 응답={}", response.body());
-            } else {
-                log.error("STT API 호출 실패: 상태 코드={}", response.statusCode());
-                throw new RuntimeException("STT API 호출 실패");
+        // 업로드 중에 구간별로 보냈다면 남은 구간 응답과 이어 붙이기가 끝나길 기다리고, 구간 STT가 실패했으면 전체를 다시 보냄
+        Optional<CompletableFuture<Optional<Path>>> progressive = progressiveSttService.findResult(meetingId);
+        if (progressive.isPresent()) {
+            try {
+                Optional<Path> transcript = progressive.get().get(progressiveResultTimeoutMinutes, TimeUnit.MINUTES);
+                log.info("점진 STT 결과 사용: meetingId={}, 대화록={}", meetingId, transcript.orElse(null));
+                return transcript;
+            } catch (ExecutionException e) {
+                log.warn("점진 STT 실패, 전체 구간 다시 요청: meetingId={}, error={}",
+                        meetingId, e.getCause().getMessage());
+            } catch (TimeoutException e) {
+                throw new IllegalStateException("점진 STT 결과 대기 시간 초과: meetingId=" + meetingId, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("점진 STT 결과 대기 중 중단: meetingId=" + meetingId, e);
+            }
+        }
+        Path source = Paths.get(meeting.getWavSrc());
+        Optional<Path> transcript;
+        if (RecordingArchiveService.isArchived(source)) {
+            // 구간 저장 이전의 단일 압축본: 임시 WAV로 복원해서 한 번에 보냄
+            try {
+                Path restored = recordingArchiveService.restoreWav(source);
+                transcript = sttFanoutService.transcribe(meetingId, meeting.getParticipants(),
+                        List.of(new SttFanoutService.SegmentCall(sttAudioConverter.prepare(restored), 0)));
+            } catch (IOException e) {
+                throw new IllegalStateException("압축 보관 녹음 복원 실패: meetingId=" + meetingId, e);
+            }
+        } else {
+            // 구간 저장 후 전체 파일 한 번으로 보냄 (회의 전체에서 화자를 한 번에 나눔)
+            // 구간 병렬(app.stt.fanout.enabled)이면 구간마다 STT용 파일(무음 제거 + 16kHz)을 병렬로 만들어 동시에 보내고,
+            // 첫 구간 응답에 화자 임베딩이 없으면 전체 파일로 되돌아감. 구간 경계는 무음 지점이라 겹치게 자르지 않음
+            SegmentedRecording recording;
+            try {
+                recording = recordingSegmentService.segment(meetingId)
+                        .orElseThrow(() -> new IllegalStateException("녹음 파일이 없습니다: meetingId=" + meetingId));
+            } catch (IOException e) {
+                throw new IllegalStateException("녹음 구간 저장 실패: meetingId=" + meetingId, e);
+            }
+            SttFanoutService.WholeFileCall whole = () -> new SttFanoutService.SegmentCall(
+                    sttAudioConverter.prepare(recordingArchiveService.restoreWav(recording)), 0);
+            try {
+                if (!sttFanoutService.isEnabled() || recording.getSegments().size() <= 1) {
+                    transcript = sttFanoutService.transcribe(meetingId, meeting.getParticipants(), List.of(whole.prepare()));
+                } else {
+                    List<SttFanoutService.SegmentCall> calls = recordingSegmentService.forEachSegment(recording, (segment, path) -> {
+                        Path wav = RecordingArchiveService.isArchived(path) ? recordingArchiveService.restoreWav(path) : path;
+                        return new SttFanoutService.SegmentCall(sttAudioConverter.prepare(wav, segment.getStartMs()),
+                                segment.getStartMs());
+                    });
+                    transcript = sttFanoutService.transcribe(meetingId, meeting.getParticipants(), calls, whole);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("STT용 파일 준비 실패: meetingId=" + meetingId, e);
             }
-
-        } catch (Exception e) {
-            log.error("STT API 호출 중 예외 발생: {}", e.getMessage(), e);
-            throw new RuntimeException("STT API 처리 실패", e);
         }
+        // STT가 끝났으므로 원본은 압축 보관 (STT용 파생 파일도 정리)
+        recordingArchiveService.archiveAsync(meetingId);
+        return transcript;
     }
 }
\ No newline at end of file
@@ -0,0 +1,307 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.audio.OffsetMap;
+import com.ibkpoc.amn.audio.SpeechSegmenter;
+import com.ibkpoc.amn.audio.WavHeader;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// service/ProgressiveSttService.java
+// 업로드 중인 녹음의 앞에서부터 연속으로 받은 구간을 무음 지점에서 잘라 STT에 먼저 보낸다
+// 마지막 청크가 도착하면 남은 끝 구간만 보내고, 모든 구간 응답이 오면 구간 순서대로 이어 대화록 하나로 저장한다
+// 구간 하나라도 실패하면 더 보내지 않고 결과를 실패로 끝내 stt-request가 전체 구간을 다시 보내게 한다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProgressiveSttService implements DisposableBean {
+    private final SttClient sttClient;
+    private final SttAudioConverter sttAudioConverter;
+    private final MeetingRepository meetingRepository;
+    private final RecordingArchiveService recordingArchiveService;
+    private final SttFanoutService sttFanoutService;
+
+    // 구간마다 화자 분리를 따로 하므로 구간 사이 화자를 맞출 수 있을 때만 켬 (켜면 STT 요청이 없어도 모든 업로드를 STT함)
+    @Value("${app.stt.progressive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stt.progressive.min-segment-seconds:30}")
+    private int minSegmentSeconds;
+
+    @Value("${app.stt.progressive.max-segment-seconds:120}")
+    private int maxSegmentSeconds;
+
+    @Value("${app.stt.progressive.min-silence-ms:500}")
+    private int minSilenceMs;
+
+    // 20ms 프레임 RMS가 이 값보다 작으면 무음 (16비트 PCM 기준)
+    @Value("${app.stt.progressive.silence-threshold:500}")
+    private double silenceThreshold;
+
+    private final Map<Long, Progress> progress = new ConcurrentHashMap<>();
+    // 구간 STT 중이거나 끝난 회의의 대화록 결과 (stt-request가 전체 파일을 다시 보내지 않고 기다리도록 일정 시간 기억)
+    // 구간이 실패하거나 녹음이 버려지면 바로 지움
+    private final Cache<Long, CompletableFuture<Optional<Path>>> results = CacheBuilder.newBuilder()
+            .expireAfterWrite(6, TimeUnit.HOURS)
+            .build();
+    // 구간 분석/파일 생성은 순서가 중요해 회의별로 한 번에 하나씩, STT 호출은 별도 풀에서
+    private final ExecutorService scanner = Executors.newFixedThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("progressive-stt-scan-%d").build());
+    private final ExecutorService dispatcher = Executors.newFixedThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("progressive-stt-dispatch-%d").build());
+
+    private static class Progress {
+        private final Long meetingId;
+        private final Path path;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile long availableEnd;    // 연속으로 받은 파일 끝 위치
+        private volatile boolean complete;
+        private WavHeader header;
+        private SpeechSegmenter segmenter;
+        private long scannedTo;                // 분석이 끝난 파일 위치
+        private long cutAt;                    // 마지막으로 자른 위치 (PCM 시작 기준)
+        private volatile boolean finished;
+        private final AtomicInteger outstanding = new AtomicInteger();  // 응답을 기다리는 구간 STT 요청
+        private volatile boolean failed;
+        private int segments;
+        private Integer participants;
+        private final Map<Integer, String> responses = new ConcurrentSkipListMap<>();  // 구간 번호 순
+        private final AtomicBoolean settled = new AtomicBoolean();
+        private final CompletableFuture<Optional<Path>> result = new CompletableFuture<>();
+
+        Progress(Long meetingId, Path path) {
+            this.meetingId = meetingId;
+            this.path = path;
+        }
+    }
+
+    /**
+     * 녹음 파일의 [0, availableEnd) 구간이 빈틈없이 채워졌음을 알린다. 호출 스레드는 기다리지 않는다.
+     */
+    public void onPrefixAdvanced(Long meetingId, Path path, long availableEnd) {
+        if (!enabled) {
+            return;
+        }
+        Progress p = progressFor(meetingId, path);
+        if (availableEnd > p.availableEnd) {
+            p.availableEnd = availableEnd;
+        }
+        schedule(p);
+    }
+
+    /**
+     * 녹음 파일이 완성되었음을 알린다. 남은 끝 구간을 잘라 보내고 추적을 끝낸다.
+     */
+    public void onComplete(Long meetingId, Path path, long fileLength) {
+        if (!enabled) {
+            return;
+        }
+        Progress p = progressFor(meetingId, path);
+        p.availableEnd = fileLength;
+        p.complete = true;
+        schedule(p);
+    }
+
+    // 미완성으로 버려진 녹음 (같은 회의의 다른 녹음 파일 진행은 그대로 둠)
+    public void discard(Long meetingId, Path path) {
+        Path file = path.toAbsolutePath().normalize();
+        progress.computeIfPresent(meetingId, (k, p) -> {
+            if (!p.path.equals(file)) {
+                return p;
+            }
+            fail(p, new IllegalStateException("미완성으로 버려진 녹음입니다: meetingId=" + meetingId));
+            return null;
+        });
+    }
+
+    /**
+     * 구간 STT 중이거나 끝난 회의면 이어 붙인 대화록 결과(응답이 대화록 형식이 아니면 empty).
+     * 구간 STT를 하지 않았거나 실패한 회의는 empty이므로 전체 파일을 보내야 한다.
+     */
+    public Optional<CompletableFuture<Optional<Path>>> findResult(Long meetingId) {
+        return Optional.ofNullable(results.getIfPresent(meetingId));
+    }
+
+    // 회의의 녹음 파일이 바뀌면(실시간 전송 -> 청크 업로드 전환 등) 이전 파일의 진행은 실패로 끝내고 새로 시작
+    private Progress progressFor(Long meetingId, Path path) {
+        Path file = path.toAbsolutePath().normalize();
+        return progress.compute(meetingId, (k, current) -> {
+            if (current != null && current.path.equals(file)) {
+                return current;
+            }
+            if (current != null) {
+                log.info("녹음 파일이 바뀌어 이전 점진 STT 중단: meetingId={}, 이전={}, 새 파일={}",
+                        meetingId, current.path, file);
+                fail(current, new IllegalStateException("녹음 파일이 바뀌었습니다: " + current.path));
+            }
+            return track(meetingId, file);
+        });
+    }
+
+    private Progress track(Long meetingId, Path path) {
+        Progress p = new Progress(meetingId, path);
+        results.put(meetingId, p.result);
+        return p;
+    }
+
+    // 이 회의는 더 보내지 않고, 기다리는 stt-request가 전체 구간을 다시 보내도록 결과를 실패로 끝냄
+    private void fail(Progress p, Throwable cause) {
+        p.failed = true;
+        results.asMap().remove(p.meetingId, p.result);
+        p.result.completeExceptionally(cause);
+    }
+
+    private void schedule(Progress p) {
+        if (p.scheduled.compareAndSet(false, true)) {
+            scanner.execute(() -> scan(p));
+        }
+    }
+
+    private void scan(Progress p) {
+        while (true) {
+            if (!p.failed) {
+                try {
+                    advance(p);
+                } catch (Exception e) {
+                    log.error("점진 STT 구간 처리 실패: meetingId={}", p.meetingId, e);
+                    fail(p, e);
+                }
+            }
+            if (p.failed && p.complete) {
+                progress.remove(p.meetingId, p);
+            }
+            p.scheduled.set(false);
+            // 처리 중에 들어온 진행 알림은 schedule의 CAS가 실패했으므로 여기서 이어서 처리
+            boolean pending = !p.failed && (p.scannedTo < p.availableEnd || (p.complete && !p.finished));
+            if (!pending || !p.scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void advance(Progress p) throws IOException {
+        long end = p.availableEnd;
+        boolean complete = p.complete;
+        try (FileChannel channel = FileChannel.open(p.path, StandardOpenOption.READ)) {
+            if (p.header == null) {
+                p.header = WavHeader.read(channel);
+                p.segmenter = new SpeechSegmenter(p.header, minSegmentSeconds, maxSegmentSeconds,
+                        minSilenceMs, silenceThreshold);
+                p.scannedTo = p.header.getDataOffset();
+            }
+            long dataOffset = p.header.getDataOffset();
+
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+            while (p.scannedTo < end) {
+                buf.clear().limit((int) Math.min(buf.capacity(), end - p.scannedTo));
+                int n = channel.read(buf, p.scannedTo);
+                if (n <= 0) {
+                    break;
+                }
+                p.scannedTo += n;
+                for (long cut : p.segmenter.feed(buf.flip())) {
+                    dispatch(p, channel, dataOffset + p.cutAt, dataOffset + cut);
+                    p.cutAt = cut;
+                }
+            }
+
+            if (complete && !p.finished && p.scannedTo >= end) {
+                // 마지막 구간 요청을 넣은 뒤에 finished를 세워야 앞 구간 응답이 먼저 와도 이어 붙이기가 이르게 시작되지 않음
+                try {
+                    if (end > dataOffset + p.cutAt) {
+                        dispatch(p, channel, dataOffset + p.cutAt, end);
+                    }
+                } finally {
+                    p.finished = true;
+                }
+                settleIfDone(p);
+                progress.remove(p.meetingId, p);
+                log.info("점진 STT 마지막 구간 전송: meetingId={}, 구간 수={}", p.meetingId, p.segments);
+            }
+        }
+    }
+
+    /**
+     * 원본의 [start, end) PCM을 STT용 구간 WAV 파일로 만들고 STT 호출을 별도 스레드에 맡긴다.
+     */
+    private void dispatch(Progress p, FileChannel source, long start, long end) throws IOException {
+        // 앞 구간이 실패했으면 전체 구간을 다시 보내게 되므로 더 만들지 않음
+        if (p.failed) {
+            return;
+        }
+        int index = p.segments++;
+        String name = p.path.getFileName().toString().replaceFirst("\\.wav$", "");
+        Path segmentPath = p.path.resolveSibling(String.format("%s_seg%03d.wav", name, index));
+        // 긴 무음을 빼고 STT 샘플레이트로 변환하며 기록 (원본 녹음은 그대로)
+        OffsetMap map = sttAudioConverter.write(source, p.header, start, end, segmentPath);
+        sttAudioConverter.writeOffsetMap(segmentPath, map);
+
+        long offsetMs = (start - p.header.getDataOffset()) * 1000 / p.header.getByteRate();
+        if (p.participants == null) {
+            p.participants = meetingRepository.findById(p.meetingId).map(Meeting::getParticipants).orElse(null);
+        }
+        Integer participants = p.participants;
+        String fileName = segmentPath.toAbsolutePath().toString();
+        log.info("점진 STT 구간 생성: meetingId={}, 구간={}, offsetMs={}, bytes={}",
+                p.meetingId, index, offsetMs, end - start);
+        p.outstanding.incrementAndGet();
+        dispatcher.execute(() -> {
+            try {
+                p.responses.put(index, sttClient.transcribe(fileName, participants));
+            } catch (Exception e) {
+                log.error("점진 STT 구간 요청 실패: meetingId={}, 구간={}", p.meetingId, index, e);
+                fail(p, e);
+            } finally {
+                p.outstanding.decrementAndGet();
+                settleIfDone(p);
+            }
+        });
+    }
+
+    // 모든 구간 STT가 성공하면 한 번만: 응답을 구간 순서대로 이어 대화록으로 저장하고 원본을 압축 보관
+    // (실패한 구간이 있으면 전체 구간을 다시 보낼 수 있도록 원본 유지)
+    private void settleIfDone(Progress p) {
+        if (!p.finished || p.outstanding.get() != 0 || p.failed || !p.settled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Optional<Path> transcript = sttFanoutService.stitch(p.meetingId, p.participants,
+                    new ArrayList<>(p.responses.values()));
+            p.result.complete(transcript);
+            recordingArchiveService.archiveAsync(p.meetingId);
+        } catch (Exception e) {
+            log.error("점진 STT 대화록 저장 실패: meetingId={}", p.meetingId, e);
+            fail(p, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scanner.shutdown();
+        dispatcher.shutdown();
+    }
+}
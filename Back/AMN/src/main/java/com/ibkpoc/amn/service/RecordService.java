@@ -1,6 +1,9 @@
 package com.ibkpoc.amn.service;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
@@ -10,17 +13,30 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.springframework.beans.factory.DisposableBean;
+import com.ibkpoc.amn.dto.ChunkAck;
+import com.ibkpoc.amn.dto.ChunkBatchUploadResponse;
+import com.ibkpoc.amn.dto.ChunkUploadResponse;
+import com.ibkpoc.amn.dto.UploadStatusResponse;
 import com.ibkpoc.amn.dto.WavUploadRequest;
 
 // service/RecordService.java
@@ -29,14 +45,64 @@ import com.ibkpoc.amn.dto.WavUploadRequest;
 @RequiredArgsConstructor
 public class RecordService implements DisposableBean {
     private final MeetingService meetingService;
+    private final MeterRegistry meterRegistry;
+    private final ProgressiveSttService progressiveSttService;
+    private final RecordingLayout recordingLayout;
+    private final LiveRecordingService liveRecordingService;
+    private DistributionSummary chunkGapSummary;
 
     @Value("${app.record.base-path:#{systemProperties['user.dir']}/meeting_records}")
     private String baseRecordPath;
 
+    // 클라이언트 청크 크기와 동일해야 함 (마지막 청크만 작을 수 있음)
+    @Value("${app.record.chunk-size:4194304}")
+    private int chunkSize;
+
+    // 녹음 하나의 최대 청크 수 (요청의 totalChunks만큼 파일과 수신 비트맵을 미리 잡으므로 범위를 넘으면 거절)
+    @Value("${app.record.max-chunks:1000}")
+    private int maxChunks;
+
+    // 클라이언트에 권장하는 회의별 동시 청크 업로드 수
+    @Value("${app.upload.recommended-parallelism:4}")
+    private int recommendedParallelism;
+
     private final Map<Long, RecordingInfo> activeRecordings = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+    private static final int DUPLICATE = -1;
+    // 마지막 청크 이후 타임아웃 동안 새 청크가 없으면 업로드 종료
+    // 도착 간격 평균 + multiplier * 편차로 녹음마다 조정하고 min/max로 제한 (간격 표본 전에는 초기값)
+    @Value("${app.record.idle-timeout-ms:30000}")
+    private long idleTimeoutMs;
+
+    @Value("${app.record.idle-timeout-min-ms:10000}")
+    private long idleTimeoutMinMs;
+
+    @Value("${app.record.idle-timeout-max-ms:120000}")
+    private long idleTimeoutMaxMs;
+
+    @Value("${app.record.idle-timeout-deviation-multiplier:4.0}")
+    private double idleTimeoutDeviationMultiplier;
+
+    @Value("${app.record.sweep-interval-ms:1000}")
+    private long sweepIntervalMs;
+
+    // 녹음별 메타데이터 로그 위치 (비어 있으면 base-path/.spool)
+    @Value("${app.record.spool-path:}")
+    private String spoolPath;
+
+    // 이 주기마다 모아서 fsync, 청크 응답은 해당 fsync 이후에 반환
+    @Value("${app.record.spool.fsync-interval-ms:100}")
+    private long fsyncIntervalMs;
+
+    private Path spoolDirectory;
+    private SpoolSyncer spoolSyncer;
+
+    // 청크마다 타이머를 다시 걸지 않고, 스레드 하나가 주기적으로 마지막 수신 시각을 검사
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("recording-sweeper-%d").build()
+    );
+    private final ExecutorService timeoutExecutor = Executors.newFixedThreadPool(
             Runtime.getRuntime().availableProcessors(),
-            new ThreadFactoryBuilder().setNameFormat("recording-scheduler-%d").build()
+            new ThreadFactoryBuilder().setNameFormat("recording-timeout-%d").build()
     );
 
     @PostConstruct
@@ -58,36 +124,159 @@ public class RecordService implements DisposableBean {
                 throw new RuntimeException("녹음 디렉토리 권한 오류");
             }
             log.info("녹음 디렉토리 권한 확인 완료");  // 추가
+
+            spoolDirectory = spoolPath.isBlank() ? basePath.resolve(".spool") : Paths.get(spoolPath);
+            Files.createDirectories(spoolDirectory);
         } catch (IOException e) {
             log.error("녹음 디렉토리 초기화 실패: {}", e.getMessage(), e);  // 스택트레이스 추가
             throw new RuntimeException("녹음 디렉토리 초기화 실패", e);
         }
+
+        chunkGapSummary = DistributionSummary.builder("recording.chunk.gap")
+                .description("같은 녹음의 청크 도착 간격")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        spoolSyncer = new SpoolSyncer(fsyncIntervalMs);
+        recoverSpool();
+        scheduler.scheduleWithFixedDelay(this::sweepIdleRecordings,
+                sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 이전 프로세스가 남긴 로그로 진행 중이던 녹음을 되살린다.
+     * 로그에 있어도 CRC32C가 맞지 않는 청크(fsync 전에 종료됨)는 미수신으로 처리해 클라이언트가 다시 보내게 한다.
+     */
+    private void recoverSpool() {
+        List<Path> journals;
+        try (var files = Files.list(spoolDirectory)) {
+            journals = files.filter(p -> p.getFileName().toString().endsWith(RecordingJournal.SUFFIX)).toList();
+        } catch (IOException e) {
+            log.error("녹음 스풀 조회 실패: {}", spoolDirectory, e);
+            return;
+        }
+
+        for (Path journalPath : journals) {
+            try {
+                RecordingJournal.Recovered recovered = RecordingJournal.recover(journalPath);
+                RecordingJournal.Meta meta = recovered.getMeta();
+                if (meetingService.findWavSrc(meta.getMeetingId()).isPresent()) {
+                    log.info("이미 완료된 녹음의 로그 정리: meetingId={}", meta.getMeetingId());
+                    recovered.getJournal().delete();
+                    continue;
+                }
+
+                ChunkedWavFile wavFile = new ChunkedWavFile(
+                        Paths.get(meta.getWavPath()), meta.getChunkSize(), meta.getTotalChunks());
+                RecordingInfo info = new RecordingInfo(meta.getMeetingId(), wavFile, LocalDateTime.now(),
+                        newIdleTimeout(), recovered.getJournal());
+                info.setOriginalStartTime(meta.getStartTime());
+                for (RecordingJournal.ChunkRecord chunk : recovered.getChunks()) {
+                    if (!info.getReceivedChunks().get(chunk.getIndex())
+                            && wavFile.verifyChunk(chunk.getIndex(), chunk.getLength(), chunk.getCrc())) {
+                        info.getChunkCrcs().set(chunk.getIndex(), chunk.getCrc());
+                        if (info.getReceivedChunks().set(chunk.getIndex()) > 0) {
+                            info.totalBytes.addAndGet(chunk.getLength());
+                        }
+                    }
+                }
+                activeRecordings.put(meta.getMeetingId(), info);
+                advancePrefix(info);
+                log.info("녹음 복구: meetingId={}, 청크={}/{}, totalBytes={}", meta.getMeetingId(),
+                        info.getReceivedChunks().cardinality(), info.getTotalWavChunks(), info.getTotalBytes());
+
+                if (info.isWavComplete()) {
+                    timeoutExecutor.execute(() -> {
+                        try {
+                            finalizeRecording(meta.getMeetingId(), false);
+                        } catch (Exception e) {
+                            log.error("복구된 녹음 마무리 실패: meetingId={}", meta.getMeetingId(), e);
+                        }
+                    });
+                }
+            } catch (Exception e) {
+                log.error("녹음 복구 실패: journal={}", journalPath, e);
+            }
+        }
     }
 
     @Data
-    private static class RecordingInfo {
+    private static class RecordingInfo implements SpoolSyncer.Target {
         private final Long meetingId;
-        private final Path filePath;
-        private long totalBytes = 0;
+        private final ChunkedWavFile wavFile;
+        private final AtomicLong totalBytes = new AtomicLong();
         private final LocalDateTime startTime;
-        private ScheduledFuture<?> timeoutFuture;
-        private final TreeMap<Integer, byte[]> wavChunks = new TreeMap<>();
-        private int totalWavChunks = 0;
+        private volatile long lastActivityNanos = System.nanoTime();
+        private final AdaptiveIdleTimeout idleTimeout;
+        private final ChunkBitmap receivedChunks;
+        // 기록 중인 청크 (같은 청크의 동시 재전송이 서로의 내용을 덮어쓰지 않도록 한 번에 하나만 기록)
+        private final ChunkBitmap writingChunks;
+        // 수신 완료된 청크의 CRC32C (중복 재전송 확인용)
+        private final AtomicIntegerArray chunkCrcs;
+        // 앞에서부터 빈틈없이 받은 청크 수 (점진 STT 대상 구간)
+        private final AtomicInteger contiguousChunks = new AtomicInteger();
         private String originalStartTime;  // 클라이언트가 보낸 원래 시작 시간 저장
         private Long duration;  // 녹음 duration 저장
+        private final AtomicReference<RecordingState> state = new AtomicReference<>(RecordingState.RECEIVING);
+        // 청크 기록은 읽기 락(동시 허용), 마무리는 쓰기 락으로 진행 중인 기록이 끝나길 기다림
+        private final ReadWriteLock ioLock = new ReentrantReadWriteLock();
+        private final RecordingJournal journal;
 
-        public RecordingInfo(Long meetingId, Path filePath, LocalDateTime startTime) {
+        public RecordingInfo(Long meetingId, ChunkedWavFile wavFile, LocalDateTime startTime,
+                             AdaptiveIdleTimeout idleTimeout, RecordingJournal journal) {
             this.meetingId = meetingId;
-            this.filePath = filePath;
+            this.wavFile = wavFile;
             this.startTime = startTime;
+            this.idleTimeout = idleTimeout;
+            this.journal = journal;
+            this.receivedChunks = new ChunkBitmap(wavFile.getTotalChunks());
+            this.writingChunks = new ChunkBitmap(wavFile.getTotalChunks());
+            this.chunkCrcs = new AtomicIntegerArray(wavFile.getTotalChunks());
+        }
+
+        // 데이터 파일을 먼저 반영해야 로그에 남은 청크의 데이터가 디스크에 있음
+        @Override
+        public void sync() throws IOException {
+            wavFile.force();
+            journal.force();
+        }
+
+        // 가변 필드가 있어 스풀 dirty 집합 등에서는 객체 동일성으로 비교
+        @Override
+        public boolean equals(Object o) {
+            return this == o;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+
+        public Path getFilePath() {
+            return wavFile.getPath();
+        }
+
+        public int getTotalWavChunks() {
+            return wavFile.getTotalChunks();
+        }
+
+        public long getTotalBytes() {
+            return totalBytes.get();
         }
 
         public boolean isWavComplete() {
-            return wavChunks.size() == totalWavChunks && totalWavChunks > 0;
+            return receivedChunks.isFull();
+        }
+
+        public RecordingState getState() {
+            return state.get();
+        }
+
+        public boolean transition(RecordingState from, RecordingState to) {
+            return state.compareAndSet(from, to);
         }
     }
 
-    public void saveWavFile(WavUploadRequest request) throws IOException {
+    public ChunkUploadResponse saveWavFile(WavUploadRequest request) throws IOException {
         log.info("WAV 청크 저장 시작: meetingId={}, chunk={}/{}, size={}, 파일명={}",
                 request.getMeetingId(),
                 request.getCurrentChunk(),
@@ -95,94 +284,425 @@ public class RecordService implements DisposableBean {
                 request.getFile().getSize(),
                 request.getFile().getOriginalFilename());  // 파일명 로깅 추가
 
-        RecordingInfo info = activeRecordings.computeIfAbsent(request.getMeetingId(), k -> {
+        try (InputStream body = request.getFile().getInputStream()) {
+            return saveChunk(request.getMeetingId(), request.getStartTime(), request.getTotalChunks(),
+                    request.getCurrentChunk(), request.getFile().getSize(), request.getCrc32c(), body);
+        }
+    }
+
+    /**
+     * 청크 본문 스트림을 녹음 파일의 해당 위치에 기록한다. multipart 업로드와 본문 스트리밍 업로드가 공통으로 사용한다.
+     * 한 회의의 청크가 여러 요청 스레드에서 순서 없이 동시에 들어와도 안전하다.
+     * 서로 다른 청크는 파일의 겹치지 않는 영역에 기록되고, 마지막 비트를 설정한 스레드만 마무리를 수행한다.
+     * crc32c를 주면 본문과 대조해 불일치 시 ChunkRetryableException을 던지고, 이미 받은 청크면 다시 기록하지 않는다.
+     */
+    public ChunkUploadResponse saveChunk(Long meetingId, String startTime, int totalChunks, int chunk,
+                                         long length, Long crc32c, InputStream body) throws IOException {
+        try {
+            RecordingInfo info = openRecording(meetingId, startTime, totalChunks);
+            int received = storeChunk(info, chunk, length, crc32c, Channels.newChannel(body));
+            if (received == DUPLICATE) {
+                return ChunkUploadResponse.builder()
+                        .chunk(chunk)
+                        .receivedChunks(info.getReceivedChunks().cardinality())
+                        .totalChunks(info.getTotalWavChunks())
+                        .duplicate(true)
+                        .recommendedParallelism(recommendedParallelism)
+                        .build();
+            }
+            advancePrefix(info);
+            awaitDurable(info);
+            log.debug("청크 저장됨: meetingId={}, chunk={}/{}, 현재 청크 수={}",
+                    meetingId, chunk, totalChunks, info.getReceivedChunks().cardinality());
+
+            boolean completed = completeIfLast(info, received);
+            return ChunkUploadResponse.builder()
+                    .chunk(chunk)
+                    .receivedChunks(info.getReceivedChunks().cardinality())
+                    .totalChunks(info.getTotalWavChunks())
+                    .complete(completed)
+                    .recommendedParallelism(recommendedParallelism)
+                    .build();
+        } catch (ChunkRetryableException e) {
+            log.warn("WAV 청크 재전송 필요: meetingId={}, chunk={}, reason={}", meetingId, chunk, e.getReason());
+            throw e;
+        } catch (Exception e) {
+            log.error("WAV 청크 저장 실패: meetingId={}, chunk={}, error={}",
+                    meetingId, chunk, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * 한 요청 본문에 담긴 여러 청크를 순서대로 기록하고 청크별 결과를 돌려준다.
+     * 본문은 [chunk int32][length int32][payload] 프레임의 반복이며(빅엔디언) 본문 끝에서 종료한다.
+     * checksums가 true면 프레임 헤더 length 뒤에 crc32c int32가 붙는다.
+     * 프레임 검증에 실패한 청크는 본문을 건너뛰고 다음 프레임을 계속 처리하지만,
+     * 기록 중 입출력 오류가 나면 스트림 위치를 알 수 없으므로 이후 프레임은 응답에 포함하지 않는다(클라이언트가 재전송).
+     * fsync 대기는 배치 전체에 대해 한 번만 한다.
+     */
+    public ChunkBatchUploadResponse saveChunkBatch(Long meetingId, String startTime, int totalChunks,
+                                                   boolean checksums, InputStream body) throws IOException {
+        RecordingInfo info = openRecording(meetingId, startTime, totalChunks);
+        DataInputStream in = new DataInputStream(body);
+        List<ChunkAck> acks = new ArrayList<>();
+        int lastReceived = -1;
+        while (true) {
+            int chunk;
+            int length;
+            Long crc32c = null;
+            try {
+                chunk = in.readInt();
+                length = in.readInt();
+                if (checksums) {
+                    crc32c = Integer.toUnsignedLong(in.readInt());
+                }
+            } catch (EOFException e) {
+                break;
+            }
+            if (length < 0) {
+                acks.add(new ChunkAck(chunk, "ERROR", "잘못된 프레임 길이: " + length));
+                break;
+            }
+
+            InputStream payload = ByteStreams.limit(in, length);
+            try {
+                int received = storeChunk(info, chunk, length, crc32c, Channels.newChannel(payload));
+                if (received == DUPLICATE) {
+                    acks.add(new ChunkAck(chunk, "DUPLICATE", null));
+                    ByteStreams.exhaust(payload);
+                    continue;
+                }
+                lastReceived = Math.max(lastReceived, received);
+                acks.add(new ChunkAck(chunk, "SUCCESS", null));
+            } catch (ChunkRetryableException e) {
+                acks.add(new ChunkAck(chunk, "RETRY", e.getMessage()));
+                ByteStreams.exhaust(payload);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                acks.add(new ChunkAck(chunk, "ERROR", e.getMessage()));
+                ByteStreams.exhaust(payload);
+            } catch (IOException e) {
+                log.error("배치 청크 기록 실패, 이후 프레임 중단: meetingId={}, chunk={}", meetingId, chunk, e);
+                acks.add(new ChunkAck(chunk, "ERROR", e.getMessage()));
+                break;
+            }
+        }
+
+        if (acks.stream().anyMatch(ack -> "SUCCESS".equals(ack.getStatus()))) {
+            advancePrefix(info);
+            awaitDurable(info);
+        }
+        log.info("배치 청크 저장됨: meetingId={}, 프레임={}, 현재 청크 수={}/{}",
+                meetingId, acks.size(), info.getReceivedChunks().cardinality(), totalChunks);
+
+        boolean completed = completeIfLast(info, lastReceived);
+        return ChunkBatchUploadResponse.builder()
+                .acks(acks)
+                .receivedChunks(info.getReceivedChunks().cardinality())
+                .totalChunks(info.getTotalWavChunks())
+                .complete(completed)
+                .recommendedParallelism(recommendedParallelism)
+                .build();
+    }
+
+    private RecordingInfo openRecording(Long meetingId, String startTime, int totalChunks) {
+        if (!activeRecordings.containsKey(meetingId)
+                && meetingService.findWavSrc(meetingId).isPresent()) {
+            throw new IllegalStateException("이미 업로드가 완료된 회의입니다: meetingId=" + meetingId);
+        }
+        if (totalChunks < 1 || totalChunks > maxChunks) {
+            throw new IllegalArgumentException(String.format("totalChunks 범위 초과: 요청=%d, 허용=1~%d",
+                    totalChunks, maxChunks));
+        }
+
+        RecordingInfo info = activeRecordings.computeIfAbsent(meetingId, k -> {
             try {
                 LocalDateTime now = LocalDateTime.now();
-                String datePath = "/";
-                Path directory = Paths.get(baseRecordPath, datePath);
+                Path directory = recordingLayout.directoryFor(meetingId, now.toLocalDate());
                 log.info("디렉토리 생성 시도: {}", directory.toAbsolutePath());  // 추가
 
                 Files.createDirectories(directory);
 
                 Path wavPath = directory.resolve(String.format("meeting_%d_%s.wav",
-                        request.getMeetingId(),
-                        request.getStartTime()));
-                log.info("WAV 파일 경로 생성: {}", wavPath.toAbsolutePath());  // 추가
-                return new RecordingInfo(request.getMeetingId(), wavPath, now);
+                        meetingId,
+                        startTime));
+                log.info("WAV 파일 경로 생성: {}, chunkSize={}, totalChunks={}",
+                        wavPath.toAbsolutePath(), chunkSize, totalChunks);
+                ChunkedWavFile wavFile = new ChunkedWavFile(wavPath, chunkSize, totalChunks);
+                RecordingJournal journal;
+                try {
+                    journal = RecordingJournal.create(
+                            spoolDirectory.resolve(meetingId + RecordingJournal.SUFFIX),
+                            new RecordingJournal.Meta(meetingId, chunkSize, totalChunks,
+                                    startTime, wavPath.toAbsolutePath().toString()));
+                } catch (IOException e) {
+                    wavFile.close();
+                    throw e;
+                }
+                RecordingInfo recording = new RecordingInfo(meetingId, wavFile, now,
+                        newIdleTimeout(), journal);
+                recording.setOriginalStartTime(startTime);
+                // 실시간 전송을 포기하고 청크로 올리는 회의면 남은 실시간 녹음이 먼저 마무리되지 않도록 버림
+                liveRecordingService.discard(meetingId);
+                return recording;
             } catch (IOException e) {
                 log.error("WAV 파일 초기화 실패: meetingId={}, error={}",
-                        request.getMeetingId(), e.getMessage(), e);
+                        meetingId, e.getMessage(), e);
                 throw new RuntimeException("디렉토리 생성 실패", e);
             }
         });
 
+        if (totalChunks != info.getTotalWavChunks()) {
+            throw new IllegalArgumentException(String.format("totalChunks 불일치: 요청=%d, 기존=%d",
+                    totalChunks, info.getTotalWavChunks()));
+        }
+        return info;
+    }
+
+    /**
+     * 청크 하나를 기록하고 로그에 남긴다. 처음 받은 청크면 수신 개수를 반환한다.
+     * 이미 받은 청크는 본문을 읽지 않고 DUPLICATE를 반환한다(crc32c를 주면 저장된 값과 같을 때만).
+     * 디스크 반영(awaitDurable)은 호출자가 한다.
+     */
+    private int storeChunk(RecordingInfo info, int chunk, long length, Long crc32c,
+                           ReadableByteChannel src) throws IOException {
+        Lock ioLock = info.getIoLock().readLock();
+        if (!ioLock.tryLock()) {
+            throw new IllegalStateException("녹음 마무리 중이라 청크를 받을 수 없습니다: state=" + info.getState());
+        }
         try {
-            resetTimeout(info);
-            info.totalWavChunks = request.getTotalChunks();
-            info.wavChunks.put(request.getCurrentChunk(), request.getFile().getBytes());
-            log.info("청크 저장됨: meetingId={}, chunk={}/{}, 현재 청크 수={}",
-                    request.getMeetingId(),
-                    request.getCurrentChunk(),
-                    request.getTotalChunks(),
-                    info.wavChunks.size());  // 추가
-
-            if (info.isWavComplete()) {
-                log.info("모든 청크 도착, 파일 병합 시작: meetingId={}", request.getMeetingId());  // 추가
-                try (FileOutputStream fos = new FileOutputStream(info.getFilePath().toFile())) {
-                    for (byte[] chunk : info.wavChunks.values()) {
-                        fos.write(chunk);
-                        info.totalBytes += chunk.length;
-                    }
+            if (info.getState() != RecordingState.RECEIVING) {
+                throw new IllegalStateException("청크를 받을 수 없는 상태입니다: state=" + info.getState());
+            }
+            info.getWavFile().validate(chunk, length);
+            touch(info);
+            if (info.getReceivedChunks().get(chunk)) {
+                return duplicateOf(info, chunk, crc32c);
+            }
+            if (info.getWritingChunks().set(chunk) < 0) {
+                throw new ChunkRetryableException(ChunkRetryableException.Reason.IN_PROGRESS, chunk,
+                        "같은 청크를 기록 중입니다: chunk=" + chunk);
+            }
+            try {
+                // 기록 권한을 얻기 직전에 다른 요청이 같은 청크를 끝냈을 수 있음
+                if (info.getReceivedChunks().get(chunk)) {
+                    return duplicateOf(info, chunk, crc32c);
                 }
-                // 2. 타임아웃 타이머 취소 (모든 청크 수신 완료)
-                if (info.getTimeoutFuture() != null) {
-                    info.getTimeoutFuture().cancel(false);
+                // 요청 본문을 힙에 모으지 않고 파일의 해당 오프셋으로 바로 옮긴 뒤 로그에 남김
+                int crc = info.getWavFile().writeChunk(chunk, src, length);
+                if (crc32c != null && crc != crc32c.intValue()) {
+                    // 수신 비트를 설정하지 않았으므로 이 영역은 재전송 때 다시 기록됨
+                    throw new ChunkRetryableException(ChunkRetryableException.Reason.CHECKSUM_MISMATCH, chunk,
+                            String.format("CRC32C 불일치: chunk=%d, 요청=%08x, 수신=%08x",
+                                    chunk, crc32c.intValue(), crc));
                 }
+                info.getJournal().appendChunk(chunk, (int) length, crc);
+                info.getChunkCrcs().set(chunk, crc);
+                int received = info.getReceivedChunks().set(chunk);
+                info.totalBytes.addAndGet(length);
+                return received;
+            } finally {
+                info.getWritingChunks().clear(chunk);
+                // 느린 본문은 기록 시작 시각만으로는 유휴로 보일 수 있어 기록이 끝난 시각부터 다시 셈
+                info.lastActivityNanos = System.nanoTime();
+            }
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * 연속 수신 구간이 늘었으면 점진 STT에 알린다. 마지막 청크까지 이어지면 마무리에서 처리한다.
+     */
+    private void advancePrefix(RecordingInfo info) {
+        AtomicInteger contiguous = info.getContiguousChunks();
+        int current = contiguous.get();
+        int prefix = info.getReceivedChunks().nextClearBit(current);
+        while (prefix > current) {
+            if (contiguous.compareAndSet(current, prefix)) {
+                if (prefix < info.getTotalWavChunks()) {
+                    progressiveSttService.onPrefixAdvanced(info.getMeetingId(), info.getFilePath(),
+                            info.getWavFile().offsetOf(prefix));
+                }
+                return;
+            }
+            current = contiguous.get();
+        }
+    }
+
+    private int duplicateOf(RecordingInfo info, int chunk, Long crc32c) {
+        int stored = info.getChunkCrcs().get(chunk);
+        if (crc32c != null && stored != crc32c.intValue()) {
+            throw new IllegalStateException(String.format(
+                    "이미 다른 내용으로 수신된 청크입니다: chunk=%d, 요청=%08x, 저장=%08x",
+                    chunk, crc32c.intValue(), stored));
+        }
+        return DUPLICATE;
+    }
+
+    // 중복 청크는 -1을 받으므로 완료 처리는 정확히 한 번만 실행됨
+    private boolean completeIfLast(RecordingInfo info, int received) throws IOException {
+        if (received != info.getTotalWavChunks()) {
+            return false;
+        }
+        log.info("모든 청크 도착, 파일 마무리 시작: meetingId={}", info.getMeetingId());  // 추가
+        // 헤더 보정, DB 업데이트 및 정리 작업 (FINALIZING 전이 후에는 타임아웃 검사 대상에서 제외됨)
+        if (finalizeRecording(info.getMeetingId(), false)) {
+            recordTimeoutDecision(info, "completed");
+        }
+
+        log.info("WAV 파일 처리 완료: meetingId={}, 경로={}, totalBytes={}",
+                info.getMeetingId(),
+                info.getFilePath().toAbsolutePath(),
+                info.getTotalBytes());
+        return true;
+    }
+
+    /**
+     * 업로드 재개용 상태 조회. 진행 중이면 수신 청크 비트맵을, 이미 병합이 끝났으면 complete를 반환한다.
+     */
+    public Optional<UploadStatusResponse> getUploadStatus(Long meetingId) {
+        RecordingInfo info = activeRecordings.get(meetingId);
+        if (info == null) {
+            return meetingService.findWavSrc(meetingId)
+                    .map(wavSrc -> UploadStatusResponse.builder()
+                            .meetingId(meetingId)
+                            .complete(true)
+                            .state(RecordingState.DONE.name())
+                            .recommendedParallelism(recommendedParallelism)
+                            .build());
+        }
 
-                // 3. DB 업데이트 및 정리 작업
-                finalizeRecording(info.getMeetingId(), false);
+        return Optional.of(UploadStatusResponse.builder()
+                .meetingId(meetingId)
+                .complete(false)
+                .state(info.getState().name())
+                .totalChunks(info.getTotalWavChunks())
+                .receivedChunks(info.getReceivedChunks().cardinality())
+                .receivedBitmap(Base64.getEncoder().encodeToString(info.getReceivedChunks().toByteArray()))
+                .totalBytes(info.getTotalBytes())
+                .timeoutRemainingMs(Math.max(0, TimeUnit.NANOSECONDS.toMillis(
+                        info.getIdleTimeout().getTimeoutNanos() - (System.nanoTime() - info.getLastActivityNanos()))))
+                .recommendedParallelism(recommendedParallelism)
+                .build());
+    }
+
+    // 다음 묶음 fsync까지 기다려 응답한 청크는 재시작 후에도 남도록 보장
+    private void awaitDurable(RecordingInfo info) throws IOException {
+        try {
+            spoolSyncer.requestSync(info).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("청크 디스크 반영 대기 중 인터럽트", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IOException("청크 디스크 반영 실패", e);
+        }
+    }
+
+    private AdaptiveIdleTimeout newIdleTimeout() {
+        return new AdaptiveIdleTimeout(
+                TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs),
+                TimeUnit.MILLISECONDS.toNanos(idleTimeoutMinMs),
+                TimeUnit.MILLISECONDS.toNanos(idleTimeoutMaxMs),
+                idleTimeoutDeviationMultiplier);
+    }
 
-                log.info("WAV 파일 처리 완료: meetingId={}, 경로={}, totalBytes={}",
-                        request.getMeetingId(),
-                        info.getFilePath().toAbsolutePath(),
-                        info.getTotalBytes());
+    // 청크 수신 시 마지막 수신 시각 갱신 (volatile 쓰기) 및 도착 간격 반영
+    private void touch(RecordingInfo info) {
+        long now = System.nanoTime();
+        info.lastActivityNanos = now;
+        long gap = info.getIdleTimeout().onArrival(now);
+        if (gap >= 0) {
+            chunkGapSummary.record(TimeUnit.NANOSECONDS.toMillis(gap));
+        }
+    }
+
+    private void sweepIdleRecordings() {
+        try {
+            for (RecordingInfo info : activeRecordings.values()) {
+                if (info.getState() == RecordingState.RECEIVING && isIdle(info)) {
+                    timeoutExecutor.execute(() -> expire(info));
+                }
             }
         } catch (Exception e) {
-            log.error("WAV 청크 저장 실패: meetingId={}, chunk={}, error={}",
-                    request.getMeetingId(), request.getCurrentChunk(), e.getMessage(), e);
-            throw e;
+            log.error("녹음 타임아웃 검사 중 오류", e);
         }
     }
 
-    private void resetTimeout(RecordingInfo info) {
-        if (info.getTimeoutFuture() != null) {
-            info.getTimeoutFuture().cancel(false);
-        }
+    // 기록 중인 청크가 있으면 본문을 받는 중이므로 유휴가 아님
+    private boolean isIdle(RecordingInfo info) {
+        return info.getWritingChunks().cardinality() == 0
+                && System.nanoTime() - info.getLastActivityNanos() > info.getIdleTimeout().getTimeoutNanos();
+    }
 
-        ScheduledFuture<?> timeoutFuture = scheduler.schedule(() -> {
-            try {
-                log.warn("타임아웃으로 인한 강제 종료: meetingId={}", info.getMeetingId());
-                finalizeRecording(info.getMeetingId(), true);
+    // 타임아웃 결정마다 그때 적용된 타임아웃 값을 결과별로 기록
+    private void recordTimeoutDecision(RecordingInfo info, String outcome) {
+        DistributionSummary.builder("recording.idle.timeout")
+                .description("녹음 종료 시점에 적용된 유휴 타임아웃")
+                .baseUnit("milliseconds")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(TimeUnit.NANOSECONDS.toMillis(info.getIdleTimeout().getTimeoutNanos()));
+    }
+
+    private void expire(RecordingInfo info) {
+        // 검사 이후 청크가 도착했으면 종료하지 않음
+        if (!isIdle(info)) {
+            return;
+        }
+        try {
+            log.warn("타임아웃으로 인한 강제 종료: meetingId={}, timeout={}ms", info.getMeetingId(),
+                    TimeUnit.NANOSECONDS.toMillis(info.getIdleTimeout().getTimeoutNanos()));
+            if (finalizeRecording(info.getMeetingId(), true)) {
+                recordTimeoutDecision(info, "expired");
                 meetingService.endMeeting(info.getMeetingId());
-            } catch (IOException e) {
-                log.error("강제 종료 중 오류", e);
             }
-        }, 30, TimeUnit.SECONDS);
-
-        info.setTimeoutFuture(timeoutFuture);
+        } catch (Exception e) {
+            log.error("강제 종료 중 오류", e);
+        }
     }
 
-    private synchronized void finalizeRecording(Long meetingId, boolean forcedEnd) throws IOException {
+    /**
+     * RECEIVING -> FINALIZING 전이에 성공한 호출만 마무리를 수행한다.
+     * 마지막 청크와 타임아웃이 경합해도 한 번만 처리되며, 다른 회의의 마무리와는 서로 막지 않는다.
+     *
+     * @return 이 호출이 마무리를 수행했으면 true
+     */
+    private boolean finalizeRecording(Long meetingId, boolean forcedEnd) throws IOException {
         log.info("녹음 파일 변환 시작: meetingId={}, forcedEnd={}", meetingId, forcedEnd);
-        RecordingInfo info = activeRecordings.remove(meetingId);
-        if (info != null) {
-            if (info.getTimeoutFuture() != null) {
-                info.getTimeoutFuture().cancel(false);
+        RecordingInfo info = activeRecordings.get(meetingId);
+        if (info == null) {
+            log.warn("존재하지 않는 녹음에 대한 종료 처리: meetingId={}", meetingId);
+            return false;
+        }
+        if (!info.transition(RecordingState.RECEIVING, RecordingState.FINALIZING)) {
+            log.info("이미 마무리 중인 녹음: meetingId={}, state={}", meetingId, info.getState());
+            return false;
+        }
+
+        boolean complete = false;
+        String digest = null;
+        long fileLength = -1;
+        try {
+            // 진행 중인 청크 기록이 끝날 때까지 대기
+            Lock ioLock = info.getIoLock().writeLock();
+            ioLock.lock();
+            try (ChunkedWavFile wavFile = info.getWavFile()) {
+                complete = info.isWavComplete();
+                if (complete) {
+                    fileLength = wavFile.complete();
+                    digest = wavFile.sha256();
+                }
+            } finally {
+                ioLock.unlock();
             }
             // WAV 파일이 완성되지 않았다면 처리
-            if (!info.isWavComplete()) {
+            if (!complete) {
                 log.warn("미완성 WAV 파일 감지: meetingId={}, 받은 청크={}/{}",
-                        meetingId, info.getWavChunks().size(), info.getTotalWavChunks());
+                        meetingId, info.getReceivedChunks().cardinality(), info.getTotalWavChunks());
+                Files.deleteIfExists(info.getFilePath());
+                info.getJournal().delete();
+                progressiveSttService.discard(meetingId, info.getFilePath());
             }
 
             log.info("녹음 파일 처리 완료: meetingId={}, file={}, totalBytes={}, duration={}ms",
@@ -190,45 +710,66 @@ public class RecordService implements DisposableBean {
                     info.getFilePath().getFileName(),
                     info.getTotalBytes(),
                     info.getDuration());
-            if (info.isWavComplete()) {
+            if (complete) {
                 try {
                     Path absoluteFilePath = info.getFilePath().toAbsolutePath(); // 절대 경로 포함
                     String absolutePathString = absoluteFilePath.toString();     // String으로 변환
-                    log.info("WAV 파일 생성 완료: meetingId={}, 절대 경로={}", meetingId, absolutePathString);
+                    log.info("WAV 파일 생성 완료: meetingId={}, 절대 경로={}, sha256={}", meetingId, absolutePathString, digest);
 
                     // MeetingService를 통해 wavSrc 필드 업데이트
-                    meetingService.updateWavSrc(meetingId, absolutePathString);
+                    meetingService.updateWavSrc(meetingId, absolutePathString, digest);
+                    // 업로드 중에 보내지 못한 끝 구간 STT
+                    progressiveSttService.onComplete(meetingId, info.getFilePath(), fileLength);
+                    // DB 반영이 끝난 뒤에만 로그 삭제 (실패 시 재시작 때 다시 마무리)
+                    info.getJournal().delete();
                 } catch (Exception e) {
                     log.error("녹음 파일 경로 업데이트 실패: meetingId={}, error={}", meetingId, e.getMessage(), e);
                 }
             }
-        } else {
-            log.warn("존재하지 않는 녹음에 대한 종료 처리: meetingId={}", meetingId);
+        } finally {
+            info.getJournal().close();
+            info.transition(RecordingState.FINALIZING, complete ? RecordingState.DONE : RecordingState.ABORTED);
+            activeRecordings.remove(meetingId, info);
         }
+        return true;
     }
 
     @Override
     public void destroy() throws Exception {
-        log.info("서버 종료 감지: 진행 중인 녹음 처리 시작");
+        log.info("서버 종료 감지: 진행 중인 녹음 보존 시작");
 
-        for (Long meetingId : new ArrayList<>(activeRecordings.keySet())) {
+        // 미완성 녹음은 마무리하지 않고 디스크에 반영만 해 둔다 (재시작 후 스풀에서 복구해 이어받음)
+        for (RecordingInfo info : new ArrayList<>(activeRecordings.values())) {
+            Lock ioLock = info.getIoLock().writeLock();
+            ioLock.lock();
             try {
-                finalizeRecording(meetingId, true);
-                meetingService.endMeeting(meetingId);
-                log.info("서버 종료 중 녹음 처리 완료: {}", meetingId);
+                if (info.getState() == RecordingState.RECEIVING) {
+                    info.sync();
+                    info.getWavFile().close();
+                    info.getJournal().close();
+                    log.info("서버 종료 중 녹음 보존 완료: meetingId={}, 청크={}/{}", info.getMeetingId(),
+                            info.getReceivedChunks().cardinality(), info.getTotalWavChunks());
+                }
             } catch (Exception e) {
-                log.error("서버 종료 중 녹음 처리 실패: {}", meetingId, e);
+                log.error("서버 종료 중 녹음 보존 실패: {}", info.getMeetingId(), e);
+            } finally {
+                ioLock.unlock();
             }
         }
+        spoolSyncer.shutdown();
 
         scheduler.shutdown();
+        timeoutExecutor.shutdown();
         try {
-            if (!scheduler.awaitTermination(60, TimeUnit.SECONDS)) {
+            if (!scheduler.awaitTermination(60, TimeUnit.SECONDS)
+                    || !timeoutExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
+                timeoutExecutor.shutdownNow();
                 log.warn("스케줄러 강제 종료");
             }
         } catch (InterruptedException e) {
             scheduler.shutdownNow();
+            timeoutExecutor.shutdownNow();
             log.error("스케줄러 종료 중 인터럽트", e);
             Thread.currentThread().interrupt();
         }
@@ -0,0 +1,309 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.audio.LosslessArchive;
+import com.ibkpoc.amn.audio.WavHeader;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.storage.RecordingStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// service/RecordingArchiveService.java
+// STT가 끝난 녹음을 구간 저장(RecordingSegmentService)한 뒤 구간마다 무손실 압축(.amnl)으로 바꿔 보관하고,
+// 읽을 때는 원본 WAV로 풀어서 내준다. 구간 압축본을 풀어 원본 구간과 같은지 확인한 뒤에만 원본 구간을 지운다
+// (구간 저장 이전에 만든 단일 압축본도 읽을 수 있다)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingArchiveService implements DisposableBean {
+    private final MeetingRepository meetingRepository;
+    private final RecordingSegmentService recordingSegmentService;
+    private final RecordingCatalog recordingCatalog;
+    private final RecordingStorageService recordingStorageService;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.block-samples:4096}")
+    private int blockSamples;
+
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    // 회의는 한 번에 하나씩 압축하고, 한 회의의 구간들은 RecordingSegmentService 작업 스레드에서 병렬로 인코딩
+    private final ExecutorService archiver = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("recording-archive-%d").setDaemon(true).build());
+
+    /**
+     * STT가 끝난 회의의 녹음을 백그라운드에서 압축 보관한다. 호출 스레드는 기다리지 않는다.
+     */
+    public void archiveAsync(Long meetingId) {
+        if (!enabled || !queued.add(meetingId)) {
+            return;
+        }
+        archiver.execute(() -> {
+            try {
+                archive(meetingId);
+            } catch (Exception e) {
+                log.error("녹음 압축 보관 실패, 원본 유지: meetingId={}", meetingId, e);
+            } finally {
+                queued.remove(meetingId);
+            }
+        });
+    }
+
+    public boolean isQueued(Long meetingId) {
+        return queued.contains(meetingId);
+    }
+
+    void archive(Long meetingId) throws IOException {
+        Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
+        if (meeting == null || meeting.getWavSrc() == null) {
+            return;
+        }
+        Path source = Paths.get(meeting.getWavSrc());
+        if (isArchived(source)) {
+            // 구간 저장 이전의 단일 압축본에서 STT를 다시 돌린 경우: 파생 파일만 정리
+            deleteDerived(source);
+            return;
+        }
+        Optional<SegmentedRecording> segmented = recordingSegmentService.segment(meetingId);
+        if (segmented.isEmpty()) {
+            return;
+        }
+        SegmentedRecording recording = segmented.get();
+        if (!LosslessArchive.supports(recording.getBitsPerSample())) {
+            log.info("압축 보관 대상 형식 아님, 구간 WAV 유지: meetingId={}", meetingId);
+            deleteDerived(recording.getManifestPath());
+            deleteDerived(originalWav(recording.getManifestPath()));
+            recordingStorageService.publish(meetingId, recording);
+            return;
+        }
+
+        long started = System.nanoTime();
+        List<long[]> sizes = recordingSegmentService.forEachSegment(recording, (segment, path) -> {
+            if (isArchived(path)) {
+                long size = Files.size(path);
+                return new long[]{segment.getPcmBytes() + WavHeader.CANONICAL_SIZE, size};
+            }
+            LosslessArchive.Summary summary = archiveSegment(path);
+            segment.setFile(path.getFileName().toString().replaceFirst("\\.wav$", LosslessArchive.SUFFIX));
+            return new long[]{summary.getWavLength(), summary.getArchiveLength()};
+        });
+        // manifest가 압축본을 가리키게 된 뒤에 원본 구간을 지움
+        recordingSegmentService.save(recording);
+        for (SegmentedRecording.Segment segment : recording.getSegments()) {
+            Path path = recording.pathOf(segment);
+            Files.deleteIfExists(path.resolveSibling(path.getFileName().toString()
+                    .replaceFirst("\\" + LosslessArchive.SUFFIX + "$", ".wav")));
+        }
+        deleteDerived(recording.getManifestPath());
+        deleteDerived(originalWav(recording.getManifestPath()));
+        recordingCatalog.update(meetingId, recording.getManifestPath(), meeting.getWavDigest());
+
+        long wavLength = sizes.stream().mapToLong(size -> size[0]).sum();
+        long archiveLength = sizes.stream().mapToLong(size -> size[1]).sum();
+        log.info("녹음 압축 보관 완료: meetingId={}, {} -> {} bytes ({}%), 구간 수={}, 소요={}ms",
+                meetingId, wavLength, archiveLength, wavLength == 0 ? 100 : archiveLength * 100 / wavLength,
+                sizes.size(), (System.nanoTime() - started) / 1_000_000);
+        // 원격 저장소를 쓰면 올린 뒤 로컬 사본 삭제
+        recordingStorageService.publish(meetingId, recording);
+    }
+
+    // 구간 WAV 하나를 압축하고 풀어 본 결과가 같은지 확인 (구간끼리 병렬이므로 구간 안의 블록은 순서대로 인코딩)
+    private LosslessArchive.Summary archiveSegment(Path wav) throws IOException {
+        Path target = wav.resolveSibling(wav.getFileName().toString().replaceFirst("\\.wav$", LosslessArchive.SUFFIX));
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(wav, StandardOpenOption.READ)) {
+            LosslessArchive.Summary summary = LosslessArchive.encode(channel, temp, blockSamples, Runnable::run, 1);
+            String expected = FileDigests.sha256(channel);
+            String restored;
+            try (InputStream in = LosslessArchive.openWav(temp)) {
+                restored = FileDigests.sha256(in);
+            }
+            if (!expected.equals(restored)) {
+                throw new IOException("압축본 복원 결과가 원본과 다릅니다: " + wav);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return summary;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 회의 녹음을 WAV로 읽을 수 있는 Resource. 압축 보관된 녹음은 읽는 동안 블록 단위로 푼다.
+     */
+    public Optional<Resource> openRecording(Long meetingId) {
+        // 색인에 있으면 DB 조회 없이 바로 위치를 얻고, 없거나 색인 이후 옮겨졌으면 DB의 wavSrc로
+        Optional<String> location = recordingCatalog.findLocation(meetingId)
+                .filter(indexed -> RecordingStorage.isRemote(indexed) || Files.exists(Paths.get(indexed)))
+                .or(() -> meetingRepository.findById(meetingId).map(Meeting::getWavSrc));
+        if (location.isPresent() && RecordingStorage.isRemote(location.get())) {
+            return Optional.of(toRemoteResource(location.get()));
+        }
+        return location
+                .map(Paths::get)
+                .map(recordingSegmentService::resolve)
+                .filter(Files::exists)
+                .map(this::toResource);
+    }
+
+    private Resource toResource(Path path) {
+        if (SegmentedRecording.isManifest(path)) {
+            return new StreamResource(path, baseName(path.toAbsolutePath().getParent()) + ".wav", () -> {
+                SegmentedRecording recording = recordingSegmentService.load(path);
+                return recording.openWav();
+            }, () -> recordingSegmentService.load(path).getWavLength());
+        }
+        if (isArchived(path)) {
+            return new StreamResource(path, baseName(path) + ".wav", () -> LosslessArchive.openWav(path), () -> {
+                try (LosslessArchive archive = LosslessArchive.open(path)) {
+                    return archive.getWavLength();
+                }
+            });
+        }
+        return new FileSystemResource(path);
+    }
+
+    // 원격 저장소의 녹음: manifest만 받아 두고 구간은 읽는 범위만 가져옴
+    private Resource toRemoteResource(String location) {
+        String name = location.replaceFirst("/" + SegmentedRecording.MANIFEST + "$", "");
+        return new StreamResource(null, name.substring(name.lastIndexOf('/') + 1) + ".wav",
+                () -> recordingStorageService.open(location).openWav(),
+                () -> recordingStorageService.open(location).getWavLength());
+    }
+
+    /**
+     * 압축본을 같은 디렉터리의 임시 WAV(이름_restored.wav)로 복원한다 (STT 재요청용, 다음 압축 보관 때 정리됨).
+     */
+    public Path restoreWav(Path archive) throws IOException {
+        Path restored = archive.resolveSibling(baseName(archive) + "_restored.wav");
+        if (Files.exists(restored)) {
+            return restored;
+        }
+        Path temp = restored.resolveSibling(restored.getFileName() + ".tmp");
+        try (InputStream in = LosslessArchive.openWav(archive)) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(temp, restored, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return restored;
+    }
+
+    /**
+     * 구간 저장된 녹음을 이어 같은 디렉터리의 임시 WAV(recording_restored.wav) 하나로 만든다 (전체 파일 STT용, 다음 압축 보관 때 정리됨).
+     */
+    public Path restoreWav(SegmentedRecording recording) throws IOException {
+        Path restored = recording.getDirectory().resolve("recording_restored.wav");
+        if (Files.exists(restored)) {
+            return restored;
+        }
+        Path temp = restored.resolveSibling(restored.getFileName() + ".tmp");
+        try (InputStream in = recording.openWav()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.move(temp, restored, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return restored;
+    }
+
+    public static boolean isArchived(Path path) {
+        return path.getFileName().toString().endsWith(LosslessArchive.SUFFIX);
+    }
+
+    // STT용 파생 파일 (이름_stt.wav, 이름_segNNN.wav, 대응표, 복원 파일). 구간 저장이면 디렉터리 안 구간들의 파생 파일
+    private void deleteDerived(Path recording) {
+        Path dir = recording.toAbsolutePath().getParent();
+        String glob = SegmentedRecording.isManifest(recording) ? "*_{stt,restored}*"
+                : baseName(recording) + "_{stt,seg,restored}*";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, glob)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("STT 파생 파일 정리 실패: file={}, error={}", recording, e.getMessage());
+        }
+    }
+
+    // 구간 저장 전 단일 WAV 경로 (구간 디렉터리와 같은 이름). 점진 STT 구간, _stt 변환본, 대응표는 이 파일 옆에 남음
+    private static Path originalWav(Path manifest) {
+        Path directory = manifest.toAbsolutePath().getParent();
+        return directory.resolveSibling(directory.getFileName() + ".wav");
+    }
+
+    private static String baseName(Path path) {
+        return path.getFileName().toString().replaceFirst("\\.(wav|amnl)$", "");
+    }
+
+    @Override
+    public void destroy() {
+        archiver.shutdownNow();
+    }
+
+    @FunctionalInterface
+    private interface IoSupplier<T> {
+        T get() throws IOException;
+    }
+
+    // 구간 저장/압축 보관 녹음을 원본 WAV로 내주는 Resource.
+    // skip이 구간/블록 색인을 쓰므로 Range 요청도 앞부분을 풀지 않는다
+    private static class StreamResource extends AbstractResource {
+        private final Path path;
+        private final String filename;
+        private final IoSupplier<InputStream> stream;
+        private final IoSupplier<Long> length;
+
+        StreamResource(Path path, String filename, IoSupplier<InputStream> stream, IoSupplier<Long> length) {
+            this.path = path;
+            this.filename = filename;
+            this.stream = stream;
+            this.length = length;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return stream.get();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return length.get();
+        }
+
+        @Override
+        public boolean exists() {
+            return path == null || Files.exists(path);
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public String getDescription() {
+            return "녹음 [" + (path != null ? path : filename) + "]";
+        }
+    }
+}
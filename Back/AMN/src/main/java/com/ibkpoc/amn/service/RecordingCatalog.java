@@ -0,0 +1,309 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.storage.RecordingStorage;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+// service/RecordingCatalog.java
+// meetingId -> 녹음 파일 목록(base 기준 상대 경로, 크기)과 전체 WAV SHA-256을 담은 디스크 색인.
+// 시작 시 전부 메모리에 올려 두고 조회는 디렉터리를 뒤지지 않고 메모리에서 끝낸다
+// 형식: MAGIC, 이후 레코드(길이, crc32c, 내용) 반복. 레코드 하나가 갱신 하나이므로 중간에 잘린 레코드는 무시된다
+// 죽은 레코드가 쌓이면 살아 있는 항목만 임시 파일에 다시 써서 원자적으로 바꿔 끼운다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingCatalog implements DisposableBean {
+    static final String FILE_NAME = "catalog.log";
+
+    private static final int MAGIC = 0x414D4E43; // "AMNC"
+    private static final byte PUT = 'P';
+    private static final byte REMOVE = 'R';
+    private static final int RECORD_HEADER_SIZE = 4 + 4;
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    // 파생 파일(STT 변환본, 대응표, 복원본)과 쓰다 만 임시 파일은 색인하지 않음
+    private static final Pattern TRANSIENT = Pattern.compile(".*(_stt|_seg\\d+|_restored).*|.*\\.tmp$");
+
+    private final RecordingLayout recordingLayout;
+
+    @Value("${app.record.catalog-path:#{systemProperties['user.dir']}/meeting_records/.catalog}")
+    private String catalogPath;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private Path path;
+    private FileChannel channel;
+    private int records;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long meetingId;
+        private final String root;      // wavSrc (단일 WAV, manifest.json 또는 단일 압축본). 원격 저장소면 URI
+        private final String digest;    // 전체 WAV의 SHA-256, 모르면 null
+        private final List<FileEntry> files;
+
+        public long getTotalSize() {
+            return files.stream().mapToLong(FileEntry::getSize).sum();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class FileEntry {
+        private final String path;      // base 기준 상대 경로 (원격 저장소면 객체 key)
+        private final long size;
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Path directory = Paths.get(catalogPath);
+        Files.createDirectories(directory);
+        path = directory.resolve(FILE_NAME);
+        load();
+    }
+
+    // 레코드를 순서대로 적용하고, 손상/잘린 꼬리는 잘라낸 뒤 이어 쓴다
+    private synchronized void load() throws IOException {
+        entries.clear();
+        records = 0;
+        if (!Files.exists(path) || Files.size(path) < 4) {
+            rewrite();
+            return;
+        }
+        byte[] content = Files.readAllBytes(path);
+        ByteBuffer buf = ByteBuffer.wrap(content);
+        if (buf.getInt() != MAGIC) {
+            throw new IOException("녹음 색인 형식 오류: " + path);
+        }
+        int valid = buf.position();
+        while (buf.remaining() >= RECORD_HEADER_SIZE) {
+            int length = buf.getInt();
+            int crc = buf.getInt();
+            if (length <= 0 || length > buf.remaining()) {
+                break;
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(content, buf.position(), length);
+            if ((int) checksum.getValue() != crc) {
+                break;
+            }
+            apply(content, buf.position(), length);
+            buf.position(buf.position() + length);
+            valid = buf.position();
+            records++;
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (valid < content.length) {
+            log.warn("녹음 색인 손상 레코드 발견, 이후 무시: path={}, offset={}", path, valid);
+            channel.truncate(valid);
+            channel.force(false);
+        }
+        channel.position(valid);
+        log.info("녹음 색인 로드: 항목 {}개, 레코드 {}개", entries.size(), records);
+        compactIfNeeded();
+    }
+
+    private void apply(byte[] content, int offset, int length) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, offset, length));
+        try {
+            byte op = in.readByte();
+            long meetingId = in.readLong();
+            if (op == REMOVE) {
+                entries.remove(meetingId);
+                return;
+            }
+            String root = in.readUTF();
+            String digest = in.readUTF();
+            int count = in.readInt();
+            List<FileEntry> files = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                files.add(new FileEntry(in.readUTF(), in.readLong()));
+            }
+            entries.put(meetingId, new Entry(meetingId, root, digest.isEmpty() ? null : digest,
+                    Collections.unmodifiableList(files)));
+        } catch (EOFException e) {
+            throw new IOException("녹음 색인 레코드 형식 오류: " + path, e);
+        }
+    }
+
+    public Optional<Entry> find(long meetingId) {
+        return Optional.ofNullable(entries.get(meetingId));
+    }
+
+    /**
+     * 색인에 기록된 녹음 위치(wavSrc). 로컬이면 절대 경로, 원격 저장소면 URI
+     */
+    public Optional<String> findLocation(long meetingId) {
+        return find(meetingId).map(Entry::getRoot)
+                .map(root -> RecordingStorage.isRemote(root) ? root : recordingLayout.resolve(root).toString());
+    }
+
+    public Collection<Entry> entries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+
+    /**
+     * 회의 녹음 위치가 바뀌었을 때(업로드 완료, 구간 저장, 압축 보관, 이동) 그 시점의 파일 목록과 크기로 항목을 갱신한다.
+     * 색인은 조회 가속용이라 실패해도 호출한 작업은 계속되고, 다음 시작 시 점검에서 다시 맞춰진다.
+     */
+    public void update(long meetingId, Path root, String digest) {
+        try {
+            List<FileEntry> files = new ArrayList<>();
+            if (SegmentedRecording.isManifest(root)) {
+                try (DirectoryStream<Path> dir = Files.newDirectoryStream(root.toAbsolutePath().getParent())) {
+                    for (Path file : dir) {
+                        if (Files.isRegularFile(file) && !TRANSIENT.matcher(file.getFileName().toString()).matches()) {
+                            files.add(new FileEntry(recordingLayout.relativize(file), Files.size(file)));
+                        }
+                    }
+                }
+                files.sort((a, b) -> a.getPath().compareTo(b.getPath()));
+            } else if (Files.exists(root)) {
+                files.add(new FileEntry(recordingLayout.relativize(root), Files.size(root)));
+            }
+            put(new Entry(meetingId, recordingLayout.relativize(root), digest, Collections.unmodifiableList(files)));
+        } catch (IOException e) {
+            log.warn("녹음 색인 갱신 실패: meetingId={}, root={}, error={}", meetingId, root, e.getMessage());
+        }
+    }
+
+    /**
+     * 원격 저장소로 옮긴 녹음: 위치(URI)와 올린 객체 목록을 그대로 기록한다.
+     */
+    public void update(long meetingId, String location, String digest, List<FileEntry> files) {
+        try {
+            put(new Entry(meetingId, location, digest, List.copyOf(files)));
+        } catch (IOException e) {
+            log.warn("녹음 색인 갱신 실패: meetingId={}, root={}, error={}", meetingId, location, e.getMessage());
+        }
+    }
+
+    public void remove(long meetingId) {
+        try {
+            synchronized (this) {
+                if (entries.remove(meetingId) == null) {
+                    return;
+                }
+                append(encode(REMOVE, meetingId, null));
+                compactIfNeeded();
+            }
+        } catch (IOException e) {
+            log.warn("녹음 색인 삭제 실패: meetingId={}, error={}", meetingId, e.getMessage());
+        }
+    }
+
+    synchronized void put(Entry entry) throws IOException {
+        append(encode(PUT, entry.getMeetingId(), entry));
+        entries.put(entry.getMeetingId(), entry);
+        // 압축은 살아 있는 항목으로 파일을 다시 쓰므로 방금 기록한 항목이 맵에 들어간 뒤에 해야 함
+        compactIfNeeded();
+    }
+
+    // 레코드 하나를 한 번의 쓰기로 덧붙이고 바로 디스크에 반영 (녹음 하나당 몇 번뿐이라 묶지 않음)
+    private void append(byte[] payload) throws IOException {
+        if (payload.length > MAX_RECORD_SIZE) {
+            throw new IOException("녹음 색인 레코드가 너무 큽니다: " + payload.length);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        writeFully(channel, record);
+        channel.force(false);
+        records++;
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (records > 2 * entries.size() + 64) {
+            rewrite();
+        }
+    }
+
+    // 살아 있는 항목만 임시 파일에 쓰고 원자적으로 교체
+    private void rewrite() throws IOException {
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.writeBytes(ByteBuffer.allocate(4).putInt(MAGIC).array());
+        for (Entry entry : entries.values()) {
+            byte[] payload = encode(PUT, entry.getMeetingId(), entry);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            bytes.writeBytes(ByteBuffer.allocate(RECORD_HEADER_SIZE)
+                    .putInt(payload.length).putInt((int) crc.getValue()).array());
+            bytes.writeBytes(payload);
+        }
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(out, ByteBuffer.wrap(bytes.toByteArray()));
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        records = entries.size();
+    }
+
+    private static byte[] encode(byte op, long meetingId, Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(op);
+            out.writeLong(meetingId);
+            if (entry != null) {
+                out.writeUTF(entry.getRoot());
+                out.writeUTF(entry.getDigest() == null ? "" : entry.getDigest());
+                out.writeInt(entry.getFiles().size());
+                for (FileEntry file : entry.getFiles()) {
+                    out.writeUTF(file.getPath());
+                    out.writeLong(file.getSize());
+                }
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
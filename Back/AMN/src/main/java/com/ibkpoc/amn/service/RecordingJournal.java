@@ -0,0 +1,159 @@
+package com.ibkpoc.amn.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// service/RecordingJournal.java
+// 녹음별 추가 전용 메타데이터 로그. 재시작 시 이 로그로 수신 청크 목록을 복구한다.
+// 형식: MAGIC, 헤더 레코드 1개, 이후 청크 레코드(index, length, crc32c) 반복
+@Slf4j
+public class RecordingJournal implements Closeable {
+    public static final String SUFFIX = ".journal";
+
+    private static final int MAGIC = 0x414D4E4A; // "AMNJ"
+    private static final byte HEADER = 'H';
+    private static final byte CHUNK = 'C';
+    private static final int CHUNK_RECORD_SIZE = 1 + 4 + 4 + 4;
+
+    @Getter
+    private final Path path;
+    private final FileChannel channel;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Meta {
+        private final long meetingId;
+        private final int chunkSize;
+        private final int totalChunks;
+        private final String startTime;   // 클라이언트가 보낸 시작 시간
+        private final String wavPath;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ChunkRecord {
+        private final int index;
+        private final int length;
+        private final int crc;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Recovered {
+        private final Meta meta;
+        private final List<ChunkRecord> chunks;
+        private final RecordingJournal journal;
+    }
+
+    private RecordingJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * 새 로그를 만들고 헤더를 즉시 디스크에 반영한다.
+     */
+    public static RecordingJournal create(Path path, Meta meta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(HEADER);
+            out.writeLong(meta.getMeetingId());
+            out.writeInt(meta.getChunkSize());
+            out.writeInt(meta.getTotalChunks());
+            out.writeUTF(meta.getStartTime());
+            out.writeUTF(meta.getWavPath());
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            writeFully(channel, ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(true);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new RecordingJournal(path, channel);
+    }
+
+    /**
+     * 로그를 읽어 메타데이터와 청크 레코드를 복구한다.
+     * 마지막 레코드가 중간에 잘렸으면(기록 중 종료) 그 앞까지만 인정하고 잘라낸다.
+     */
+    public static Recovered recover(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+        Meta meta;
+        try {
+            if (in.readInt() != MAGIC || in.readByte() != HEADER) {
+                throw new IOException("녹음 로그 형식 오류: " + path);
+            }
+            meta = new Meta(in.readLong(), in.readInt(), in.readInt(), in.readUTF(), in.readUTF());
+        } catch (EOFException e) {
+            throw new IOException("녹음 로그 헤더 손상: " + path, e);
+        }
+
+        List<ChunkRecord> chunks = new ArrayList<>();
+        long valid = content.length - in.available();
+        while (in.available() >= CHUNK_RECORD_SIZE) {
+            if (in.readByte() != CHUNK) {
+                log.warn("녹음 로그 손상 레코드 발견, 이후 무시: path={}, offset={}", path, valid);
+                break;
+            }
+            chunks.add(new ChunkRecord(in.readInt(), in.readInt(), in.readInt()));
+            valid += CHUNK_RECORD_SIZE;
+        }
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        if (valid < content.length) {
+            channel.truncate(valid);
+        }
+        channel.position(valid);
+        return new Recovered(meta, chunks, new RecordingJournal(path, channel));
+    }
+
+    /**
+     * 청크 레코드를 덧붙인다. 디스크 반영은 force() 호출(묶음 fsync) 시점에 일어난다.
+     */
+    public synchronized void appendChunk(int index, int length, int crc) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(CHUNK_RECORD_SIZE)
+                .put(CHUNK).putInt(index).putInt(length).putInt(crc).flip();
+        writeFully(channel, record);
+    }
+
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+}
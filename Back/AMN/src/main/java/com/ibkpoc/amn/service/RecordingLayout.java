@@ -0,0 +1,61 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.hash.Hashing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+
+// service/RecordingLayout.java
+// meeting_records 아래 녹음 파일 배치: base/yyyy/MM/dd/<meetingId 해시 2자리 hex>/
+// 한 디렉터리에 파일이 쌓이지 않도록 날짜로 나누고, 같은 날 회의가 많아도 해시 접두어로 256개까지 흩어 놓는다
+@Component
+public class RecordingLayout {
+    private static final int SHARDS = 256;
+
+    private final Path basePath;
+
+    public RecordingLayout(@Value("${app.record.base-path:#{systemProperties['user.dir']}/meeting_records}")
+                           String baseRecordPath) {
+        this.basePath = Paths.get(baseRecordPath).toAbsolutePath().normalize();
+    }
+
+    public Path getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * 회의 녹음을 둘 디렉터리. 같은 회의는 같은 날짜면 항상 같은 디렉터리다.
+     */
+    public Path directoryFor(long meetingId, LocalDate date) {
+        return basePath.resolve(String.format("%04d/%02d/%02d/%s",
+                date.getYear(), date.getMonthValue(), date.getDayOfMonth(), shard(meetingId)));
+    }
+
+    public static String shard(long meetingId) {
+        int hash = Hashing.murmur3_32_fixed().hashLong(meetingId).asInt();
+        return String.format("%02x", Math.floorMod(hash, SHARDS));
+    }
+
+    /**
+     * base 기준 상대 경로 (base 밖이면 절대 경로 그대로)
+     */
+    public String relativize(Path path) {
+        Path absolute = path.toAbsolutePath().normalize();
+        return absolute.startsWith(basePath) ? basePath.relativize(absolute).toString() : absolute.toString();
+    }
+
+    public Path resolve(String path) {
+        return basePath.resolve(path).normalize();
+    }
+
+    /**
+     * 샤딩 이전 방식으로 base 바로 아래에 놓인 파일/디렉터리인지
+     */
+    public boolean isFlat(Path path) {
+        Path parent = path.toAbsolutePath().normalize().getParent();
+        return basePath.equals(parent);
+    }
+}
@@ -0,0 +1,178 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.storage.RecordingStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// service/RecordingMigrationService.java
+// 시작 후 백그라운드에서 한 번:
+// 1) 샤딩 이전에 meeting_records 바로 아래 쌓인 완료 녹음(단일 WAV/압축본, 구간 디렉터리)을 RecordingLayout 위치로 옮기고 wavSrc를 바꾼다
+// 2) 녹음 색인에 없거나 wavSrc와 다른 항목을 다시 기록한다
+// 업로드 중인 파일(DB에 wavSrc가 없음)은 건드리지 않는다. 파일 하나 옮길 때마다 pause-ms 쉬어 디스크를 독점하지 않는다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingMigrationService implements DisposableBean {
+    private static final Pattern MEETING_FILE = Pattern.compile("meeting_(\\d+)_.*");
+
+    private final MeetingRepository meetingRepository;
+    private final RecordingLayout recordingLayout;
+    private final RecordingCatalog recordingCatalog;
+    private final RecordingSegmentService recordingSegmentService;
+    private final RecordingArchiveService recordingArchiveService;
+
+    @Value("${app.record.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.record.migration.pause-ms:50}")
+    private long pauseMs;
+
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("recording-migration-%d").setDaemon(true).build());
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        migrator.execute(() -> {
+            try {
+                migrate();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("녹음 디렉터리 이전 실패", e);
+            }
+        });
+    }
+
+    void migrate() throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        int moved = 0;
+        for (Long meetingId : flatMeetingIds()) {
+            try {
+                if (moveToShard(meetingId)) {
+                    moved++;
+                    Thread.sleep(pauseMs);
+                }
+            } catch (IOException e) {
+                log.warn("녹음 이전 실패, 다음 시작 때 재시도: meetingId={}, error={}", meetingId, e.getMessage());
+            }
+        }
+
+        int indexed = 0;
+        for (Meeting meeting : meetingRepository.findAll()) {
+            if (meeting.getWavSrc() == null || RecordingStorage.isRemote(meeting.getWavSrc())) {
+                continue;
+            }
+            Path root = recordingSegmentService.resolve(Paths.get(meeting.getWavSrc()));
+            String relative = recordingLayout.relativize(root);
+            boolean current = recordingCatalog.find(meeting.getConfId())
+                    .filter(entry -> entry.getRoot().equals(relative))
+                    .isPresent();
+            if (!current && Files.exists(root)) {
+                recordingCatalog.update(meeting.getConfId(), root, meeting.getWavDigest());
+                indexed++;
+            }
+        }
+        log.info("녹음 디렉터리 이전 완료: 이동 {}건, 색인 보충 {}건, 소요={}ms",
+                moved, indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // base 바로 아래 meeting_<id>_* 이름에서 회의 ID 수집
+    private Set<Long> flatMeetingIds() throws IOException {
+        Set<Long> ids = new HashSet<>();
+        Path base = recordingLayout.getBasePath();
+        if (!Files.isDirectory(base)) {
+            return ids;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(base, "meeting_*")) {
+            for (Path file : files) {
+                Matcher m = MEETING_FILE.matcher(file.getFileName().toString());
+                if (m.matches()) {
+                    ids.add(Long.parseLong(m.group(1)));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // 구간 저장/압축 보관과 겹치지 않게 구간 저장 서비스의 잠금 안에서 옮기고, 압축 보관 중인 회의는 건너뜀
+    private boolean moveToShard(Long meetingId) throws IOException {
+        synchronized (recordingSegmentService) {
+            Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
+            if (meeting == null || meeting.getWavSrc() == null || recordingArchiveService.isQueued(meetingId)) {
+                return false;
+            }
+            Path root = recordingSegmentService.resolve(Paths.get(meeting.getWavSrc())).toAbsolutePath().normalize();
+            boolean segmented = SegmentedRecording.isManifest(root);
+            Path unit = segmented ? root.getParent() : root;
+            if (!recordingLayout.isFlat(unit) || !Files.exists(unit)) {
+                return false;
+            }
+
+            LocalDate date = meeting.getStartTime() != null ? meeting.getStartTime().toLocalDate()
+                    : LocalDate.ofInstant(Files.getLastModifiedTime(unit).toInstant(), ZoneId.systemDefault());
+            Path directory = recordingLayout.directoryFor(meetingId, date);
+            Files.createDirectories(directory);
+
+            // 원본(또는 구간 디렉터리)을 먼저 옮기고 wavSrc를 바꾼 뒤 파생 파일을 따라 옮김
+            Path target = directory.resolve(unit.getFileName());
+            Files.move(unit, target, StandardCopyOption.ATOMIC_MOVE);
+            Path newRoot = segmented ? target.resolve(SegmentedRecording.MANIFEST) : target;
+            try {
+                meeting.setWavSrc(newRoot.toString());
+                meetingRepository.save(meeting);
+            } catch (RuntimeException e) {
+                Files.move(target, unit, StandardCopyOption.ATOMIC_MOVE);
+                throw e;
+            }
+            for (Path derived : derivedFiles(unit)) {
+                Files.move(derived, directory.resolve(derived.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            }
+            recordingCatalog.update(meetingId, newRoot, meeting.getWavDigest());
+            log.info("녹음 이전: meetingId={}, {} -> {}", meetingId, unit, target);
+            return true;
+        }
+    }
+
+    private List<Path> derivedFiles(Path unit) throws IOException {
+        String name = unit.getFileName().toString().replaceFirst("\\.(wav|amnl)$", "");
+        List<Path> derived = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(unit.getParent(),
+                name + "_{stt,seg,restored}*")) {
+            files.forEach(derived::add);
+        }
+        return derived;
+    }
+
+    @Override
+    public void destroy() {
+        migrator.shutdownNow();
+    }
+}
@@ -0,0 +1,294 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.audio.SpeechSegmenter;
+import com.ibkpoc.amn.audio.WavHeader;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.storage.RecordingStorage;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// service/RecordingSegmentService.java
+// 완성된 단일 WAV 녹음을 고정 길이(기본 60초) 구간 파일 + manifest로 나누고,
+// 구간별 작업(STT 변환, 압축 등)을 코어 수만큼 병렬로 돌린다
+// 구간 경계는 목표 길이 ± tolerance 안의 무음(없으면 가장 조용한 20ms 프레임)에 맞춘다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingSegmentService implements DisposableBean {
+    private final MeetingRepository meetingRepository;
+    private final ObjectMapper objectMapper;
+    private final RecordingCatalog recordingCatalog;
+    private final RecordingStorageService recordingStorageService;
+
+    @Value("${app.record.segment.seconds:60}")
+    private int segmentSeconds;
+
+    @Value("${app.record.segment.tolerance-seconds:5}")
+    private int toleranceSeconds;
+
+    @Value("${app.record.segment.min-silence-ms:200}")
+    private int minSilenceMs;
+
+    @Value("${app.record.segment.silence-threshold:500}")
+    private double silenceThreshold;
+
+    // 구간 작업 스레드 수 (0이면 코어 수 - 1, 최소 1)
+    @Value("${app.record.segment.threads:0}")
+    private int threads;
+
+    private ExecutorService workers;
+
+    @FunctionalInterface
+    public interface SegmentTask<T> {
+        T apply(SegmentedRecording.Segment segment, Path path) throws IOException;
+    }
+
+    @PostConstruct
+    void init() {
+        int n = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        workers = Executors.newFixedThreadPool(n,
+                new ThreadFactoryBuilder().setNameFormat("recording-segment-%d").setDaemon(true).build());
+    }
+
+    /**
+     * 회의 녹음을 구간 저장 형태로 반환한다. 아직 단일 WAV면 나눠서 wavSrc를 manifest로 바꾼다.
+     * 원격 저장소로 옮긴 녹음이면 로컬 작업 디렉터리로 내려받은 사본을 반환한다 (wavSrc는 그대로).
+     * 구간 저장 이전 형식(단일 압축본)이거나 녹음이 없으면 빈 값이다.
+     */
+    public synchronized Optional<SegmentedRecording> segment(Long meetingId) throws IOException {
+        Meeting meeting = meetingRepository.findById(meetingId).orElse(null);
+        if (meeting == null || meeting.getWavSrc() == null) {
+            return Optional.empty();
+        }
+        if (RecordingStorage.isRemote(meeting.getWavSrc())) {
+            return Optional.of(load(recordingStorageService.fetch(meeting.getWavSrc())));
+        }
+        Path source = Paths.get(meeting.getWavSrc());
+        Path manifest = resolve(source);
+        if (SegmentedRecording.isManifest(manifest) && Files.exists(manifest)) {
+            // 이미 나눈 녹음 (나눈 뒤 wavSrc 갱신이 롤백되었거나 원본 삭제 전에 중단된 경우도 여기서 맞춤)
+            if (!manifest.toString().equals(meeting.getWavSrc())) {
+                meeting.setWavSrc(manifest.toString());
+                meetingRepository.save(meeting);
+            }
+            if (!source.equals(manifest)) {
+                Files.deleteIfExists(source);
+                recordingCatalog.update(meetingId, manifest, meeting.getWavDigest());
+            }
+            return Optional.of(load(manifest));
+        }
+        if (RecordingArchiveService.isArchived(source) || !Files.exists(source)) {
+            return Optional.empty();
+        }
+
+        long started = System.nanoTime();
+        SegmentedRecording recording = split(source);
+        recording.setMeetingId(meetingId);
+
+        // 나눈 결과를 이어 읽은 내용이 원본과 같은지 확인한 뒤에 manifest를 쓰고 원본을 지움
+        if (meeting.getWavDigest() != null) {
+            String digest;
+            try (InputStream in = recording.openWav()) {
+                digest = FileDigests.sha256(in);
+            }
+            if (!meeting.getWavDigest().equals(digest)) {
+                deleteDirectory(recording.getDirectory());
+                throw new IOException("구간 저장 결과가 원본과 다릅니다: " + source);
+            }
+        }
+        recording.save(objectMapper);
+        meeting.setWavSrc(recording.getManifestPath().toString());
+        meetingRepository.save(meeting);
+        Files.deleteIfExists(source);
+        recordingCatalog.update(meetingId, recording.getManifestPath(), meeting.getWavDigest());
+
+        log.info("녹음 구간 저장 완료: meetingId={}, 구간 수={}, 소요={}ms", meetingId,
+                recording.getSegments().size(), (System.nanoTime() - started) / 1_000_000);
+        return Optional.of(recording);
+    }
+
+    /**
+     * wavSrc가 가리키는 단일 WAV가 이미 구간 저장되었으면 그 manifest 경로, 아니면 그대로 반환한다.
+     */
+    public Path resolve(Path wavSrc) {
+        if (SegmentedRecording.isManifest(wavSrc) || RecordingArchiveService.isArchived(wavSrc)) {
+            return wavSrc;
+        }
+        Path manifest = directoryFor(wavSrc).resolve(SegmentedRecording.MANIFEST);
+        return Files.exists(manifest) ? manifest : wavSrc;
+    }
+
+    public SegmentedRecording load(Path manifest) throws IOException {
+        return SegmentedRecording.load(objectMapper, manifest);
+    }
+
+    public void save(SegmentedRecording recording) throws IOException {
+        recording.save(objectMapper);
+    }
+
+    /**
+     * 구간마다 task를 병렬로 실행하고 결과를 구간 순서대로 반환한다. 하나라도 실패하면 그 예외를 던진다.
+     */
+    public <T> List<T> forEachSegment(SegmentedRecording recording, SegmentTask<T> task) throws IOException {
+        List<CompletableFuture<T>> futures = new ArrayList<>();
+        for (SegmentedRecording.Segment segment : recording.getSegments()) {
+            Path path = recording.pathOf(segment);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.apply(segment, path);
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, workers));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    // 1차: 프레임 에너지로 경계를 정하고, 2차: 구간 파일들을 병렬로 복사
+    private SegmentedRecording split(Path source) throws IOException {
+        Path directory = directoryFor(source);
+        if (Files.exists(directory)) {
+            // 이전에 나누다 중단된 흔적
+            deleteDirectory(directory);
+        }
+        Files.createDirectories(directory);
+
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            WavHeader header = WavHeader.read(channel);
+            long dataOffset = header.getDataOffset();
+            int blockAlign = header.getBlockAlign();
+            long pcmBytes = Math.max(0, channel.size() - dataOffset) / blockAlign * blockAlign;
+
+            List<Long> bounds = new ArrayList<>();
+            bounds.add(0L);
+            SpeechSegmenter segmenter = new SpeechSegmenter(header, Math.max(1, segmentSeconds - toleranceSeconds),
+                    segmentSeconds + toleranceSeconds, minSilenceMs, silenceThreshold);
+            ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+            long position = 0;
+            while (position < pcmBytes) {
+                buf.clear().limit((int) Math.min(buf.capacity(), pcmBytes - position));
+                int n = channel.read(buf, dataOffset + position);
+                if (n <= 0) {
+                    break;
+                }
+                position += n;
+                bounds.addAll(segmenter.feed(buf.flip()));
+            }
+            // 너무 짧은 마지막 구간은 앞 구간에 붙임
+            if (bounds.size() > 1 && pcmBytes - bounds.get(bounds.size() - 1) < (long) header.getByteRate()) {
+                bounds.remove(bounds.size() - 1);
+            }
+            bounds.add(pcmBytes);
+
+            SegmentedRecording recording = new SegmentedRecording();
+            recording.setDirectory(directory);
+            recording.setSampleRate(header.getSampleRate());
+            recording.setChannels(header.getChannels());
+            recording.setBitsPerSample(header.getBitsPerSample());
+            recording.setHeader(read(channel, 0, (int) dataOffset));
+            recording.setTrailer(read(channel, dataOffset + pcmBytes, (int) (channel.size() - dataOffset - pcmBytes)));
+            for (int i = 0; i + 1 < bounds.size(); i++) {
+                long from = bounds.get(i);
+                long to = bounds.get(i + 1);
+                recording.getSegments().add(new SegmentedRecording.Segment(String.format("seg_%05d.wav", i),
+                        from, to - from, from * 1000 / header.getByteRate(), (to - from) * 1000 / header.getByteRate()));
+            }
+
+            forEachSegment(recording, (segment, path) -> {
+                writeSegment(channel, header, dataOffset + segment.getPcmOffset(), segment.getPcmBytes(), path);
+                return null;
+            });
+            return recording;
+        } catch (IOException | RuntimeException e) {
+            deleteDirectory(directory);
+            throw e;
+        }
+    }
+
+    private static Path directoryFor(Path wav) {
+        return wav.toAbsolutePath().resolveSibling(wav.getFileName().toString().replaceFirst("\\.wav$", ""));
+    }
+
+    private static void writeSegment(FileChannel source, WavHeader header, long from, long length, Path out)
+            throws IOException {
+        try (FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer wavHeader = WavHeader.canonical(header.getSampleRate(), header.getChannels(),
+                    header.getBitsPerSample(), length);
+            while (wavHeader.hasRemaining()) {
+                dst.write(wavHeader);
+            }
+            long copied = 0;
+            while (copied < length) {
+                long n = source.transferTo(from + copied, length - copied, dst);
+                if (n <= 0) {
+                    throw new IOException("구간 복사 실패: " + out);
+                }
+                copied += n;
+            }
+            dst.force(false);
+        }
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(Math.max(0, length));
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("파일이 예상보다 짧습니다");
+            }
+        }
+        return buf.array();
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package com.ibkpoc.amn.service;
+
+// service/RecordingState.java
+// 녹음 업로드 생명주기: RECEIVING -> FINALIZING -> DONE | ABORTED
+public enum RecordingState {
+    RECEIVING,   // 청크 수신 중
+    FINALIZING,  // 마무리 중 (새 청크 거절)
+    DONE,        // 파일 완성 및 DB 반영 완료
+    ABORTED      // 타임아웃/종료로 미완성 폐기
+}
@@ -0,0 +1,127 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.storage.RecordingStorage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// service/RecordingStorageService.java
+// 로컬 작업 디렉터리의 구간 저장 녹음과 보관 저장소(RecordingStorage) 사이를 옮긴다
+// - publish: 압축 보관까지 끝난 녹음을 올리고 wavSrc를 저장소 위치로 바꾼 뒤 로컬 사본을 지움 (manifest는 구간이 다 올라간 뒤 마지막에)
+// - fetch: STT 재요청 등 로컬 파일이 필요할 때 같은 상대 경로로 내려받음
+// - open: 내려받지 않고 Range 읽기로 원본 WAV 스트림을 만듦 (재생/다운로드)
+// 로컬 저장소면 publish/fetch는 아무것도 하지 않는다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordingStorageService {
+    private final RecordingStorage recordingStorage;
+    private final RecordingLayout recordingLayout;
+    private final RecordingCatalog recordingCatalog;
+    private final MeetingRepository meetingRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 로컬 구간 저장 녹음을 저장소로 올리고 wavSrc를 저장소 위치로 바꾼다.
+     */
+    public void publish(Long meetingId, SegmentedRecording recording) throws IOException {
+        if (recordingStorage.isLocal()) {
+            return;
+        }
+        long started = System.nanoTime();
+        String prefix = recordingLayout.relativize(recording.getDirectory());
+        Map<String, Path> objects = new LinkedHashMap<>();
+        List<RecordingCatalog.FileEntry> files = new ArrayList<>();
+        for (SegmentedRecording.Segment segment : recording.getSegments()) {
+            Path path = recording.pathOf(segment);
+            objects.put(prefix + "/" + segment.getFile(), path);
+            files.add(new RecordingCatalog.FileEntry(prefix + "/" + segment.getFile(), Files.size(path)));
+        }
+        recordingStorage.putAll(objects);
+        String manifestKey = prefix + "/" + SegmentedRecording.MANIFEST;
+        recordingStorage.put(manifestKey, recording.getManifestPath());
+        files.add(new RecordingCatalog.FileEntry(manifestKey, Files.size(recording.getManifestPath())));
+
+        // 올리는 동안 바뀌었을 수 있는 다른 필드를 덮지 않도록 다시 읽어서 wavSrc만 바꿈
+        Meeting meeting = meetingRepository.findById(meetingId)
+                .orElseThrow(() -> new IOException("회의를 찾을 수 없습니다: meetingId=" + meetingId));
+        String location = recordingStorage.locationOf(manifestKey);
+        meeting.setWavSrc(location);
+        meetingRepository.save(meeting);
+        recordingCatalog.update(meetingId, location, meeting.getWavDigest(), files);
+        deleteDirectory(recording.getDirectory());
+
+        log.info("녹음 저장소 업로드 완료: meetingId={}, 위치={}, 객체 수={}, 소요={}ms", meetingId, location,
+                files.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 저장소의 구간 저장 녹음을 로컬 작업 디렉터리(같은 상대 경로)로 내려받아 manifest 경로를 반환한다.
+     * 이미 내려받았으면 그대로 쓴다. manifest는 구간을 다 받은 뒤 마지막에 제자리로 옮긴다.
+     */
+    public Path fetch(String location) throws IOException {
+        String manifestKey = recordingStorage.keyOf(location);
+        Path manifest = recordingLayout.resolve(manifestKey);
+        if (Files.exists(manifest)) {
+            return manifest;
+        }
+        Files.createDirectories(manifest.getParent());
+        Path temp = manifest.resolveSibling(SegmentedRecording.MANIFEST + ".tmp");
+        recordingStorage.download(location, temp);
+        SegmentedRecording recording = SegmentedRecording.load(objectMapper, temp);
+        String prefix = manifestKey.substring(0, manifestKey.length() - SegmentedRecording.MANIFEST.length());
+        for (SegmentedRecording.Segment segment : recording.getSegments()) {
+            Path target = recording.pathOf(segment);
+            if (!Files.exists(target)) {
+                recordingStorage.download(recordingStorage.locationOf(prefix + segment.getFile()), target);
+            }
+        }
+        Files.move(temp, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("녹음 저장소에서 내려받음: {} -> {}", location, manifest.getParent());
+        return manifest;
+    }
+
+    /**
+     * 저장소의 구간 저장 녹음을 manifest만 받아 열고, 구간은 읽을 때 Range 읽기로 가져온다.
+     */
+    public SegmentedRecording open(String location) throws IOException {
+        SegmentedRecording recording;
+        try (SeekableByteChannel channel = recordingStorage.open(location);
+             InputStream in = Channels.newInputStream(channel)) {
+            recording = objectMapper.readValue(in, SegmentedRecording.class);
+        }
+        String manifestKey = recordingStorage.keyOf(location);
+        String prefix = manifestKey.substring(0, manifestKey.length() - SegmentedRecording.MANIFEST.length());
+        recording.setOpener(segment -> recordingStorage.open(recordingStorage.locationOf(prefix + segment.getFile())));
+        return recording;
+    }
+
+    public boolean isLocal() {
+        return recordingStorage.isLocal();
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+}
@@ -0,0 +1,199 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.audio.LosslessArchive;
+import com.ibkpoc.amn.audio.WavHeader;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// service/SegmentedRecording.java
+// 시간 구간으로 나눠 저장한 녹음의 manifest (녹음 디렉터리/manifest.json)
+// 구간 파일은 각각 독립된 WAV(또는 그 압축본 .amnl)라 구간별로 병렬 처리할 수 있고,
+// 원본 헤더 + 구간 PCM + 꼬리 바이트를 이으면 나누기 전 WAV와 바이트 단위로 같다
+@Getter
+@Setter
+@NoArgsConstructor
+public class SegmentedRecording {
+    public static final String MANIFEST = "manifest.json";
+
+    private int version = 1;
+    private Long meetingId;
+    private int sampleRate;
+    private int channels;
+    private int bitsPerSample;
+    private byte[] header;      // 원본 WAV 헤더 (data 청크 크기 필드까지)
+    private byte[] trailer;     // 마지막 프레임 뒤 남는 바이트
+    private List<Segment> segments = new ArrayList<>();
+
+    @JsonIgnore
+    private Path directory;
+
+    // 구간 파일을 여는 방법. 없으면 directory의 로컬 파일 (원격 저장소의 녹음은 Range 읽기 채널)
+    @JsonIgnore
+    private SegmentOpener opener;
+
+    @FunctionalInterface
+    public interface SegmentOpener {
+        SeekableByteChannel open(Segment segment) throws IOException;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Segment {
+        private String file;        // 디렉터리 기준 파일 이름 (.wav 또는 .amnl)
+        private long pcmOffset;     // 원본 PCM 시작 기준 위치
+        private long pcmBytes;
+        private long startMs;       // 원본 녹음에서의 시작 시각
+        private long durationMs;
+    }
+
+    public static boolean isManifest(Path path) {
+        return path.getFileName().toString().equals(MANIFEST);
+    }
+
+    public static SegmentedRecording load(ObjectMapper objectMapper, Path manifest) throws IOException {
+        SegmentedRecording recording = objectMapper.readValue(manifest.toFile(), SegmentedRecording.class);
+        recording.directory = manifest.toAbsolutePath().getParent();
+        return recording;
+    }
+
+    /**
+     * manifest를 임시 파일에 쓰고 원자적으로 교체한다.
+     */
+    public void save(ObjectMapper objectMapper) throws IOException {
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        objectMapper.writeValue(temp.toFile(), this);
+        Files.move(temp, getManifestPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @JsonIgnore
+    public Path getManifestPath() {
+        return directory.resolve(MANIFEST);
+    }
+
+    public Path pathOf(Segment segment) {
+        return directory.resolve(segment.getFile());
+    }
+
+    @JsonIgnore
+    public long getWavLength() {
+        long length = header.length + trailer.length;
+        for (Segment segment : segments) {
+            length += segment.getPcmBytes();
+        }
+        return length;
+    }
+
+    /**
+     * 구간들을 이어 원본 WAV 하나로 읽는 스트림. skip은 구간 단위로 건너뛴다.
+     */
+    public InputStream openWav() {
+        return new ConcatenatedStream();
+    }
+
+    // 구간 파일의 PCM을 inner 위치부터 읽는 스트림 (압축본이면 읽으면서 풂)
+    private InputStream openSegmentPcm(Segment segment, long inner) throws IOException {
+        SeekableByteChannel channel = opener != null ? opener.open(segment)
+                : FileChannel.open(pathOf(segment), StandardOpenOption.READ);
+        if (segment.getFile().endsWith(LosslessArchive.SUFFIX)) {
+            InputStream in = LosslessArchive.openWav(channel, segment.getFile());
+            in.skipNBytes(WavHeader.CANONICAL_SIZE + inner);
+            return in;
+        }
+        return Channels.newInputStream(channel.position(WavHeader.CANONICAL_SIZE + inner));
+    }
+
+    private class ConcatenatedStream extends InputStream {
+        private final long length = getWavLength();
+        private long position;
+        private InputStream current;
+        private long currentEnd;    // current가 담당하는 논리 구간의 끝
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= length) {
+                return -1;
+            }
+            if (current == null) {
+                open(position);
+            }
+            int n = current.read(b, off, (int) Math.min(len, currentEnd - position));
+            if (n < 0) {
+                throw new IOException("구간 파일이 manifest보다 짧습니다: position=" + position);
+            }
+            position += n;
+            if (position >= currentEnd) {
+                closeCurrent();
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            if (skipped > 0) {
+                closeCurrent();
+                position += skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closeCurrent();
+        }
+
+        private void open(long at) throws IOException {
+            if (at < header.length) {
+                current = new ByteArrayInputStream(header, (int) at, header.length - (int) at);
+                currentEnd = header.length;
+                return;
+            }
+            long start = header.length;
+            for (Segment segment : segments) {
+                if (at < start + segment.getPcmBytes()) {
+                    current = openSegmentPcm(segment, at - start);
+                    currentEnd = start + segment.getPcmBytes();
+                    return;
+                }
+                start += segment.getPcmBytes();
+            }
+            current = new ByteArrayInputStream(trailer, (int) (at - start), trailer.length - (int) (at - start));
+            currentEnd = length;
+        }
+
+        private void closeCurrent() throws IOException {
+            if (current != null) {
+                current.close();
+                current = null;
+            }
+        }
+    }
+}
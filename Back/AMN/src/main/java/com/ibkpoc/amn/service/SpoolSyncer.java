@@ -0,0 +1,72 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// service/SpoolSyncer.java
+// 여러 청크의 fsync를 주기마다 한 번으로 묶는 그룹 커밋
+@Slf4j
+public class SpoolSyncer {
+
+    public interface Target {
+        void sync() throws IOException;
+    }
+
+    private final Set<Target> dirty = ConcurrentHashMap.newKeySet();
+    private volatile CompletableFuture<Void> nextBatch = new CompletableFuture<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("recording-fsync-%d").setDaemon(true).build());
+
+    public SpoolSyncer(long intervalMs) {
+        flusher.scheduleWithFixedDelay(this::flush, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대상의 쓰기가 끝난 뒤 호출한다. 반환된 future는 그 쓰기가 디스크에 반영된 뒤 완료된다.
+     */
+    public CompletableFuture<Void> requestSync(Target target) {
+        dirty.add(target);
+        // dirty 등록 후 배치를 가져오므로, 이 배치를 교체한 flush는 반드시 이 대상을 포함한다
+        return nextBatch;
+    }
+
+    public void flush() {
+        CompletableFuture<Void> batch = nextBatch;
+        nextBatch = new CompletableFuture<>();
+
+        IOException failure = null;
+        for (Iterator<Target> it = dirty.iterator(); it.hasNext(); ) {
+            Target target = it.next();
+            // sync 전에 제거해야 그 사이 다시 등록된 쓰기가 다음 배치에 남는다
+            it.remove();
+            try {
+                target.sync();
+            } catch (ClosedChannelException e) {
+                // 이미 마무리되어 닫힌 녹음 (닫기 전에 force 됨)
+            } catch (IOException e) {
+                log.error("녹음 스풀 fsync 실패", e);
+                failure = e;
+            }
+        }
+        if (failure == null) {
+            batch.complete(null);
+        } else {
+            batch.completeExceptionally(failure);
+        }
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+}
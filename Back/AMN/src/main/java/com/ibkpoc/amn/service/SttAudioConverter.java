@@ -0,0 +1,199 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.audio.OffsetMap;
+import com.ibkpoc.amn.audio.PolyphaseResampler;
+import com.ibkpoc.amn.audio.VoiceActivityDetector;
+import com.ibkpoc.amn.audio.WavHeader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// service/SttAudioConverter.java
+// STT로 보낼 오디오를 만든다. 원본 녹음은 재생용으로 그대로 둔다.
+// 1) 긴 무음 제거(VAD) 2) STT 모델 샘플레이트(기본 16kHz)로 변환
+// 무음을 제거한 파일 옆에는 원본 시각 대응표(.map.json)를 함께 둔다 (STT 응답에 타임스탬프가 없어 지금은 서버에 보내지 않고 보관만 함)
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SttAudioConverter {
+    private static final int READ_BYTES = 1 << 20;
+    private static final String MAP_SUFFIX = ".map.json";
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.stt.sample-rate:16000}")
+    private int targetRate;
+
+    @Value("${app.stt.vad.enabled:true}")
+    private boolean vadEnabled;
+
+    // 이 길이 이상 이어지는 무음만 제거하고, 제거 구간 앞뒤로 padding만큼은 남김
+    @Value("${app.stt.vad.min-silence-ms:1000}")
+    private int vadMinSilenceMs;
+
+    @Value("${app.stt.vad.padding-ms:200}")
+    private int vadPaddingMs;
+
+    // 프레임 RMS가 잡음 바닥(하위 10%)의 threshold-factor배, 최소 min-threshold를 넘으면 음성
+    @Value("${app.stt.vad.threshold-factor:3.0}")
+    private double vadThresholdFactor;
+
+    @Value("${app.stt.vad.min-threshold:200}")
+    private double vadMinThreshold;
+
+    public Path prepare(Path source) throws IOException {
+        return prepare(source, 0);
+    }
+
+    /**
+     * WAV 파일의 STT용 파생 파일(이름_stt.wav)을 만들어 경로를 반환한다. 이미 있으면 그대로 사용한다.
+     * 변환할 것이 없는 형식이면 원본 경로를 반환한다.
+     * originMs는 이 파일이 전체 녹음에서 시작하는 시각이다 (구간 파일이면 구간 시작, 대응표에 반영).
+     */
+    public Path prepare(Path source, long originMs) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            WavHeader header = WavHeader.read(in);
+            if (!needsResample(header) && !canDetectVoice(header)) {
+                return source;
+            }
+            String name = source.getFileName().toString().replaceFirst("\\.wav$", "");
+            Path target = source.resolveSibling(name + "_stt.wav");
+            if (Files.exists(target) && Files.getLastModifiedTime(target).compareTo(Files.getLastModifiedTime(source)) >= 0) {
+                return target;
+            }
+
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            OffsetMap map = write(in, header, header.getDataOffset(), in.size(), temp);
+            writeOffsetMap(target, map.shifted(originMs));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        }
+    }
+
+    /**
+     * 원본 채널의 [start, end) PCM을 STT용 WAV 파일로 기록하고 원본 시각 대응표를 반환한다.
+     */
+    public OffsetMap write(FileChannel source, WavHeader header, long start, long end, Path out) throws IOException {
+        long startNanos = System.nanoTime();
+        List<long[]> regions = canDetectVoice(header) ? detectSpeech(source, header, start, end) : List.of();
+        if (regions.isEmpty()) {
+            // VAD를 쓰지 않거나 음성을 못 찾으면(임계값 오판 가능) 구간 전체를 보냄
+            regions = List.of(new long[]{0, end - start});
+        }
+        long baseMs = (start - header.getDataOffset()) * 1000 / header.getByteRate();
+        OffsetMap map = OffsetMap.of(regions, header.getByteRate(), baseMs);
+
+        boolean resample = needsResample(header);
+        try (FileChannel dst = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(dst, WavHeader.canonical(resample ? targetRate : header.getSampleRate(),
+                    header.getChannels(), header.getBitsPerSample(), 0));
+            if (resample) {
+                PolyphaseResampler resampler = new PolyphaseResampler(header.getSampleRate(), targetRate);
+                ByteBuffer inBuf = ByteBuffer.allocateDirect(READ_BYTES);
+                ByteBuffer outBuf = ByteBuffer.allocateDirect(resampler.maxOutputBytes(READ_BYTES) + 4096);
+                for (long[] region : regions) {
+                    resample(source, start + region[0], start + region[1], resampler, inBuf, outBuf, dst);
+                }
+                resampler.flush(outBuf);
+                writeFully(dst, outBuf.flip());
+            } else {
+                for (long[] region : regions) {
+                    copy(source, start + region[0], start + region[1], dst);
+                }
+            }
+            WavHeader.read(dst).fixSizes(dst, dst.size());
+        }
+
+        long kept = regions.stream().mapToLong(r -> r[1] - r[0]).sum();
+        log.info("STT용 오디오 생성: file={}, 음성 비율={}%, 구간 수={}, 소요={}ms", out.getFileName(),
+                (end - start) == 0 ? 100 : kept * 100 / (end - start), regions.size(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+        return map;
+    }
+
+    /**
+     * STT 파일의 원본 시각 대응표 경로 (없으면 무음 제거 없이 원본과 시각이 같음).
+     */
+    public Path offsetMapPath(Path sttFile) {
+        return sttFile.resolveSibling(sttFile.getFileName() + MAP_SUFFIX);
+    }
+
+    public void writeOffsetMap(Path sttFile, OffsetMap map) throws IOException {
+        objectMapper.writeValue(offsetMapPath(sttFile).toFile(), map);
+    }
+
+    // 1차: 구간 전체 프레임 에너지만 모아 남길 구간을 정함
+    private List<long[]> detectSpeech(FileChannel source, WavHeader header, long start, long end) throws IOException {
+        VoiceActivityDetector vad = new VoiceActivityDetector(header, vadMinSilenceMs, vadPaddingMs,
+                vadThresholdFactor, vadMinThreshold);
+        ByteBuffer buf = ByteBuffer.allocateDirect(READ_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        long position = start;
+        while (position < end) {
+            buf.clear().limit((int) Math.min(READ_BYTES, end - position));
+            int n = source.read(buf, position);
+            if (n <= 0) {
+                break;
+            }
+            position += n;
+            vad.feed(buf.flip());
+        }
+        return vad.speechRegions();
+    }
+
+    private void resample(FileChannel source, long from, long to, PolyphaseResampler resampler,
+                          ByteBuffer inBuf, ByteBuffer outBuf, FileChannel dst) throws IOException {
+        long position = from;
+        while (position < to) {
+            inBuf.clear().limit((int) Math.min(READ_BYTES, to - position));
+            int n = source.read(inBuf, position);
+            if (n <= 0) {
+                break;
+            }
+            position += n;
+            resampler.process(inBuf.flip(), outBuf);
+            // 홀수 바이트로 끝난 샘플 조각은 다음 읽기로 넘김
+            position -= inBuf.remaining();
+            writeFully(dst, outBuf.flip());
+            outBuf.clear();
+        }
+    }
+
+    private static void copy(FileChannel source, long from, long to, FileChannel dst) throws IOException {
+        long copied = 0;
+        while (copied < to - from) {
+            long n = source.transferTo(from + copied, to - from - copied, dst);
+            if (n <= 0) {
+                throw new IOException("PCM 복사 실패");
+            }
+            copied += n;
+        }
+    }
+
+    // 16비트 모노만 변환 (앱 녹음 형식), 그 외는 원본 그대로 전송
+    private boolean needsResample(WavHeader header) {
+        return header.getSampleRate() != targetRate && header.getChannels() == 1 && header.getBitsPerSample() == 16;
+    }
+
+    private boolean canDetectVoice(WavHeader header) {
+        return vadEnabled && header.getBitsPerSample() == 16;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ibkpoc.amn.service;
+
+import java.util.function.LongSupplier;
+
+// service/SttCircuitBreaker.java
+// STT 서버 호출 차단기. 연속 실패가 failure-threshold에 닿으면 open-ms 동안 호출 없이 바로 실패시키고,
+// 그 뒤 한 건만 시험 호출(HALF_OPEN)해서 성공하면 닫고 실패하면 다시 연다
+public class SttCircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public SttCircuitBreaker(int failureThreshold, long openMs) {
+        this(failureThreshold, openMs, System::currentTimeMillis);
+    }
+
+    SttCircuitBreaker(int failureThreshold, long openMs, LongSupplier clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+        this.clock = clock;
+    }
+
+    /**
+     * 호출해도 되면 true. HALF_OPEN에서는 시험 호출 한 건만 통과시킨다.
+     * true를 받은 호출은 끝나면 반드시 onSuccess/onFailure/onIgnored 중 하나를 부른다.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openMs) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        failures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    public synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            failures = 0;
+        }
+    }
+
+    // 서버 상태와 무관한 실패(요청 오류, 호출 취소): 시험 호출 자리만 돌려줌
+    public synchronized void onIgnored() {
+        trialInFlight = false;
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openMs) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+}
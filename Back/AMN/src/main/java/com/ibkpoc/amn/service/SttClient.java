@@ -0,0 +1,344 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// service/SttClient.java
+// 파이썬 STT 서버 호출 (결과는 STT 서버가 DB에 직접 저장)
+// HttpClient 하나를 재사용해 연결을 유지하고, 호출마다 request-timeout-ms 기한을 둔다
+// 동시 호출은 max-concurrent로 제한(bulkhead-wait-ms 안에 자리가 안 나면 거절)하고,
+// 호출할 STT 서버는 SttEndpointPool이 고른다 (서버마다 연속 실패가 쌓이면 차단, 모두 차단이면 요청 없이 바로 실패)
+// 헤지를 켜면 구간 호출이 최근 p95 응답 시간을 넘길 때 다른 서버로 한 번 더 보내 먼저 끝난 결과를 쓴다 (SttHedgePolicy 예산 안에서)
+@Slf4j
+@Component
+public class SttClient {
+    private final SttEndpointPool endpointPool;
+    private final Duration requestTimeout;
+    private final long bulkheadWaitMs;
+    private final int maxConcurrent;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Semaphore bulkhead;
+    private final boolean hedgeEnabled;
+    private final SttHedgePolicy hedgePolicy;
+
+    private final Timer successTimer;
+    private final Timer errorTimer;
+    private final Timer timeoutTimer;
+    private final Counter circuitRejections;
+    private final Counter bulkheadRejections;
+    private final Counter hedgesSent;
+    private final Counter hedgeWins;
+    private final Counter hedgeSkipped;
+
+    public SttClient(
+            SttEndpointPool endpointPool,
+            @Value("${app.stt.client.http-version:HTTP_1_1}") HttpClient.Version httpVersion,
+            @Value("${app.stt.client.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${app.stt.client.request-timeout-ms:900000}") long requestTimeoutMs,
+            @Value("${app.stt.client.max-concurrent:8}") int maxConcurrent,
+            @Value("${app.stt.client.bulkhead-wait-ms:30000}") long bulkheadWaitMs,
+            @Value("${app.stt.hedge.enabled:false}") boolean hedgeEnabled,
+            @Value("${app.stt.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${app.stt.hedge.window:200}") int hedgeWindow,
+            @Value("${app.stt.hedge.min-samples:20}") int hedgeMinSamples,
+            @Value("${app.stt.hedge.min-delay-ms:1000}") long hedgeMinDelayMs,
+            @Value("${app.stt.hedge.budget-percent:10}") double hedgeBudgetPercent,
+            @Value("${app.stt.hedge.burst:5}") int hedgeBurst,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.endpointPool = endpointPool;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.bulkheadWaitMs = bulkheadWaitMs;
+        this.maxConcurrent = maxConcurrent;
+        this.objectMapper = objectMapper;
+        // HTTP_2는 h2c를 지원하는 서버에서만 이득, 아니면 HTTP/1.1로 내려와 keep-alive 연결을 재사용
+        this.httpClient = HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.bulkhead = new Semaphore(maxConcurrent, true);
+        this.hedgeEnabled = hedgeEnabled;
+        this.hedgePolicy = new SttHedgePolicy(hedgePercentile, hedgeWindow, hedgeMinSamples, hedgeMinDelayMs,
+                hedgeBudgetPercent, hedgeBurst);
+
+        this.successTimer = requestTimer("success", meterRegistry);
+        this.errorTimer = requestTimer("error", meterRegistry);
+        this.timeoutTimer = requestTimer("timeout", meterRegistry);
+        this.circuitRejections = Counter.builder("stt.rejected").tag("reason", "circuit").register(meterRegistry);
+        this.bulkheadRejections = Counter.builder("stt.rejected").tag("reason", "bulkhead").register(meterRegistry);
+        this.hedgesSent = Counter.builder("stt.hedge").tag("result", "sent").register(meterRegistry);
+        this.hedgeWins = Counter.builder("stt.hedge").tag("result", "won").register(meterRegistry);
+        this.hedgeSkipped = Counter.builder("stt.hedge").tag("result", "skipped").register(meterRegistry);
+        Gauge.builder("stt.inflight", () -> this.maxConcurrent - bulkhead.availablePermits())
+                .description("처리 중인 STT 요청 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 파일 하나의 STT를 요청한다. STT 서버 요청 형식은 {file_name, participant}뿐이다.
+     * 모든 STT 서버가 차단됐거나 동시 요청 자리가 나지 않으면 요청 없이 SttUnavailableException을 던진다.
+     */
+    public String transcribe(String fileName, Integer participants) {
+        return transcribe(fileName, participants, false);
+    }
+
+    /**
+     * hedge가 true면 구간 호출로 보고 응답 시간을 헤지 기준에 반영하며, 헤지를 켰으면 지연될 때 다른 서버로 한 번 더 보낸다.
+     * 비슷한 길이의 구간끼리만 지연 분포를 비교할 수 있으므로 전체 파일 호출은 false로 부른다.
+     */
+    public String transcribe(String fileName, Integer participants, boolean hedge) {
+        // 파이썬 코드의 data 파라미터 구조에 맞춤
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("file_name", fileName);
+        body.put("participant", participants);
+        String requestJson;
+        try {
+            requestJson = objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("STT 요청 생성 실패", e);
+        }
+
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("STT 요청 대기 중 중단", e);
+        }
+        if (!acquired) {
+            bulkheadRejections.increment();
+            throw new SttUnavailableException(SttUnavailableException.Reason.BULKHEAD_FULL,
+                    "STT 동시 요청 한도 초과: " + maxConcurrent);
+        }
+        try {
+            // 자리를 얻은 뒤에 서버를 골라야 그 시점의 처리 중 요청 수로 고름
+            SttEndpointPool.Lease lease;
+            try {
+                lease = endpointPool.acquire(null);
+            } catch (SttUnavailableException e) {
+                circuitRejections.increment();
+                throw e;
+            }
+            try (lease) {
+                long started = System.nanoTime();
+                CompletableFuture<String> primary = sendAsync(lease, requestJson);
+                String result;
+                if (hedge && hedgeEnabled) {
+                    hedgePolicy.onRequest();
+                    result = awaitHedged(lease, primary, requestJson);
+                } else {
+                    result = await(primary);
+                }
+                if (hedge) {
+                    hedgePolicy.record((System.nanoTime() - started) / 1_000_000);
+                }
+                return result;
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    // 기본 호출이 기준 시간 안에 안 끝나면 다른 서버로 한 번 더 보내고, 먼저 성공한 쪽을 쓰고 나머지는 취소
+    private String awaitHedged(SttEndpointPool.Lease primaryLease, CompletableFuture<String> primary,
+                               String requestJson) {
+        long delayMs = hedgePolicy.delayMs();
+        if (delayMs < 0) {
+            return await(primary);
+        }
+        try {
+            return primary.get(delayMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 아래에서 헤지
+        } catch (InterruptedException e) {
+            primary.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("STT API 호출 중단", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+
+        // 헤지도 동시 요청 한도 안에서만 (기다리지 않음), 같은 서버는 제외
+        if (!bulkhead.tryAcquire()) {
+            hedgeSkipped.increment();
+            return await(primary);
+        }
+        try {
+            SttEndpointPool.Lease backupLease;
+            try {
+                backupLease = endpointPool.acquire(primaryLease.getEndpoint());
+            } catch (SttUnavailableException e) {
+                hedgeSkipped.increment();
+                return await(primary);
+            }
+            try (backupLease) {
+                if (!hedgePolicy.tryHedge()) {
+                    hedgeSkipped.increment();
+                    return await(primary);
+                }
+                hedgesSent.increment();
+                log.info("STT 헤지 요청: {}ms 지연, {} -> {}", delayMs, primaryLease.getEndpoint(),
+                        backupLease.getEndpoint());
+                CompletableFuture<String> backup = sendAsync(backupLease, requestJson);
+                try {
+                    return await(firstSuccessful(primary, backup));
+                } finally {
+                    // 진 쪽 호출을 끊음 (이미 끝났으면 아무 일 없음)
+                    primary.cancel(true);
+                    backup.cancel(true);
+                }
+            }
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private CompletableFuture<String> firstSuccessful(CompletableFuture<String> primary,
+                                                      CompletableFuture<String> backup) {
+        CompletableFuture<String> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        // 둘 다 실패하면 나중 실패로 끝냄
+        Consumer<Throwable> onFailure = error -> {
+            if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(error);
+            }
+        };
+        primary.whenComplete((result, error) -> {
+            if (error == null) {
+                winner.complete(result);
+            } else {
+                onFailure.accept(error);
+            }
+        });
+        backup.whenComplete((result, error) -> {
+            if (error == null) {
+                if (winner.complete(result)) {
+                    hedgeWins.increment();
+                }
+            } else {
+                onFailure.accept(error);
+            }
+        });
+        return winner;
+    }
+
+    private String await(CompletableFuture<String> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("STT API 호출 중단", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof RuntimeException runtime ? runtime : new IllegalStateException(error);
+    }
+
+    // 결과 Future를 취소하면 HTTP 교환도 끊고 서버 할당을 결과 없이 돌려줌
+    private CompletableFuture<String> sendAsync(SttEndpointPool.Lease lease, String requestJson) {
+        URI apiUrl = lease.getEndpoint().getUri();
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(apiUrl)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(requestJson))
+                .build();
+
+        log.info("STT API 호출 시작: {}, 요청 데이터: {}", apiUrl, requestJson);
+        long started = System.nanoTime();
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<String> result = new CompletableFuture<>();
+        exchange.whenComplete((response, error) -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(complete(lease, apiUrl, started, response, error));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                lease.ignore();
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private String complete(SttEndpointPool.Lease lease, URI apiUrl, long started,
+                            HttpResponse<String> response, Throwable error) {
+        long elapsed = System.nanoTime() - started;
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof HttpTimeoutException) {
+                lease.failure();
+                timeoutTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                log.error("STT API 호출 시간 초과: {}, {}", apiUrl, cause.getMessage());
+                throw new IllegalStateException("STT API 시간 초과", cause);
+            }
+            lease.failure();
+            errorTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.error("STT API 호출 중 예외 발생: {}, {}", apiUrl, cause.getMessage(), cause);
+            throw new IllegalStateException("STT API 처리 실패", cause);
+        }
+        if (response.statusCode() == 200) {
+            lease.success(elapsed);
+            successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("STT API 호출 성공: 소요={}ms, 응답={}", elapsed / 1_000_000, response.body());
+            return response.body();
+        }
+        // 5xx만 서버 이상으로 보고 차단기에 반영 (4xx는 요청 문제)
+        if (response.statusCode() >= 500) {
+            lease.failure();
+        } else {
+            lease.ignore();
+        }
+        errorTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.error("STT API 호출 실패: {}, 상태 코드={}", apiUrl, response.statusCode());
+        throw new IllegalStateException("STT API 호출 실패: 상태 코드=" + response.statusCode());
+    }
+
+    private static Timer requestTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("stt.request")
+                .description("STT 서버 호출 소요 시간")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+}
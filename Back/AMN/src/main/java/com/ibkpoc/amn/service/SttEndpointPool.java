@@ -0,0 +1,362 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// service/SttEndpointPool.java
+// STT 서버 여러 대 중 호출할 곳을 고른다: 처리 중 요청 수 / 가중치가 가장 작은 곳 (동률이면 무작위)
+// 빼는 조건 (자동으로 다시 넣음):
+// - 연속 실패: 서버마다 차단기(SttCircuitBreaker), open-ms 뒤 시험 호출 한 건이 성공하면 복귀
+// - 헬스 체크: interval-ms마다 health-path GET, 연결 실패/5xx면 빼고 응답이 오면 복귀
+// - 느림: 응답 시간 평균(EWMA)이 다른 서버 중 가장 빠른 곳의 slow-factor배를 넘으면 eject-ms 동안 뺌
+// 모두 빠졌으면(헬스/느림) 차단기만 보고 고른다. 서버 목록은 endpoints-file이 바뀌면 재배포 없이 다시 읽는다
+@Slf4j
+@Component
+public class SttEndpointPool implements DisposableBean {
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final String configuredEndpoints;
+    private final String endpointsFile;
+    private final String healthPath;
+    private final long healthIntervalMs;
+    private final int failureThreshold;
+    private final long openMs;
+    private final double slowFactor;
+    private final long ejectMs;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final HttpClient healthClient;
+    private final Duration healthTimeout;
+
+    private volatile List<Endpoint> endpoints = List.of();
+    private FileTime loadedFileTime;
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("stt-endpoint-check-%d").setDaemon(true).build());
+
+    public SttEndpointPool(
+            @Value("${app.stt.endpoints:}") String configuredEndpoints,
+            @Value("${app.stt.url:http://localhost:8081/run}") String legacyUrl,
+            @Value("${app.stt.endpoints-file:}") String endpointsFile,
+            @Value("${app.stt.health.path:/health}") String healthPath,
+            @Value("${app.stt.health.interval-ms:5000}") long healthIntervalMs,
+            @Value("${app.stt.health.timeout-ms:2000}") long healthTimeoutMs,
+            @Value("${app.stt.client.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${app.stt.client.circuit.open-ms:30000}") long openMs,
+            @Value("${app.stt.balancer.slow-factor:3.0}") double slowFactor,
+            @Value("${app.stt.balancer.eject-ms:60000}") long ejectMs,
+            MeterRegistry meterRegistry) {
+        this(configuredEndpoints.isBlank() ? legacyUrl : configuredEndpoints, endpointsFile, healthPath, healthIntervalMs, healthTimeoutMs, failureThreshold,
+                openMs, slowFactor, ejectMs, meterRegistry, System::currentTimeMillis);
+    }
+
+    SttEndpointPool(String configuredEndpoints, String endpointsFile, String healthPath, long healthIntervalMs,
+                    long healthTimeoutMs, int failureThreshold, long openMs, double slowFactor, long ejectMs,
+                    MeterRegistry meterRegistry, LongSupplier clock) {
+        this.configuredEndpoints = configuredEndpoints;
+        this.endpointsFile = endpointsFile;
+        this.healthPath = healthPath;
+        this.healthIntervalMs = healthIntervalMs;
+        this.failureThreshold = failureThreshold;
+        this.openMs = openMs;
+        this.slowFactor = slowFactor;
+        this.ejectMs = ejectMs;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.healthTimeout = Duration.ofMillis(healthTimeoutMs);
+        this.healthClient = HttpClient.newBuilder().connectTimeout(healthTimeout).build();
+        reload();
+    }
+
+    @Getter
+    public final class Endpoint {
+        private final URI uri;
+        private volatile int weight;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final SttCircuitBreaker breaker;
+        private volatile boolean healthy = true;
+        private volatile long slowUntil;
+        private volatile double latencyMs = Double.NaN;
+        private final List<Meter> meters = new ArrayList<>();
+
+        private Endpoint(URI uri, int weight) {
+            this.uri = uri;
+            this.weight = weight;
+            this.breaker = new SttCircuitBreaker(failureThreshold, openMs, clock);
+        }
+
+        boolean isEjected(long now) {
+            return !healthy || now < slowUntil;
+        }
+
+        @Override
+        public String toString() {
+            return uri.toString();
+        }
+    }
+
+    /**
+     * 호출 한 건의 서버 할당. 끝나면 success/failure/ignore 중 하나를 부른다 (close는 결과 없이 끝난 경우 정리용).
+     */
+    public final class Lease implements AutoCloseable {
+        @Getter
+        private final Endpoint endpoint;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Lease(Endpoint endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        public void success(long elapsedNanos) {
+            if (release()) {
+                endpoint.breaker.onSuccess();
+                recordLatency(endpoint, elapsedNanos / 1_000_000.0);
+            }
+        }
+
+        public void failure() {
+            if (release()) {
+                endpoint.breaker.onFailure();
+                if (endpoint.breaker.getState() == SttCircuitBreaker.State.OPEN) {
+                    log.warn("STT 서버 연속 실패로 제외: {} ({}ms 뒤 시험 호출)", endpoint, openMs);
+                }
+            }
+        }
+
+        public void ignore() {
+            if (release()) {
+                endpoint.breaker.onIgnored();
+            }
+        }
+
+        @Override
+        public void close() {
+            ignore();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                endpoint.outstanding.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (healthIntervalMs > 0) {
+            checker.scheduleWithFixedDelay(this::check, healthIntervalMs, healthIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 처리 중 요청 수 / 가중치가 가장 작은 서버를 할당한다. exclude는 고르지 않을 서버 (없으면 null).
+     * 차단기가 모두 열려 있으면 SttUnavailableException.
+     */
+    public Lease acquire(Endpoint exclude) {
+        long now = clock.getAsLong();
+        List<Endpoint> all = endpoints;
+        List<Endpoint> candidates = new ArrayList<>(all.size());
+        for (Endpoint e : all) {
+            if (e != exclude && !e.isEjected(now)) {
+                candidates.add(e);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // 헬스 체크/느림으로 모두 빠졌으면 그래도 보냄 (전부 끊기는 것보다 나음)
+            for (Endpoint e : all) {
+                if (e != exclude) {
+                    candidates.add(e);
+                }
+            }
+        }
+        // 점수 순으로 차단기가 허락하는 첫 서버 (점수는 한 번 찍어 두고 비교, 동률은 무작위로 섞어 한쪽에 몰리지 않게)
+        List<Candidate> ranked = new ArrayList<>(candidates.size());
+        for (Endpoint e : candidates) {
+            ranked.add(new Candidate(e, (e.outstanding.get() + 1.0) / Math.max(1, e.weight),
+                    ThreadLocalRandom.current().nextInt()));
+        }
+        ranked.sort(Comparator.comparingDouble(Candidate::score).thenComparingInt(Candidate::tieBreak));
+        for (Candidate c : ranked) {
+            if (c.endpoint().breaker.tryAcquire()) {
+                c.endpoint().outstanding.incrementAndGet();
+                return new Lease(c.endpoint());
+            }
+        }
+        throw new SttUnavailableException(SttUnavailableException.Reason.CIRCUIT_OPEN,
+                "사용 가능한 STT 서버 없음 (" + all.size() + "대 모두 차단)");
+    }
+
+    private record Candidate(Endpoint endpoint, double score, int tieBreak) {
+    }
+
+    public List<Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    private void recordLatency(Endpoint endpoint, double ms) {
+        double previous = endpoint.latencyMs;
+        endpoint.latencyMs = Double.isNaN(previous) ? ms : previous + EWMA_ALPHA * (ms - previous);
+
+        // 다른 서버 중 가장 빠른 곳과 비교 (비교 대상이 없으면 판단 안 함)
+        double fastest = Double.NaN;
+        for (Endpoint other : endpoints) {
+            if (other != endpoint && !Double.isNaN(other.latencyMs) && !other.isEjected(clock.getAsLong())) {
+                fastest = Double.isNaN(fastest) ? other.latencyMs : Math.min(fastest, other.latencyMs);
+            }
+        }
+        if (!Double.isNaN(fastest) && endpoint.latencyMs > fastest * slowFactor) {
+            endpoint.slowUntil = clock.getAsLong() + ejectMs;
+            log.warn("STT 서버 응답이 느려 {}ms 동안 제외: {} (평균 {}ms, 가장 빠른 서버 {}ms)", ejectMs, endpoint,
+                    Math.round(endpoint.latencyMs), Math.round(fastest));
+            // 복귀 뒤 예전 평균으로 바로 다시 빠지지 않게 초기화
+            endpoint.latencyMs = Double.NaN;
+        }
+    }
+
+    // 서버 목록 다시 읽기 + 헬스 체크
+    void check() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("STT 서버 목록 다시 읽기 실패: {}", e.getMessage());
+        }
+        if (healthPath == null || healthPath.isBlank()) {
+            return;
+        }
+        for (Endpoint e : endpoints) {
+            boolean up = probe(e);
+            if (up != e.healthy) {
+                log.info("STT 서버 헬스 체크 {}: {}", up ? "복귀" : "실패, 제외", e);
+            }
+            e.healthy = up;
+        }
+    }
+
+    private boolean probe(Endpoint endpoint) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(endpoint.uri.resolve(healthPath))
+                    .timeout(healthTimeout)
+                    .GET()
+                    .build();
+            // 응답이 오면 살아 있음 (헬스 경로가 없는 서버의 404 포함), 5xx는 비정상
+            return healthClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 500;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return endpoint.healthy;
+        }
+    }
+
+    // endpoints-file이 있으면 그 내용, 없으면 app.stt.endpoints. 같은 주소의 서버는 상태를 유지
+    synchronized void reload() {
+        String spec = configuredEndpoints;
+        if (endpointsFile != null && !endpointsFile.isBlank()) {
+            Path file = Paths.get(endpointsFile);
+            try {
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (modified.equals(loadedFileTime)) {
+                    return;
+                }
+                spec = String.join("\n", Files.readAllLines(file));
+                loadedFileTime = modified;
+            } catch (IOException e) {
+                if (!endpoints.isEmpty()) {
+                    return;
+                }
+                log.warn("STT 서버 목록 파일을 읽을 수 없어 app.stt.endpoints 사용: {}", endpointsFile);
+            }
+        } else if (!endpoints.isEmpty()) {
+            return;
+        }
+
+        Map<URI, Integer> parsed = parse(spec);
+        if (parsed.isEmpty()) {
+            log.warn("STT 서버 목록이 비어 있어 기존 목록 유지");
+            return;
+        }
+        Map<URI, Endpoint> current = new LinkedHashMap<>();
+        endpoints.forEach(e -> current.put(e.uri, e));
+        List<Endpoint> next = new ArrayList<>(parsed.size());
+        parsed.forEach((uri, weight) -> {
+            Endpoint e = current.remove(uri);
+            if (e == null) {
+                e = new Endpoint(uri, weight);
+                register(e);
+            }
+            e.weight = weight;
+            next.add(e);
+        });
+        current.values().forEach(e -> e.meters.forEach(meterRegistry::remove));
+        endpoints = List.copyOf(next);
+        log.info("STT 서버 목록: {}", parsed);
+    }
+
+    // "url [weight]"를 쉼표/줄바꿈으로 구분, #부터는 주석
+    static Map<URI, Integer> parse(String spec) {
+        Map<URI, Integer> parsed = new LinkedHashMap<>();
+        if (spec == null) {
+            return parsed;
+        }
+        for (String line : spec.split("\n")) {
+            for (String entry : line.replaceFirst("#.*", "").split(",")) {
+                String[] parts = entry.trim().split("\\s+");
+                if (parts[0].isEmpty()) {
+                    continue;
+                }
+                int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+                if (weight > 0) {
+                    parsed.put(URI.create(parts[0]), weight);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private void register(Endpoint e) {
+        String tag = e.uri.toString();
+        e.meters.add(Gauge.builder("stt.endpoint.outstanding", e.outstanding, AtomicInteger::get)
+                .tag("endpoint", tag).register(meterRegistry));
+        e.meters.add(Gauge.builder("stt.endpoint.available", () -> e.isEjected(clock.getAsLong())
+                        || e.breaker.getState() == SttCircuitBreaker.State.OPEN ? 0 : 1)
+                .tag("endpoint", tag).register(meterRegistry));
+    }
+
+    @Override
+    public void destroy() {
+        checker.shutdownNow();
+    }
+}
@@ -0,0 +1,235 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.dto.SttContentDto;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// service/SttFanoutService.java
+// 회의 녹음의 구간별 STT 파일을 STT 서버에 동시에 보내고(최대 parallelism개), 돌아온 speaker/text 목록을
+// 구간 순서대로 이어(SttTranscriptStitcher) 회의 전체 대화록 파일 하나로 저장한다 (sttSrc)
+// 구간 사이 화자는 응답의 화자 임베딩으로만 맞출 수 있으므로, 꺼져 있거나(enabled=false) 첫 구간 응답에 임베딩이 없으면
+// 전체 파일 한 번으로 보낸다 (구간마다 따로 화자 분리하면 회의 전체의 화자 구분이 사라짐)
+// 구간 하나라도 실패하면 나머지를 취소하고 예외를 던진다 (작업 재시도 때 이미 만든 STT 파일은 재사용)
+// 응답이 대화록 형식이 아니면 이어 붙이지 않고 STT 서버가 저장한 결과를 그대로 둔다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SttFanoutService implements DisposableBean {
+    private final SttClient sttClient;
+    private final SttAudioConverter sttAudioConverter;
+    private final MeetingRepository meetingRepository;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    @Value("${app.stt.fanout.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.stt.fanout.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.stt.stitch.speaker-similarity:0.75}")
+    private double speakerSimilarity;
+
+    @Value("${app.stt.transcript-path:${user.dir}/stt_results}")
+    private String transcriptPath;
+
+    private volatile ExecutorService pool;
+
+    /**
+     * STT 서버에 보낼 파일 하나와 그 파일이 원본 녹음에서 시작하는 위치.
+     */
+    public record SegmentCall(Path sttFile, long offsetMs) {
+    }
+
+    /**
+     * 구간 대신 보낼 전체 파일 호출을 준비한다 (필요할 때만 만듦).
+     */
+    @FunctionalInterface
+    public interface WholeFileCall {
+        SegmentCall prepare() throws IOException;
+    }
+
+    /**
+     * 구간들을 동시에 STT하고 이어 붙인 대화록 경로를 반환한다. 응답을 이어 붙일 수 없으면 empty.
+     */
+    public Optional<Path> transcribe(Long meetingId, Integer participants, List<SegmentCall> calls) {
+        long started = System.nanoTime();
+        List<String> responses = sendAll(calls, participants, calls.size() > 1);
+        log.info("구간 STT 완료: meetingId={}, 구간 수={}, 동시={}, 소요={}ms", meetingId, calls.size(),
+                Math.min(parallelism, calls.size()), (System.nanoTime() - started) / 1_000_000);
+        return stitch(meetingId, participants, responses);
+    }
+
+    /**
+     * 첫 구간만 먼저 보내 응답에 화자 임베딩이 있으면 나머지 구간을 동시에 보내 이어 붙이고,
+     * 없으면(구간 사이 화자를 맞출 수 없음) 구간 결과를 버리고 whole로 전체 파일 한 번을 보낸다.
+     */
+    public Optional<Path> transcribe(Long meetingId, Integer participants, List<SegmentCall> calls, WholeFileCall whole) {
+        if (calls.size() <= 1) {
+            return transcribe(meetingId, participants, calls);
+        }
+        long started = System.nanoTime();
+        String first = send(calls.get(0), participants, true);
+        if (!hasEmbeddings(first)) {
+            log.info("첫 구간 STT 응답에 화자 임베딩이 없어 전체 파일로 요청: meetingId={}", meetingId);
+            SegmentCall call;
+            try {
+                call = whole.prepare();
+            } catch (IOException e) {
+                throw new IllegalStateException("전체 파일 STT 준비 실패: meetingId=" + meetingId, e);
+            }
+            return transcribe(meetingId, participants, List.of(call));
+        }
+        List<String> responses = new ArrayList<>(calls.size());
+        responses.add(first);
+        responses.addAll(sendAll(calls.subList(1, calls.size()), participants, true));
+        log.info("구간 STT 완료: meetingId={}, 구간 수={}, 동시={}, 소요={}ms", meetingId, calls.size(),
+                Math.min(parallelism, calls.size() - 1), (System.nanoTime() - started) / 1_000_000);
+        return stitch(meetingId, participants, responses);
+    }
+
+    /**
+     * 구간 순서대로 놓인 STT 응답을 이어 대화록으로 저장하고 sttSrc로 지정한다. 응답을 이어 붙일 수 없으면 empty.
+     * 업로드 중에 구간별로 보낸 응답(ProgressiveSttService)도 여기서 이어 붙인다.
+     */
+    public Optional<Path> stitch(Long meetingId, Integer participants, List<String> responses) {
+        SttTranscriptStitcher stitcher = new SttTranscriptStitcher(speakerSimilarity, participants);
+        for (int i = 0; i < responses.size(); i++) {
+            Optional<List<SttTranscriptStitcher.Utterance>> utterances = parse(responses.get(i));
+            if (utterances.isEmpty()) {
+                log.warn("STT 응답이 대화록 형식이 아니라 이어 붙이기 생략: meetingId={}, 구간={}", meetingId, i);
+                return Optional.empty();
+            }
+            stitcher.append(utterances.get());
+        }
+        try {
+            Path transcript = write(meetingId, stitcher.getTranscript());
+            Meeting meeting = meetingRepository.findById(meetingId)
+                    .orElseThrow(() -> new IllegalArgumentException("회의 정보를 찾을 수 없습니다: meetingId=" + meetingId));
+            meeting.setSttSrc(transcript.toString());
+            meetingRepository.save(meeting);
+            log.info("대화록 저장: meetingId={}, 발화 수={}, 경로={}", meetingId, stitcher.getTranscript().size(), transcript);
+            return Optional.of(transcript);
+        } catch (IOException e) {
+            throw new IllegalStateException("대화록 저장 실패: meetingId=" + meetingId, e);
+        }
+    }
+
+    // 끝나는 순서대로 받아 하나라도 실패하면 나머지를 중단시킴 (실행 중인 호출은 인터럽트로 끊김)
+    // 전체 파일 호출(구간 저장 이전의 단일 파일 포함)은 구간 호출과 지연 분포가 달라 hedge=false로 헤지 대상에서 뺌
+    private List<String> sendAll(List<SegmentCall> calls, Integer participants, boolean hedge) {
+        CompletionService<String> completion = new ExecutorCompletionService<>(pool());
+        Map<Future<String>, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < calls.size(); i++) {
+            SegmentCall call = calls.get(i);
+            indexes.put(completion.submit(() -> send(call, participants, hedge)), i);
+        }
+        String[] responses = new String[calls.size()];
+        try {
+            for (int done = 0; done < calls.size(); done++) {
+                Future<String> future = completion.take();
+                responses[indexes.get(future)] = future.get();
+            }
+        } catch (ExecutionException e) {
+            indexes.keySet().forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            indexes.keySet().forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("구간 STT 대기 중 중단", e);
+        }
+        return Arrays.asList(responses);
+    }
+
+    private String send(SegmentCall call, Integer participants, boolean hedge) {
+        return sttClient.transcribe(call.sttFile().toAbsolutePath().toString(), participants, hedge);
+    }
+
+    // 화자 임베딩이 붙은 발화가 있는 대화록 응답인지
+    private boolean hasEmbeddings(String body) {
+        return parse(body)
+                .map(utterances -> utterances.stream().anyMatch(u -> u.getEmbedding() != null && u.getEmbedding().length > 0))
+                .orElse(false);
+    }
+
+    // [{speaker, text, embedding?}] 또는 {"result": [...]}
+    private Optional<List<SttTranscriptStitcher.Utterance>> parse(String body) {
+        if (body == null || body.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode root = objectMapper.readTree(body);
+            JsonNode items = root.isArray() ? root : root.path("result");
+            if (!items.isArray()) {
+                return Optional.empty();
+            }
+            List<SttTranscriptStitcher.Utterance> utterances = new ArrayList<>(items.size());
+            for (JsonNode item : items) {
+                if (!item.isObject() || !item.has("text")) {
+                    return Optional.empty();
+                }
+                utterances.add(objectMapper.treeToValue(item, SttTranscriptStitcher.Utterance.class));
+            }
+            return Optional.of(utterances);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    private Path write(Long meetingId, List<SttContentDto> transcript) throws IOException {
+        Path directory = Paths.get(transcriptPath).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        Path target = directory.resolve("meeting_" + meetingId + ".json");
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), transcript);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    // 첫 요청 때 만듦 (STT를 안 돌리는 노드는 스레드를 만들지 않음)
+    private ExecutorService pool() {
+        if (pool == null) {
+            synchronized (this) {
+                if (pool == null) {
+                    pool = Executors.newFixedThreadPool(Math.max(1, parallelism),
+                            new ThreadFactoryBuilder().setNameFormat("stt-fanout-%d").setDaemon(true).build());
+                }
+            }
+        }
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
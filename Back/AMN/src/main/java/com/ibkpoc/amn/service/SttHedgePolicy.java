@@ -0,0 +1,70 @@
+package com.ibkpoc.amn.service;
+
+import java.util.Arrays;
+
+// service/SttHedgePolicy.java
+// 구간 STT 헤지(지연된 호출을 다른 서버로 한 번 더 보냄)를 언제, 얼마나 할지 정한다
+// - 기다릴 시간: 최근 성공한 구간 호출 window건의 percentile 응답 시간 (min-samples건이 쌓이기 전에는 헤지 안 함)
+// - 예산: 요청 한 건마다 budget-percent/100 토큰이 쌓이고 헤지 한 건에 1 토큰을 쓴다 (최대 burst개까지 모아 둠)
+//   쌓인 토큰보다 많이 쓸 수 없으므로 헤지는 전체 요청의 budget-percent%를 넘지 않는다
+public class SttHedgePolicy {
+    // 토큰 1개 = HEDGE_COST 단위 (소수 누적 오차 없이 정수로 셈, 예산 0.01% 단위)
+    private static final long HEDGE_COST = 10_000;
+
+    private final double percentile;
+    private final int minSamples;
+    private final long minDelayMs;
+    private final long tokensPerRequest;
+    private final long maxTokens;
+
+    private final long[] window;
+    private int next;
+    private int size;
+    private long tokens;
+
+    public SttHedgePolicy(double percentile, int windowSize, int minSamples, long minDelayMs,
+                          double budgetPercent, int burst) {
+        this.percentile = percentile;
+        this.window = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.max(1, Math.min(minSamples, this.window.length));
+        this.minDelayMs = minDelayMs;
+        this.tokensPerRequest = Math.round(budgetPercent * HEDGE_COST / 100);
+        this.maxTokens = Math.max(1, burst) * HEDGE_COST;
+    }
+
+    /**
+     * 성공한 구간 호출의 응답 시간을 기록한다.
+     */
+    public synchronized void record(long elapsedMs) {
+        window[next] = elapsedMs;
+        next = (next + 1) % window.length;
+        size = Math.min(size + 1, window.length);
+    }
+
+    /**
+     * 헤지하기 전 기다릴 시간(ms). 표본이 부족하면 -1 (헤지 안 함).
+     */
+    public synchronized long delayMs() {
+        if (size < minSamples) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(window, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(size - 1, Math.ceil(percentile * size) - 1);
+        return Math.max(minDelayMs, sorted[Math.max(0, index)]);
+    }
+
+    // 요청 한 건마다 예산 적립
+    public synchronized void onRequest() {
+        tokens = Math.min(maxTokens, tokens + tokensPerRequest);
+    }
+
+    // 예산이 있으면 1 토큰을 쓰고 true
+    public synchronized boolean tryHedge() {
+        if (tokens < HEDGE_COST) {
+            return false;
+        }
+        tokens -= HEDGE_COST;
+        return true;
+    }
+}
@@ -0,0 +1,305 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.dto.SttJobResponse;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.entity.SttJob;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.repository.SttJobRepository;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// service/SttJobService.java
+// STT 작업 테이블(ibk_poc_stt_job) 상태 전이. 요청 스레드는 작업을 넣고 바로 반환하고,
+// 실행은 SttJobWorker가 노드마다 몇 개 스레드로 나눠 가져가 처리한다
+// QUEUED -> RUNNING(lockedBy, lockedUntil) -> DONE | FAILED, 실패는 max-attempts까지 backoff 후 다시 QUEUED
+// 실행 노드가 죽으면 lockedUntil이 지난 뒤 다른 노드가 다시 가져간다
+// 회의마다 대기/실행 중인 작업은 하나뿐 (부분 유니크 인덱스, 동시 요청은 먼저 들어간 작업을 돌려받음)
+// 상태 구독(SSE)은 구독 중인 작업만 poll-ms마다 DB에서 읽어 바뀌었을 때 보낸다 (다른 노드가 실행해도 전달됨)
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SttJobService implements DisposableBean {
+    private static final List<String> ACTIVE = List.of(SttJob.QUEUED, SttJob.RUNNING);
+
+    private final SttJobRepository sttJobRepository;
+    private final MeetingRepository meetingRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.stt.job.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.stt.job.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.stt.job.retry-backoff-seconds:30}")
+    private long retryBackoffSeconds;
+
+    @Value("${app.stt.job.poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${app.stt.job.subscribe-timeout-ms:1800000}")
+    private long subscribeTimeoutMs;
+
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, String> lastSent = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService notifier = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("stt-job-notify-%d").setDaemon(true).build());
+
+    @PostConstruct
+    void init() {
+        // ddl-auto로는 부분 인덱스를 만들 수 없어 시작할 때 만듦 (이미 중복된 작업이 있으면 실패하므로 경고만)
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_stt_job_active_meeting"
+                    + " ON ibk_poc_stt_job (meeting_id) WHERE status IN ('QUEUED', 'RUNNING')");
+        } catch (DataAccessException e) {
+            log.warn("STT 작업 중복 방지 인덱스 생성 실패: {}", e.getMessage());
+        }
+        notifier.scheduleWithFixedDelay(this::notifySubscribers, pollMs, pollMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 회의의 STT 작업을 큐에 넣는다. 같은 회의의 작업이 이미 대기/실행 중이면 그 작업을 반환한다.
+     * 유니크 위반 뒤에 다시 조회해야 하므로 트랜잭션 없이 저장소 호출마다 따로 실행한다.
+     */
+    public SttJobResponse submit(Long meetingId) {
+        Meeting meeting = meetingRepository.findById(meetingId)
+                .orElseThrow(() -> new IllegalArgumentException("회의 정보를 찾을 수 없습니다: meetingId=" + meetingId));
+        if (meeting.getWavSrc() == null) {
+            throw new IllegalStateException("WAV 파일 경로가 존재하지 않습니다: meetingId=" + meetingId);
+        }
+        Optional<SttJob> active = sttJobRepository.findFirstByMeetingIdAndStatusInOrderByJobIdDesc(meetingId, ACTIVE);
+        if (active.isPresent()) {
+            log.info("이미 대기/실행 중인 STT 작업 반환: meetingId={}, jobId={}", meetingId, active.get().getJobId());
+            return toResponse(active.get());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        SttJob job = new SttJob();
+        job.setMeetingId(meetingId);
+        job.setStatus(SttJob.QUEUED);
+        job.setAttempts(0);
+        job.setAvailableAt(now);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        try {
+            job = sttJobRepository.save(job);
+        } catch (DataIntegrityViolationException e) {
+            // 확인과 저장 사이에 다른 요청이 먼저 등록함
+            SttJob existing = sttJobRepository.findFirstByMeetingIdAndStatusInOrderByJobIdDesc(meetingId, ACTIVE)
+                    .orElseThrow(() -> e);
+            log.info("동시 요청으로 등록된 STT 작업 반환: meetingId={}, jobId={}", meetingId, existing.getJobId());
+            return toResponse(existing);
+        }
+        log.info("STT 작업 등록: meetingId={}, jobId={}", meetingId, job.getJobId());
+        return toResponse(job);
+    }
+
+    /**
+     * 실행할 작업 하나를 잠그고 RUNNING으로 바꾼다. 시도 횟수를 다 쓴 작업(임대 만료로 돌아온 작업)은 FAILED로 닫고 다음을 본다.
+     */
+    @Transactional
+    public Optional<SttJob> claim(String node) {
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            Optional<SttJob> next = sttJobRepository.lockNext(now);
+            if (next.isEmpty()) {
+                return Optional.empty();
+            }
+            SttJob job = next.get();
+            if (SttJob.RUNNING.equals(job.getStatus())) {
+                log.warn("STT 작업 임대 만료, 다시 가져감: jobId={}, 이전 노드={}", job.getJobId(), job.getLockedBy());
+            }
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(SttJob.FAILED);
+                job.setError(job.getError() != null ? job.getError() : "실행 노드 응답 없음 (최대 시도 초과)");
+                job.setFinishedAt(now);
+                job.setUpdatedAt(now);
+                job.setLockedBy(null);
+                // 다음 lockNext는 네이티브 쿼리라 자동 flush에 기대지 않고 FAILED를 먼저 반영 (안 하면 같은 행이 다시 잡혀 루프가 돎)
+                sttJobRepository.saveAndFlush(job);
+                continue;
+            }
+            job.setStatus(SttJob.RUNNING);
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLockedBy(node);
+            job.setLockedUntil(now.plusSeconds(leaseSeconds));
+            job.setStartedAt(now);
+            job.setUpdatedAt(now);
+            return Optional.of(job);
+        }
+    }
+
+    /**
+     * 실행 중인 작업의 임대를 연장한다. 이미 다른 노드로 넘어갔으면 false.
+     */
+    @Transactional
+    public boolean heartbeat(Long jobId, String node) {
+        LocalDateTime now = LocalDateTime.now();
+        return sttJobRepository.extendLease(jobId, node, now.plusSeconds(leaseSeconds), now) > 0;
+    }
+
+    @Transactional
+    public void complete(Long jobId, String node) {
+        update(jobId, node, job -> {
+            job.setStatus(SttJob.DONE);
+            job.setError(null);
+            job.setFinishedAt(LocalDateTime.now());
+        });
+    }
+
+    /**
+     * 실패한 작업을 시도 횟수가 남았으면 backoff 뒤 다시 대기시키고, 아니면 FAILED로 닫는다.
+     */
+    @Transactional
+    public void fail(Long jobId, String node, String error) {
+        update(jobId, node, job -> {
+            job.setError(error != null && error.length() > 2000 ? error.substring(0, 2000) : error);
+            if (job.getAttempts() < maxAttempts) {
+                job.setStatus(SttJob.QUEUED);
+                job.setAvailableAt(LocalDateTime.now().plus(
+                        Duration.ofSeconds(retryBackoffSeconds).multipliedBy(1L << (job.getAttempts() - 1))));
+            } else {
+                job.setStatus(SttJob.FAILED);
+                job.setFinishedAt(LocalDateTime.now());
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SttJobResponse> find(Long jobId) {
+        return sttJobRepository.findById(jobId).map(this::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<SttJobResponse> findLatest(Long meetingId) {
+        return sttJobRepository.findFirstByMeetingIdOrderByJobIdDesc(meetingId).map(this::toResponse);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SttJobResponse> findAll(List<Long> jobIds) {
+        return sttJobRepository.findByJobIdIn(jobIds).stream().map(this::toResponse).toList();
+    }
+
+    /**
+     * 작업 상태 변경을 SSE("status" 이벤트)로 받는다. 구독 즉시 현재 상태를 보내고, DONE/FAILED면 스트림을 닫는다.
+     */
+    public SseEmitter subscribe(Long jobId) {
+        SttJobResponse current = find(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("STT 작업을 찾을 수 없습니다: jobId=" + jobId));
+        SseEmitter emitter = new SseEmitter(subscribeTimeoutMs);
+        if (!send(emitter, current)) {
+            return emitter;
+        }
+        if (isFinished(current)) {
+            emitter.complete();
+            return emitter;
+        }
+        subscribers.computeIfAbsent(jobId, k -> new CopyOnWriteArrayList<>()).add(emitter);
+        Runnable remove = () -> unsubscribe(jobId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        return emitter;
+    }
+
+    private void notifySubscribers() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            for (SttJobResponse job : findAll(new ArrayList<>(subscribers.keySet()))) {
+                String state = job.getStatus() + "/" + job.getAttempts();
+                if (state.equals(lastSent.put(job.getJobId(), state))) {
+                    continue;
+                }
+                List<SseEmitter> emitters = subscribers.getOrDefault(job.getJobId(), List.of());
+                for (SseEmitter emitter : emitters) {
+                    if (send(emitter, job) && isFinished(job)) {
+                        emitter.complete();
+                    }
+                }
+                if (isFinished(job)) {
+                    subscribers.remove(job.getJobId());
+                    lastSent.remove(job.getJobId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("STT 작업 상태 알림 실패: {}", e.getMessage());
+        }
+    }
+
+    private void unsubscribe(Long jobId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobId, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static boolean send(SseEmitter emitter, SttJobResponse job) {
+        try {
+            emitter.send(SseEmitter.event().name("status").data(job));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static boolean isFinished(SttJobResponse job) {
+        return SttJob.DONE.equals(job.getStatus()) || SttJob.FAILED.equals(job.getStatus());
+    }
+
+    @Override
+    public void destroy() {
+        notifier.shutdownNow();
+    }
+
+    // 자기 노드가 잡고 있는 작업만 바꿈 (임대가 끝나 다른 노드가 가져갔으면 결과를 버림)
+    private void update(Long jobId, String node, Consumer<SttJob> change) {
+        SttJob job = sttJobRepository.findById(jobId).orElse(null);
+        if (job == null || !SttJob.RUNNING.equals(job.getStatus()) || !node.equals(job.getLockedBy())) {
+            log.warn("다른 노드로 넘어간 STT 작업, 결과 반영 생략: jobId={}, node={}", jobId, node);
+            return;
+        }
+        change.accept(job);
+        job.setLockedBy(null);
+        job.setLockedUntil(null);
+        job.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private SttJobResponse toResponse(SttJob job) {
+        return SttJobResponse.builder()
+                .jobId(job.getJobId())
+                .meetingId(job.getMeetingId())
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.ibkpoc.amn.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.ibkpoc.amn.entity.SttJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// service/SttJobWorker.java
+// 노드마다 workers개 스레드가 STT 작업 테이블에서 작업을 하나씩 가져가(SttJobService.claim) 끝까지 실행한다
+// 실행 중에는 lease-seconds/3마다 임대를 연장하고, 대기 작업이 없으면 poll-ms 쉬었다가 다시 본다
+// 업로드 중에 구간별로 보낸 STT는 processSttRequest가 끝까지 기다리므로 그동안 작업은 RUNNING으로 남는다
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SttJobWorker implements DisposableBean {
+    private final SttJobService sttJobService;
+    private final MeetingService meetingService;
+
+    @Value("${app.stt.job.workers:2}")
+    private int workers;
+
+    @Value("${app.stt.job.poll-ms:1000}")
+    private long pollMs;
+
+    @Value("${app.stt.job.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.stt.job.node-id:}")
+    private String configuredNodeId;
+
+    private String nodeId;
+    private volatile boolean running = true;
+    private ExecutorService pool;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("stt-job-heartbeat-%d").setDaemon(true).build());
+
+    // DB 스키마가 준비된 뒤 시작
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (workers <= 0) {
+            log.info("STT 작업 실행 안 함 (workers=0, 작업 등록만 하는 노드)");
+            return;
+        }
+        // pid@host
+        nodeId = configuredNodeId.isBlank() ? ManagementFactory.getRuntimeMXBean().getName() : configuredNodeId;
+        pool = Executors.newFixedThreadPool(workers,
+                new ThreadFactoryBuilder().setNameFormat("stt-job-%d").setDaemon(true).build());
+        for (int i = 0; i < workers; i++) {
+            pool.execute(this::loop);
+        }
+        log.info("STT 작업 실행 시작: node={}, workers={}", nodeId, workers);
+    }
+
+    private void loop() {
+        while (running) {
+            Optional<SttJob> job;
+            try {
+                job = sttJobService.claim(nodeId);
+            } catch (RuntimeException e) {
+                log.warn("STT 작업 가져오기 실패: {}", e.getMessage());
+                job = Optional.empty();
+            }
+            if (job.isPresent()) {
+                run(job.get());
+                continue;
+            }
+            try {
+                Thread.sleep(pollMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void run(SttJob job) {
+        Long jobId = job.getJobId();
+        long interval = Math.max(1, leaseSeconds * 1000 / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(() -> {
+            try {
+                if (!sttJobService.heartbeat(jobId, nodeId)) {
+                    log.warn("STT 작업 임대를 잃음: jobId={}", jobId);
+                }
+            } catch (RuntimeException e) {
+                log.warn("STT 작업 임대 연장 실패: jobId={}, error={}", jobId, e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+
+        long started = System.nanoTime();
+        log.info("STT 작업 실행: jobId={}, meetingId={}, 시도={}", jobId, job.getMeetingId(), job.getAttempts());
+        try {
+            Optional<Path> transcript = meetingService.processSttRequest(job.getMeetingId());
+            heartbeat.cancel(false);
+            sttJobService.complete(jobId, nodeId);
+            log.info("STT 작업 완료: jobId={}, 대화록={}, 소요={}ms", jobId,
+                    transcript.map(Path::toString).orElse("STT 서버 저장 결과"), (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            heartbeat.cancel(false);
+            log.error("STT 작업 실패: jobId={}, meetingId={}", jobId, job.getMeetingId(), e);
+            try {
+                sttJobService.fail(jobId, nodeId, e.getMessage());
+            } catch (RuntimeException failure) {
+                // 상태를 못 남기면 임대 만료 뒤 다시 실행됨
+                log.error("STT 작업 실패 기록 실패: jobId={}", jobId, failure);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        heartbeats.shutdownNow();
+    }
+}
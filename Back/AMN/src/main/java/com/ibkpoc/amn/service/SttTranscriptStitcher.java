@@ -0,0 +1,237 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.ibkpoc.amn.dto.SttContentDto;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// service/SttTranscriptStitcher.java
+// 구간별 STT 결과(speaker/text 목록)를 구간 순서대로 이어 회의 전체 대화록 하나로 만든다
+// 화자 분리는 구간마다 따로 하므로 같은 사람이 구간마다 다른 라벨을 받을 수 있다
+// 결과에 화자 임베딩(embedding)이 있으면 구간의 화자별 평균 임베딩을 지금까지 나온 화자와 코사인 유사도로
+// 일대일 매칭해 라벨을 맞춘다. 임베딩이 없는 화자는 구간 사이에서 같은 사람인지 알 수 없으므로
+// 구간이 둘 이상이면 라벨을 구간 안으로 한정해 seg<구간 번호>/<라벨>로 남긴다 (구간 하나면 라벨 그대로)
+public class SttTranscriptStitcher {
+    private static final String LABEL_FORMAT = "SPEAKER_%02d";
+    private static final String SCOPED_FORMAT = "seg%d/%s";
+
+    private final double minSimilarity;
+    private final Integer maxSpeakers;
+
+    // 전체 대화록 기준 화자 (라벨, 평균 임베딩, 합친 발화 수)
+    private final List<Speaker> speakers = new ArrayList<>();
+    private final List<Entry> transcript = new ArrayList<>();
+    private int segments;
+
+    /**
+     * @param minSimilarity 같은 화자로 볼 최소 코사인 유사도
+     * @param maxSpeakers   회의 참가자 수 (null이면 제한 없음). 이만큼 화자가 나오면 새 화자를 만들지 않고 가장 비슷한 화자로 합친다
+     */
+    public SttTranscriptStitcher(double minSimilarity, Integer maxSpeakers) {
+        this.minSimilarity = minSimilarity;
+        this.maxSpeakers = maxSpeakers;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Utterance {
+        private String speaker;
+        private String text;
+        private float[] embedding;
+
+        public Utterance(String speaker, String text, float[] embedding) {
+            this.speaker = speaker;
+            this.text = text;
+            this.embedding = embedding;
+        }
+    }
+
+    private static final class Speaker {
+        final String label;
+        final double[] centroid;
+        long weight;
+
+        Speaker(String label, double[] centroid, long weight) {
+            this.label = label;
+            this.centroid = centroid;
+            this.weight = weight;
+        }
+    }
+
+    // 발화 하나. 임베딩으로 맞추지 못한 라벨(scoped)은 그 구간 안에서만 같은 화자
+    private static final class Entry {
+        final String speaker;
+        final int segment;
+        final boolean scoped;
+        String text;
+
+        Entry(String speaker, int segment, boolean scoped, String text) {
+            this.speaker = speaker;
+            this.segment = segment;
+            this.scoped = scoped;
+            this.text = text;
+        }
+
+        boolean sameSpeaker(String speaker, int segment, boolean scoped) {
+            return this.speaker != null && this.speaker.equals(speaker)
+                    && this.scoped == scoped && (!scoped || this.segment == segment);
+        }
+    }
+
+    /**
+     * 다음 구간의 결과를 이어 붙인다. 구간은 녹음 순서대로 넣어야 한다.
+     */
+    public void append(List<Utterance> segment) {
+        int index = segments++;
+        Map<String, String> labels = reconcile(segment);
+        boolean boundary = true;
+        for (Utterance u : segment) {
+            if (u.getText() == null || u.getText().isBlank()) {
+                continue;
+            }
+            boolean scoped = !labels.containsKey(u.getSpeaker());
+            String speaker = scoped ? u.getSpeaker() : labels.get(u.getSpeaker());
+            Entry last = transcript.isEmpty() ? null : transcript.get(transcript.size() - 1);
+            // 구간 경계에서 같은 화자의 말이 이어지면 한 발화로 합침
+            if (boundary && last != null && last.sameSpeaker(speaker, index, scoped)) {
+                last.text = last.text + " " + u.getText().trim();
+            } else {
+                transcript.add(new Entry(speaker, index, scoped, u.getText().trim()));
+            }
+            boundary = false;
+        }
+    }
+
+    public List<SttContentDto> getTranscript() {
+        List<SttContentDto> result = new ArrayList<>(transcript.size());
+        for (Entry e : transcript) {
+            String speaker = e.scoped && segments > 1 && e.speaker != null
+                    ? String.format(SCOPED_FORMAT, e.segment + 1, e.speaker) : e.speaker;
+            result.add(new SttContentDto(speaker, e.text));
+        }
+        return result;
+    }
+
+    // 구간 라벨 -> 전체 라벨. 임베딩이 없는 라벨은 매핑하지 않음
+    private Map<String, String> reconcile(List<Utterance> segment) {
+        Map<String, double[]> sums = new LinkedHashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Utterance u : segment) {
+            if (u.getSpeaker() == null || u.getEmbedding() == null || u.getEmbedding().length == 0) {
+                continue;
+            }
+            double[] sum = sums.computeIfAbsent(u.getSpeaker(), k -> new double[u.getEmbedding().length]);
+            if (sum.length != u.getEmbedding().length) {
+                continue;
+            }
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += u.getEmbedding()[i];
+            }
+            counts.merge(u.getSpeaker(), 1, Integer::sum);
+        }
+
+        // 유사도 높은 쌍부터 일대일로 매칭 (한 구간 안의 서로 다른 화자는 서로 다른 사람)
+        List<double[]> pairs = new ArrayList<>();
+        List<String> locals = new ArrayList<>(sums.keySet());
+        for (int l = 0; l < locals.size(); l++) {
+            for (int g = 0; g < speakers.size(); g++) {
+                double similarity = cosine(sums.get(locals.get(l)), speakers.get(g).centroid);
+                pairs.add(new double[]{similarity, l, g});
+            }
+        }
+        pairs.sort((a, b) -> Double.compare(b[0], a[0]));
+
+        Map<String, String> labels = new HashMap<>();
+        Set<Integer> usedGlobal = new HashSet<>();
+        boolean full = maxSpeakers != null && speakers.size() >= maxSpeakers;
+        for (double[] pair : pairs) {
+            String local = locals.get((int) pair[1]);
+            int g = (int) pair[2];
+            if (labels.containsKey(local) || usedGlobal.contains(g) || (pair[0] < minSimilarity && !full)) {
+                continue;
+            }
+            labels.put(local, merge(speakers.get(g), sums.get(local), counts.get(local)));
+            usedGlobal.add(g);
+        }
+
+        Set<String> taken = new HashSet<>();
+        speakers.forEach(s -> taken.add(s.label));
+        for (String local : locals) {
+            if (labels.containsKey(local)) {
+                continue;
+            }
+            if (maxSpeakers != null && speakers.size() >= maxSpeakers) {
+                // 참가자 수만큼 이미 나왔으면 (일대일 제약을 풀고) 가장 비슷한 화자로
+                Speaker best = null;
+                double bestSimilarity = Double.NEGATIVE_INFINITY;
+                for (Speaker s : speakers) {
+                    double similarity = cosine(sums.get(local), s.centroid);
+                    if (similarity > bestSimilarity) {
+                        best = s;
+                        bestSimilarity = similarity;
+                    }
+                }
+                if (best != null) {
+                    labels.put(local, merge(best, sums.get(local), counts.get(local)));
+                    continue;
+                }
+            }
+            String label = taken.contains(local) ? nextLabel(taken) : local;
+            taken.add(label);
+            double[] centroid = sums.get(local).clone();
+            int count = counts.get(local);
+            for (int i = 0; i < centroid.length; i++) {
+                centroid[i] /= count;
+            }
+            speakers.add(new Speaker(label, centroid, count));
+            labels.put(local, label);
+        }
+        return labels;
+    }
+
+    private static String merge(Speaker speaker, double[] sum, int count) {
+        if (speaker.centroid.length == sum.length) {
+            long total = speaker.weight + count;
+            for (int i = 0; i < sum.length; i++) {
+                speaker.centroid[i] = (speaker.centroid[i] * speaker.weight + sum[i]) / total;
+            }
+            speaker.weight = total;
+        }
+        return speaker.label;
+    }
+
+    private static String nextLabel(Set<String> taken) {
+        for (int i = 0; ; i++) {
+            String label = String.format(LABEL_FORMAT, i);
+            if (!taken.contains(label)) {
+                return label;
+            }
+        }
+    }
+
+    private static double cosine(double[] a, double[] b) {
+        if (a.length != b.length) {
+            return -1;
+        }
+        double dot = 0;
+        double na = 0;
+        double nb = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+            na += a[i] * a[i];
+            nb += b[i] * b[i];
+        }
+        return na == 0 || nb == 0 ? -1 : dot / Math.sqrt(na * nb);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ibkpoc.amn.service;
+
+import lombok.Getter;
+
+// service/SttUnavailableException.java
+// STT 서버에 요청을 보내지 않고 바로 실패시킨 경우 (차단기 열림, 동시 요청 한도 초과)
+@Getter
+public class SttUnavailableException extends RuntimeException {
+    public enum Reason { CIRCUIT_OPEN, BULKHEAD_FULL }
+
+    private final Reason reason;
+
+    public SttUnavailableException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+}
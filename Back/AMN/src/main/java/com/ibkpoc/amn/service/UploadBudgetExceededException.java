@@ -0,0 +1,18 @@
+package com.ibkpoc.amn.service;
+
+import lombok.Getter;
+
+// service/UploadBudgetExceededException.java
+@Getter
+public class UploadBudgetExceededException extends RuntimeException {
+    public enum Scope { NODE, MEETING }
+
+    private final Scope scope;
+    private final long retryAfterSeconds;
+
+    public UploadBudgetExceededException(Scope scope, long retryAfterSeconds, String message) {
+        super(message);
+        this.scope = scope;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,130 @@
+package com.ibkpoc.amn.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// service/UploadBudgetService.java
+// 업로드 중인 청크 바이트를 노드/회의 단위로 제한 (대기열 없이 즉시 거절)
+@Slf4j
+@Service
+public class UploadBudgetService {
+    private final long nodeLimitBytes;
+    private final long meetingLimitBytes;
+    private final long retryAfterSeconds;
+
+    private final AtomicLong nodeInFlight = new AtomicLong();
+    private final Map<Long, Long> meetingInFlight = new ConcurrentHashMap<>();
+    private final Counter nodeRejections;
+    private final Counter meetingRejections;
+
+    public UploadBudgetService(
+            @Value("${app.upload.budget.node-bytes:268435456}") long nodeLimitBytes,
+            @Value("${app.upload.budget.meeting-bytes:33554432}") long meetingLimitBytes,
+            @Value("${app.upload.budget.retry-after-seconds:2}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        this.nodeLimitBytes = nodeLimitBytes;
+        this.meetingLimitBytes = meetingLimitBytes;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        Gauge.builder("upload.inflight.bytes", nodeInFlight, AtomicLong::get)
+                .description("업로드 처리 중인 청크 바이트")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("upload.inflight.limit", () -> this.nodeLimitBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("upload.inflight.meetings", meetingInFlight, Map::size)
+                .register(meterRegistry);
+        this.nodeRejections = Counter.builder("upload.rejected").tag("scope", "node").register(meterRegistry);
+        this.meetingRejections = Counter.builder("upload.rejected").tag("scope", "meeting").register(meterRegistry);
+    }
+
+    /**
+     * 예산을 확보하고 반환된 Permit을 닫을 때 해제한다.
+     * 이미 사용 중인 예산이 없으면 한도보다 큰 요청도 하나는 통과시킨다.
+     * meetingId가 null이면(본문을 읽기 전이라 회의를 모름) 노드 예산만 본다.
+     */
+    public Permit acquire(Long meetingId, long bytes) {
+        if (!tryReserve(nodeInFlight, nodeLimitBytes, bytes)) {
+            nodeRejections.increment();
+            log.warn("노드 업로드 예산 초과: meetingId={}, 요청={}, 사용 중={}/{}",
+                    meetingId, bytes, nodeInFlight.get(), nodeLimitBytes);
+            throw new UploadBudgetExceededException(UploadBudgetExceededException.Scope.NODE,
+                    retryAfterSeconds, "서버 업로드 처리량 초과");
+        }
+
+        if (meetingId != null && !tryReserveMeeting(meetingId, bytes)) {
+            nodeInFlight.addAndGet(-bytes);
+            meetingRejections.increment();
+            log.warn("회의 업로드 예산 초과: meetingId={}, 요청={}, 사용 중={}/{}",
+                    meetingId, bytes, meetingInFlight.getOrDefault(meetingId, 0L), meetingLimitBytes);
+            throw new UploadBudgetExceededException(UploadBudgetExceededException.Scope.MEETING,
+                    retryAfterSeconds, "회의별 동시 업로드 한도 초과");
+        }
+        return new Permit(meetingId, bytes);
+    }
+
+    public long getNodeInFlightBytes() {
+        return nodeInFlight.get();
+    }
+
+    private static boolean tryReserve(AtomicLong counter, long limit, long bytes) {
+        while (true) {
+            long current = counter.get();
+            if (current > 0 && current + bytes > limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean tryReserveMeeting(Long meetingId, long bytes) {
+        boolean[] reserved = {false};
+        meetingInFlight.compute(meetingId, (k, current) -> {
+            long used = current == null ? 0 : current;
+            if (used > 0 && used + bytes > meetingLimitBytes) {
+                return current;
+            }
+            reserved[0] = true;
+            return used + bytes;
+        });
+        return reserved[0];
+    }
+
+    private void releaseMeeting(Long meetingId, long bytes) {
+        // 사용량이 0이 된 회의 항목은 제거
+        meetingInFlight.computeIfPresent(meetingId, (k, used) -> used - bytes <= 0 ? null : used - bytes);
+    }
+
+    public class Permit implements AutoCloseable {
+        private final Long meetingId;
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(Long meetingId, long bytes) {
+            this.meetingId = meetingId;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                if (meetingId != null) {
+                    releaseMeeting(meetingId, bytes);
+                }
+                nodeInFlight.addAndGet(-bytes);
+            }
+        }
+    }
+}
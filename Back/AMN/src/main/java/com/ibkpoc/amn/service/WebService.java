@@ -7,6 +7,7 @@ import com.ibkpoc.amn.dto.MeetingResponseDto;
 import com.ibkpoc.amn.dto.SttContentDto;
 import com.ibkpoc.amn.entity.Meeting;
 import com.ibkpoc.amn.repository.MeetingRepository;
+import com.ibkpoc.amn.storage.RecordingStorage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,8 @@ import org.springframework.transaction.annotation.Transactional;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,6 +27,7 @@ public class WebService {
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final MeetingRepository meetingRepository;
+    private final RecordingStorage recordingStorage;
 
     public List<MeetingResponseDto> getAllMeetings() {
         return meetingRepository.findAllByOrderByStartTimeDesc()
@@ -45,6 +49,15 @@ public class WebService {
     }
 
     public List<SttContentDto> readSttContent(String filePath) throws IOException {
+        if (RecordingStorage.isRemote(filePath)) {
+            // 원격 저장소에 있는 STT 결과
+            try (InputStream in = Channels.newInputStream(recordingStorage.open(filePath))) {
+                return objectMapper.readValue(in,
+                        objectMapper.getTypeFactory().constructCollectionType(List.class, SttContentDto.class));
+            } catch (JsonParseException | JsonMappingException e) {
+                throw new IllegalArgumentException("잘못된 JSON 형식입니다.", e);
+            }
+        }
         File file = new File(filePath);
         if (!file.exists()) {
             throw new FileNotFoundException("파일이 존재하지 않습니다: " + filePath);
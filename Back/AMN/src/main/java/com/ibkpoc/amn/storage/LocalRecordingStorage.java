@@ -0,0 +1,74 @@
+package com.ibkpoc.amn.storage;
+
+import com.ibkpoc.amn.service.RecordingLayout;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+// storage/LocalRecordingStorage.java
+// 기본 저장소: meeting_records(base-path) 자체가 보관 위치. 위치 값은 절대 경로라 기존 wavSrc와 같다
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LocalRecordingStorage implements RecordingStorage {
+    private final RecordingLayout recordingLayout;
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return recordingLayout.resolve(key).toString();
+    }
+
+    @Override
+    public String keyOf(String location) {
+        return recordingLayout.relativize(Paths.get(location));
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        Path target = recordingLayout.resolve(key);
+        if (target.equals(source.toAbsolutePath().normalize())) {
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void putAll(Map<String, Path> objects) throws IOException {
+        for (Map.Entry<String, Path> object : objects.entrySet()) {
+            put(object.getKey(), object.getValue());
+        }
+    }
+
+    @Override
+    public SeekableByteChannel open(String location) throws IOException {
+        return FileChannel.open(Paths.get(location), StandardOpenOption.READ);
+    }
+
+    @Override
+    public void download(String location, Path target) throws IOException {
+        Files.copy(Paths.get(location), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(Paths.get(location));
+    }
+}
@@ -0,0 +1,47 @@
+package com.ibkpoc.amn.storage;
+
+import java.io.IOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// storage/RecordingStorage.java
+// 녹음 파일의 최종 보관 위치. 업로드/구간 저장/압축은 항상 로컬 작업 디렉터리(meeting_records)에서 하고,
+// 끝난 녹음을 key(base 기준 상대 경로)로 올린 뒤 locationOf(key)를 wavSrc에 저장한다
+// 로컬 구현의 위치는 지금까지처럼 절대 경로, 원격 구현은 scheme://... URI다
+public interface RecordingStorage {
+    Pattern REMOTE = Pattern.compile("^[a-z][a-z0-9+.-]*://.*");
+
+    /**
+     * wavSrc/sttSrc 값이 원격 저장소 URI인지 (scheme 없는 값은 로컬 경로)
+     */
+    static boolean isRemote(String location) {
+        return location != null && REMOTE.matcher(location).matches();
+    }
+
+    /**
+     * 로컬 작업 디렉터리를 그대로 보관 위치로 쓰는지. 그렇다면 올리기/내려받기가 필요 없다.
+     */
+    boolean isLocal();
+
+    String locationOf(String key);
+
+    String keyOf(String location);
+
+    void put(String key, Path source) throws IOException;
+
+    /**
+     * 여러 파일을 병렬로 올린다. 큰 파일은 나눠서(멀티파트) 올린다. 하나라도 실패하면 예외를 던진다.
+     */
+    void putAll(Map<String, Path> objects) throws IOException;
+
+    /**
+     * 읽기 전용 채널. position을 옮겨 읽으면 그 범위만 가져온다.
+     */
+    SeekableByteChannel open(String location) throws IOException;
+
+    void download(String location, Path target) throws IOException;
+
+    void delete(String location) throws IOException;
+}
@@ -0,0 +1,425 @@
+package com.ibkpoc.amn.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// storage/S3RecordingStorage.java
+// S3 호환 저장소(MinIO 등, path-style 주소). SDK 없이 REST API + SigV4 서명으로 필요한 것만 쓴다
+// - 올리기: part-size 이하는 PUT 한 번, 넘으면 멀티파트. 여러 파일의 파트를 upload-threads개 스레드에서 함께 올린다
+// - 읽기: Range GET으로 필요한 범위만 read-ahead 단위로 가져오는 채널 (압축본 블록 색인, 구간 건너뛰기에 사용)
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3RecordingStorage implements RecordingStorage, DisposableBean {
+    private static final String SCHEME = "s3://";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final Pattern UPLOAD_ID = Pattern.compile("<UploadId>([^<]+)</UploadId>");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final URI endpoint;
+    private final String bucket;
+    private final S3Signer signer;
+    private final long partSize;
+    private final int readAheadBytes;
+    private final HttpClient http;
+    private final ExecutorService uploader;
+
+    public S3RecordingStorage(@Value("${app.storage.s3.endpoint}") String endpoint,
+                              @Value("${app.storage.s3.region:us-east-1}") String region,
+                              @Value("${app.storage.s3.bucket}") String bucket,
+                              @Value("${app.storage.s3.access-key}") String accessKey,
+                              @Value("${app.storage.s3.secret-key}") String secretKey,
+                              @Value("${app.storage.s3.part-size:8388608}") long partSize,
+                              @Value("${app.storage.s3.upload-threads:4}") int uploadThreads,
+                              @Value("${app.storage.s3.read-ahead-bytes:1048576}") int readAheadBytes) {
+        this.endpoint = URI.create(endpoint.replaceFirst("/+$", ""));
+        this.bucket = bucket;
+        this.signer = new S3Signer(accessKey, secretKey, region, "s3");
+        this.partSize = partSize;
+        this.readAheadBytes = readAheadBytes;
+        this.http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        this.uploader = Executors.newFixedThreadPool(Math.max(1, uploadThreads),
+                new ThreadFactoryBuilder().setNameFormat("s3-upload-%d").setDaemon(true).build());
+    }
+
+    @Override
+    public boolean isLocal() {
+        return false;
+    }
+
+    @Override
+    public String locationOf(String key) {
+        return SCHEME + bucket + "/" + key;
+    }
+
+    @Override
+    public String keyOf(String location) {
+        String prefix = SCHEME + bucket + "/";
+        if (!location.startsWith(prefix)) {
+            throw new IllegalArgumentException("이 저장소의 위치가 아닙니다: " + location);
+        }
+        return location.substring(prefix.length());
+    }
+
+    @Override
+    public void put(String key, Path source) throws IOException {
+        putAll(Map.of(key, source));
+    }
+
+    @Override
+    public void putAll(Map<String, Path> objects) throws IOException {
+        List<MultipartUpload> uploads = new ArrayList<>();
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Path> object : objects.entrySet()) {
+                String key = object.getKey();
+                Path source = object.getValue();
+                long size = Files.size(source);
+                if (size <= partSize) {
+                    tasks.add(submit(() -> putObject(key, readRange(source, 0, (int) size))));
+                    continue;
+                }
+                MultipartUpload upload = new MultipartUpload(key, createMultipart(key),
+                        (int) ((size + partSize - 1) / partSize));
+                uploads.add(upload);
+                for (int part = 0; part < upload.etags.length; part++) {
+                    int index = part;
+                    long offset = index * partSize;
+                    int length = (int) Math.min(partSize, size - offset);
+                    tasks.add(submit(() -> upload.etags[index] = uploadPart(upload, index + 1,
+                            readRange(source, offset, length))));
+                }
+            }
+            for (CompletableFuture<Void> task : tasks) {
+                join(task);
+            }
+            for (MultipartUpload upload : uploads) {
+                completeMultipart(upload);
+            }
+        } catch (IOException | RuntimeException e) {
+            tasks.forEach(task -> task.cancel(true));
+            for (MultipartUpload upload : uploads) {
+                abortMultipart(upload);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public SeekableByteChannel open(String location) throws IOException {
+        String key = keyOf(location);
+        HttpResponse<byte[]> response = send("HEAD", key, new TreeMap<>(), Map.of(), null,
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(response, key, 200);
+        long size = response.headers().firstValueAsLong("content-length")
+                .orElseThrow(() -> new IOException("객체 크기를 알 수 없습니다: " + key));
+        return new RangedChannel(key, size);
+    }
+
+    @Override
+    public void download(String location, Path target) throws IOException {
+        String key = keyOf(location);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            HttpResponse<Path> response = send("GET", key, new TreeMap<>(), Map.of(), null,
+                    HttpResponse.BodyHandlers.ofFile(temp));
+            if (response.statusCode() != 200) {
+                throw new IOException("S3 요청 실패: GET " + key + ", status=" + response.statusCode()
+                        + ", " + Files.readString(temp, StandardCharsets.UTF_8).lines().findFirst().orElse(""));
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        String key = keyOf(location);
+        check(send("DELETE", key, new TreeMap<>(), Map.of(), null, HttpResponse.BodyHandlers.ofByteArray()),
+                key, 204, 200);
+    }
+
+    private void putObject(String key, byte[] body) throws IOException {
+        check(send("PUT", key, new TreeMap<>(), Map.of(), body, HttpResponse.BodyHandlers.ofByteArray()), key, 200);
+    }
+
+    private String createMultipart(String key) throws IOException {
+        HttpResponse<byte[]> response = send("POST", key, query("uploads", ""), Map.of(), new byte[0],
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(response, key, 200);
+        Matcher m = UPLOAD_ID.matcher(new String(response.body(), StandardCharsets.UTF_8));
+        if (!m.find()) {
+            throw new IOException("멀티파트 업로드 ID 없음: " + key);
+        }
+        return m.group(1);
+    }
+
+    private String uploadPart(MultipartUpload upload, int partNumber, byte[] body) throws IOException {
+        SortedMap<String, String> query = query("partNumber", Integer.toString(partNumber));
+        query.put("uploadId", S3Signer.encode(upload.uploadId, false));
+        HttpResponse<byte[]> response = send("PUT", upload.key, query, Map.of(), body,
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(response, upload.key, 200);
+        return response.headers().firstValue("etag")
+                .orElseThrow(() -> new IOException("파트 ETag 없음: " + upload.key + " #" + partNumber));
+    }
+
+    private void completeMultipart(MultipartUpload upload) throws IOException {
+        StringBuilder xml = new StringBuilder("<CompleteMultipartUpload>");
+        for (int i = 0; i < upload.etags.length; i++) {
+            xml.append("<Part><PartNumber>").append(i + 1).append("</PartNumber><ETag>")
+                    .append(upload.etags[i].replace("\"", "&quot;")).append("</ETag></Part>");
+        }
+        xml.append("</CompleteMultipartUpload>");
+        HttpResponse<byte[]> response = send("POST", upload.key, query("uploadId", upload.uploadId),
+                Map.of("content-type", "application/xml"), xml.toString().getBytes(StandardCharsets.UTF_8),
+                HttpResponse.BodyHandlers.ofByteArray());
+        check(response, upload.key, 200);
+        // S3는 완료 실패를 200 + <Error> 본문으로 돌려줄 수 있음
+        if (new String(response.body(), StandardCharsets.UTF_8).contains("<Error>")) {
+            throw new IOException("멀티파트 업로드 완료 실패: " + upload.key);
+        }
+    }
+
+    private void abortMultipart(MultipartUpload upload) {
+        try {
+            send("DELETE", upload.key, query("uploadId", upload.uploadId), Map.of(), null,
+                    HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            log.warn("멀티파트 업로드 취소 실패: key={}, error={}", upload.key, e.getMessage());
+        }
+    }
+
+    private byte[] getRange(String key, long from, long to) throws IOException {
+        HttpResponse<byte[]> response = send("GET", key, new TreeMap<>(), Map.of("range", "bytes=" + from + "-" + to),
+                null, HttpResponse.BodyHandlers.ofByteArray());
+        check(response, key, 206, 200);
+        byte[] body = response.body();
+        if (response.statusCode() == 200 && from > 0) {
+            // Range를 무시하고 전체를 준 경우
+            return Arrays.copyOfRange(body, (int) Math.min(from, body.length),
+                    (int) Math.min(to + 1, body.length));
+        }
+        return body;
+    }
+
+    private <T> HttpResponse<T> send(String method, String key, SortedMap<String, String> query,
+                                     Map<String, String> headers, byte[] body, HttpResponse.BodyHandler<T> handler)
+            throws IOException {
+        String path = "/" + S3Signer.encode(bucket, false) + "/" + S3Signer.encode(key, true);
+        String rawQuery = query.isEmpty() ? "" : "?" + String.join("&",
+                query.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).toList());
+        String payloadHash = body == null ? S3Signer.EMPTY_SHA256 : S3Signer.sha256Hex(body);
+        String amzDate = AMZ_DATE.format(Instant.now());
+        int port = endpoint.getPort();
+        String host = endpoint.getHost() + (port == -1 ? "" : ":" + port);
+
+        Map<String, String> signed = new LinkedHashMap<>();
+        signed.put("host", host);
+        signed.put("x-amz-date", amzDate);
+        signed.put("x-amz-content-sha256", payloadHash);
+        String authorization = signer.authorization(method, path, query, signed, amzDate, payloadHash);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(endpoint + path + rawQuery))
+                .timeout(TIMEOUT)
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body))
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("authorization", authorization);
+        headers.forEach(request::header);
+        try {
+            return http.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("S3 요청 중단: " + method + " " + key, e);
+        }
+    }
+
+    private static void check(HttpResponse<?> response, String key, int... expected) throws IOException {
+        for (int status : expected) {
+            if (response.statusCode() == status) {
+                return;
+            }
+        }
+        String detail = response.body() instanceof byte[] bytes
+                ? new String(bytes, 0, Math.min(bytes.length, 300), StandardCharsets.UTF_8) : "";
+        throw new IOException("S3 요청 실패: " + response.request().method() + " " + key
+                + ", status=" + response.statusCode() + ", " + detail);
+    }
+
+    private static SortedMap<String, String> query(String name, String value) {
+        SortedMap<String, String> query = new TreeMap<>();
+        query.put(name, S3Signer.encode(value, false));
+        return query;
+    }
+
+    private static byte[] readRange(Path source, long offset, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(length);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (buf.hasRemaining()) {
+                if (channel.read(buf, offset + buf.position()) < 0) {
+                    throw new IOException("파일이 예상보다 짧습니다: " + source);
+                }
+            }
+        }
+        return buf.array();
+    }
+
+    @FunctionalInterface
+    private interface IoRunnable {
+        void run() throws IOException;
+    }
+
+    private CompletableFuture<Void> submit(IoRunnable task) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, uploader);
+    }
+
+    private static void join(CompletableFuture<Void> task) throws IOException {
+        try {
+            task.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        uploader.shutdownNow();
+    }
+
+    private static class MultipartUpload {
+        private final String key;
+        private final String uploadId;
+        private final String[] etags;
+
+        MultipartUpload(String key, String uploadId, int parts) {
+            this.key = key;
+            this.uploadId = uploadId;
+            this.etags = new String[parts];
+        }
+    }
+
+    // 읽는 위치의 read-ahead 범위만 Range GET으로 가져와 두는 읽기 전용 채널
+    private class RangedChannel implements SeekableByteChannel {
+        private final String key;
+        private final long size;
+        private long position;
+        private byte[] buffer = new byte[0];
+        private long bufferStart;
+        private boolean open = true;
+
+        RangedChannel(String key, long size) {
+            this.key = key;
+            this.size = size;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!open) {
+                throw new ClosedChannelException();
+            }
+            if (position >= size) {
+                return -1;
+            }
+            if (position < bufferStart || position >= bufferStart + buffer.length) {
+                long to = Math.min(size, position + Math.max(readAheadBytes, dst.remaining())) - 1;
+                buffer = getRange(key, position, to);
+                bufferStart = position;
+                if (buffer.length == 0) {
+                    throw new IOException("Range 응답이 비어 있습니다: " + key + " @" + position);
+                }
+            }
+            int offset = (int) (position - bufferStart);
+            int n = Math.min(dst.remaining(), buffer.length - offset);
+            dst.put(buffer, offset, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public long position() {
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) {
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) {
+            throw new NonWritableChannelException();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+            buffer = new byte[0];
+        }
+    }
+}
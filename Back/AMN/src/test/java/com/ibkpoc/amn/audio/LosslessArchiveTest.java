@@ -0,0 +1,89 @@
+package com.ibkpoc.amn.audio;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LosslessArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void restoresSpeechLikeMonoExactlyAndCompresses() throws Exception {
+        int rate = 44100;
+        ByteBuffer pcm = ByteBuffer.allocate(rate * 3 * 2 + 1).order(ByteOrder.LITTLE_ENDIAN);
+        Random random = new Random(7);
+        for (int i = 0; pcm.remaining() >= 2; i++) {
+            // 1초 무음, 1초 톤+잡음, 1초 최대 진폭 잡음 (상수/LPC/그대로 저장 경로 모두 거침)
+            double t = (double) i / rate;
+            int sample = i < rate ? 0
+                    : i < 2 * rate ? (int) (6000 * Math.sin(2 * Math.PI * 220 * t) + random.nextGaussian() * 50)
+                    : random.nextInt(65536) - 32768;
+            pcm.putShort((short) sample);
+        }
+        pcm.put((byte) 0x5A); // 프레임에 못 미치는 끝 바이트
+        byte[] wav = wav(rate, 1, pcm.array());
+
+        byte[] restored = roundTrip(wav, 4096);
+        assertArrayEquals(wav, restored);
+    }
+
+    @Test
+    void restoresStereoAndSkipsToAnyPosition() throws Exception {
+        ByteBuffer pcm = ByteBuffer.allocate(10_000 * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; pcm.hasRemaining(); i++) {
+            pcm.putShort((short) (i * 7));
+            pcm.putShort((short) (Short.MIN_VALUE + (i % 3)));
+        }
+        byte[] wav = wav(16000, 2, pcm.array());
+        assertArrayEquals(wav, roundTrip(wav, 1000));
+
+        Path archivePath = tempDir.resolve("stereo" + LosslessArchive.SUFFIX);
+        try (LosslessArchive archive = LosslessArchive.open(archivePath);
+             InputStream in = archive.newInputStream()) {
+            assertEquals(wav.length, archive.getWavLength());
+            assertEquals(12_345, in.skip(12_345));
+            byte[] part = in.readNBytes(9_000);
+            assertArrayEquals(Arrays.copyOfRange(wav, 12_345, 21_345), part);
+        }
+    }
+
+    private byte[] roundTrip(byte[] wav, int blockSamples) throws Exception {
+        Path source = tempDir.resolve("source.wav");
+        Files.write(source, wav);
+        int channels = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN).getShort(22);
+        Path target = tempDir.resolve((channels == 2 ? "stereo" : "mono") + LosslessArchive.SUFFIX);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            LosslessArchive.Summary summary = LosslessArchive.encode(channel, target, blockSamples, executor, 3);
+            assertEquals(wav.length, summary.getWavLength());
+            assertTrue(summary.getArchiveLength() < wav.length, "archive=" + summary.getArchiveLength());
+        } finally {
+            executor.shutdown();
+        }
+        try (InputStream in = LosslessArchive.openWav(target)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] wav(int rate, int channels, byte[] pcm) {
+        byte[] wav = new byte[WavHeader.CANONICAL_SIZE + pcm.length];
+        WavHeader.canonical(rate, channels, 16, pcm.length).get(wav, 0, WavHeader.CANONICAL_SIZE);
+        System.arraycopy(pcm, 0, wav, WavHeader.CANONICAL_SIZE, pcm.length);
+        return wav;
+    }
+}
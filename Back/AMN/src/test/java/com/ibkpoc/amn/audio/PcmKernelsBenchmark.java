@@ -0,0 +1,66 @@
+package com.ibkpoc.amn.audio;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+// 스칼라/SIMD 구현 비교. 한 번의 연산 = 44.1kHz 모노 1초 분량 (dot은 32탭 FIR을 출력 16000개만큼)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PcmKernelsBenchmark {
+    private static final int SAMPLES = 44100;
+    private static final int TAPS = 32;
+
+    @Param({"scalar", "vector"})
+    public String impl;
+
+    private PcmKernels.Impl kernels;
+    private ByteBuffer pcm;
+    private float[] samples;
+    private float[] coefficients;
+
+    @Setup
+    public void setup() {
+        kernels = impl.equals("vector") ? new VectorPcmKernels() : new ScalarPcmKernels();
+        pcm = ByteBuffer.allocateDirect(SAMPLES * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; pcm.hasRemaining(); i++) {
+            pcm.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / 44100.0)));
+        }
+        samples = new float[SAMPLES];
+        coefficients = new float[TAPS];
+        for (int i = 0; i < TAPS; i++) {
+            coefficients[i] = (float) Math.sin(i + 1) / TAPS;
+        }
+    }
+
+    @Benchmark
+    public long sumOfSquares() {
+        // VAD와 같은 20ms(882샘플) 프레임 단위
+        long sum = 0;
+        for (int offset = 0; offset + 882 <= SAMPLES; offset += 882) {
+            sum += kernels.sumOfSquares(pcm, offset * 2, 882);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float[] toFloat() {
+        kernels.toFloat(pcm, 0, samples, 0, SAMPLES);
+        return samples;
+    }
+
+    @Benchmark
+    public float firDot() {
+        float acc = 0f;
+        for (int i = 0; i < 16000; i++) {
+            acc += kernels.dot(coefficients, 0, samples, (i * 441 / 160) % (SAMPLES - TAPS), TAPS);
+        }
+        return acc;
+    }
+}
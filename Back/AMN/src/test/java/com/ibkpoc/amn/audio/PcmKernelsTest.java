@@ -0,0 +1,56 @@
+package com.ibkpoc.amn.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PcmKernelsTest {
+    private final ScalarPcmKernels scalar = new ScalarPcmKernels();
+    private final VectorPcmKernels vector = new VectorPcmKernels();
+
+    @Test
+    void vectorMatchesScalarIncludingTail() {
+        // 벡터 길이로 나누어떨어지지 않는 길이와 홀수 오프셋, 최대 진폭 포함
+        ByteBuffer pcm = ByteBuffer.allocateDirect(2 * 1003 + 1).order(ByteOrder.LITTLE_ENDIAN);
+        Random random = new Random(1);
+        pcm.put((byte) 0);
+        while (pcm.remaining() >= 2) {
+            pcm.putShort((short) random.nextInt());
+        }
+        pcm.putShort(1, Short.MIN_VALUE).putShort(3, Short.MIN_VALUE);
+
+        long expected = 0;
+        for (int i = 0; i < 1003; i++) {
+            long s = pcm.getShort(1 + i * 2);
+            expected += s * s;
+        }
+        assertEquals(expected, scalar.sumOfSquares(pcm, 1, 1003));
+        assertEquals(expected, vector.sumOfSquares(pcm, 1, 1003));
+
+        float[] a = new float[1010];
+        float[] b = new float[1010];
+        scalar.toFloat(pcm, 1, a, 3, 1003);
+        vector.toFloat(pcm, 1, b, 3, 1003);
+        assertArrayEquals(a, b);
+
+        assertEquals(scalar.dot(a, 3, b, 5, 997), vector.dot(a, 3, b, 5, 997),
+                Math.abs(scalar.dot(a, 3, b, 5, 997)) * 1e-5);
+    }
+
+    @Test
+    void readsLittleEndianRegardlessOfBufferOrder() {
+        ByteBuffer pcm = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 32; i++) {
+            pcm.putShort(i * 2, (short) (i - 16));
+        }
+        pcm.order(ByteOrder.BIG_ENDIAN);
+        float[] out = new float[32];
+        PcmKernels.toFloat(pcm, 0, out, 0, 32);
+        assertEquals(-16f, out[0]);
+        assertEquals(15f, out[31]);
+    }
+}
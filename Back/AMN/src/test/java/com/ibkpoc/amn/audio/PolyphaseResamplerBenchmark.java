@@ -0,0 +1,39 @@
+package com.ibkpoc.amn.audio;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+// 한 번의 연산 = 44.1kHz 모노 1초 분량 변환, 따라서 ops/s 점수가 곧 코어당 실시간 배수
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PolyphaseResamplerBenchmark {
+    private PolyphaseResampler resampler;
+    private ByteBuffer input;
+    private ByteBuffer output;
+
+    @Setup
+    public void setup() {
+        resampler = new PolyphaseResampler(44100, 16000);
+        input = ByteBuffer.allocateDirect(44100 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; input.hasRemaining(); i++) {
+            input.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / 44100.0)));
+        }
+        output = ByteBuffer.allocateDirect(resampler.maxOutputBytes(input.capacity()) + 1024)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Benchmark
+    public ByteBuffer oneSecondOfAudio() {
+        input.clear();
+        output.clear();
+        resampler.process(input, output);
+        return output;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ibkpoc.amn.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PolyphaseResamplerTest {
+
+    @Test
+    void keepsToneFrequencyAndLength() {
+        int inputSamples = 44100;
+        ByteBuffer in = tone(44100, 1000, inputSamples);
+        ByteBuffer out = resample(in, 1 << 30);
+
+        assertEquals(16000, out.remaining() / 2);
+        // 1kHz 톤은 1초에 양의 방향 영점 교차 1000번, 진폭도 유지
+        int crossings = 0;
+        int peak = 0;
+        short previous = 0;
+        for (int i = 100; i < 15900; i++) {
+            short s = out.getShort(i * 2);
+            if (previous < 0 && s >= 0) {
+                crossings++;
+            }
+            peak = Math.max(peak, Math.abs(s));
+            previous = s;
+        }
+        assertTrue(Math.abs(crossings - 988) <= 2, "crossings=" + crossings);
+        assertTrue(Math.abs(peak - 10000) < 300, "peak=" + peak);
+    }
+
+    @Test
+    void removesContentAboveOutputNyquist() {
+        ByteBuffer out = resample(tone(44100, 12000, 44100), 1 << 30);
+        int peak = 0;
+        for (int i = 100; i < out.remaining() / 2 - 100; i++) {
+            peak = Math.max(peak, Math.abs(out.getShort(i * 2)));
+        }
+        assertTrue(peak < 100, "peak=" + peak);
+    }
+
+    @Test
+    void streamingMatchesSingleShot() {
+        ByteBuffer in = tone(44100, 440, 20000);
+        ByteBuffer whole = resample(in.duplicate(), 1 << 30);
+        // 홀수 크기로 나눠 넣어도 결과가 같아야 함
+        ByteBuffer pieces = resample(in.duplicate(), 1001 * 2);
+        assertEquals(whole, pieces);
+    }
+
+    private static ByteBuffer resample(ByteBuffer in, int piece) {
+        PolyphaseResampler resampler = new PolyphaseResampler(44100, 16000);
+        ByteBuffer out = ByteBuffer.allocate(resampler.maxOutputBytes(in.remaining()) + 1024)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        while (in.hasRemaining()) {
+            ByteBuffer slice = in.slice().order(ByteOrder.LITTLE_ENDIAN).limit(Math.min(piece, in.remaining()));
+            resampler.process(slice, out);
+            in.position(in.position() + slice.position());
+        }
+        resampler.flush(out);
+        return out.flip();
+    }
+
+    private static ByteBuffer tone(int rate, int frequency, int samples) {
+        ByteBuffer buf = ByteBuffer.allocate(samples * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < samples; i++) {
+            buf.putShort((short) (10000 * Math.sin(2 * Math.PI * frequency * i / rate)));
+        }
+        return buf.flip();
+    }
+}
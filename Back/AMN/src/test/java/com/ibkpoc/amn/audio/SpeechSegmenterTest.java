@@ -0,0 +1,75 @@
+package com.ibkpoc.amn.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpeechSegmenterTest {
+    private static final int RATE = 16000;
+    private static final int BYTES_PER_SECOND = RATE * 2;
+
+    private final WavHeader header = new WavHeader(RATE, 1, 16, WavHeader.CANONICAL_SIZE, 40);
+
+    @Test
+    void cutsInsideSilenceAfterMinimumLength() {
+        SpeechSegmenter segmenter = new SpeechSegmenter(header, 2, 10, 300, 500);
+        // 음성 3초, 무음 1초, 음성 3초 (청크 경계가 프레임과 맞지 않게 잘라서 넣음)
+        ByteBuffer pcm = concat(tone(3000), silence(1000), tone(3000));
+        List<Long> cuts = new ArrayList<>();
+        while (pcm.hasRemaining()) {
+            ByteBuffer piece = pcm.slice().limit(Math.min(pcm.remaining(), 10_001));
+            cuts.addAll(segmenter.feed(piece));
+            pcm.position(pcm.position() + piece.limit());
+        }
+
+        assertEquals(1, cuts.size());
+        long cut = cuts.get(0);
+        assertTrue(cut > 3L * BYTES_PER_SECOND && cut < 4L * BYTES_PER_SECOND, "cut=" + cut);
+        assertEquals(0, cut % 2);
+    }
+
+    @Test
+    void cutsAtMaximumWithoutSilence() {
+        SpeechSegmenter segmenter = new SpeechSegmenter(header, 1, 2, 300, 500);
+        List<Long> cuts = segmenter.feed(tone(5000));
+
+        // 무음이 없으면 구간마다 min~max 사이에서 자름
+        assertFalse(cuts.isEmpty());
+        long previous = 0;
+        for (long cut : cuts) {
+            assertTrue(cut - previous >= BYTES_PER_SECOND && cut - previous <= 2L * BYTES_PER_SECOND,
+                    "segment=" + (cut - previous));
+            previous = cut;
+        }
+        assertTrue(5L * BYTES_PER_SECOND - previous <= 2L * BYTES_PER_SECOND);
+    }
+
+    private static ByteBuffer tone(int ms) {
+        ByteBuffer buf = ByteBuffer.allocate(RATE * ms / 1000 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; buf.hasRemaining(); i++) {
+            buf.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / RATE)));
+        }
+        return buf.flip();
+    }
+
+    private static ByteBuffer silence(int ms) {
+        return ByteBuffer.allocate(RATE * ms / 1000 * 2);
+    }
+
+    private static ByteBuffer concat(ByteBuffer... parts) {
+        int total = 0;
+        for (ByteBuffer part : parts) {
+            total += part.remaining();
+        }
+        ByteBuffer all = ByteBuffer.allocate(total);
+        for (ByteBuffer part : parts) {
+            all.put(part);
+        }
+        return all.flip();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ibkpoc.amn.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoiceActivityDetectorTest {
+    private static final int RATE = 16000;
+    private static final int BYTES_PER_SECOND = RATE * 2;
+    private static final int PADDING_BYTES = BYTES_PER_SECOND / 5;
+
+    private final WavHeader header = new WavHeader(RATE, 1, 16, WavHeader.CANONICAL_SIZE, 40);
+
+    @Test
+    void dropsLongSilenceKeepingPadding() {
+        VoiceActivityDetector vad = new VoiceActivityDetector(header, 1000, 200, 3.0, 200);
+        // 음성 2초, 무음 3초, 음성 2초, 짧은 무음 0.5초(유지), 음성 1초
+        ByteBuffer pcm = concat(tone(2000), silence(3000), tone(2000), silence(500), tone(1000));
+        while (pcm.hasRemaining()) {
+            ByteBuffer piece = pcm.slice().order(ByteOrder.LITTLE_ENDIAN).limit(Math.min(pcm.remaining(), 7_777));
+            vad.feed(piece);
+            pcm.position(pcm.position() + piece.limit());
+        }
+
+        List<long[]> regions = vad.speechRegions();
+        assertEquals(2, regions.size());
+        assertArrayEquals(new long[]{0, 2L * BYTES_PER_SECOND + PADDING_BYTES}, regions.get(0));
+        assertArrayEquals(new long[]{5L * BYTES_PER_SECOND - PADDING_BYTES, 8_500L * BYTES_PER_SECOND / 1000},
+                regions.get(1));
+
+        OffsetMap map = OffsetMap.of(regions, BYTES_PER_SECOND, 0);
+        // 압축본 2.2초 지점 = 원본 4.8초 (두 번째 구간 시작)
+        assertEquals(4800, map.toOriginalMs(2200));
+        assertEquals(1000, map.toOriginalMs(1000));
+    }
+
+    @Test
+    void returnsNothingForSilenceOnly() {
+        VoiceActivityDetector vad = new VoiceActivityDetector(header, 1000, 200, 3.0, 200);
+        vad.feed(silence(3000));
+        assertTrue(vad.speechRegions().isEmpty());
+    }
+
+    private static ByteBuffer tone(int ms) {
+        ByteBuffer buf = ByteBuffer.allocate(RATE * ms / 1000 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; buf.hasRemaining(); i++) {
+            buf.putShort((short) (8000 * Math.sin(2 * Math.PI * 440 * i / RATE)));
+        }
+        return buf.flip();
+    }
+
+    private static ByteBuffer silence(int ms) {
+        return ByteBuffer.allocate(RATE * ms / 1000 * 2);
+    }
+
+    private static ByteBuffer concat(ByteBuffer... parts) {
+        int total = 0;
+        for (ByteBuffer part : parts) {
+            total += part.remaining();
+        }
+        ByteBuffer all = ByteBuffer.allocate(total).order(ByteOrder.LITTLE_ENDIAN);
+        for (ByteBuffer part : parts) {
+            all.put(part);
+        }
+        return all.flip();
+    }
+}
@@ -0,0 +1,63 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.audio.WavHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedWavFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesOutOfOrderChunksAndFixesHeader() throws Exception {
+        byte[] pcm = new byte[100];
+        for (int i = 0; i < pcm.length; i++) {
+            pcm[i] = (byte) i;
+        }
+        ByteBuffer header = WavHeader.canonical(16000, 1, 16, 0);
+        byte[] wav = new byte[WavHeader.CANONICAL_SIZE + pcm.length];
+        header.get(wav, 0, WavHeader.CANONICAL_SIZE);
+        System.arraycopy(pcm, 0, wav, WavHeader.CANONICAL_SIZE, pcm.length);
+
+        int chunkSize = 64;
+        Path path = tempDir.resolve("meeting.wav");
+        try (ChunkedWavFile file = new ChunkedWavFile(path, chunkSize, 3)) {
+            file.writeChunk(2, ByteBuffer.wrap(wav, 128, wav.length - 128));
+            file.writeChunk(0, ByteBuffer.wrap(wav, 0, 64));
+            file.writeChunk(1, ByteBuffer.wrap(wav, 64, 64));
+            assertEquals(wav.length, file.complete());
+        }
+
+        byte[] written = Files.readAllBytes(path);
+        assertEquals(wav.length, written.length);
+        ByteBuffer buf = ByteBuffer.wrap(written).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(wav.length - 8, buf.getInt(4));
+        assertEquals(pcm.length, buf.getInt(40));
+        assertArrayEquals(pcm, Arrays.copyOfRange(written, WavHeader.CANONICAL_SIZE, written.length));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WavHeader parsed = WavHeader.read(channel);
+            assertEquals(16000, parsed.getSampleRate());
+            assertEquals(WavHeader.CANONICAL_SIZE, parsed.getDataOffset());
+        }
+    }
+
+    @Test
+    void rejectsShortChunkBeforeLast() throws Exception {
+        try (ChunkedWavFile file = new ChunkedWavFile(tempDir.resolve("short.wav"), 64, 3)) {
+            assertThrows(IllegalArgumentException.class, () -> file.writeChunk(0, ByteBuffer.allocate(10)));
+            assertThrows(IllegalArgumentException.class, () -> file.writeChunk(3, ByteBuffer.allocate(64)));
+        }
+    }
+}
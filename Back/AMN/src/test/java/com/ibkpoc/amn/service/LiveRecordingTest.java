@@ -0,0 +1,67 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.audio.WavHeader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveRecordingTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void resumesFromLastSyncedLength() throws Exception {
+        Path path = tempDir.resolve("live.wav");
+        try (LiveRecording recording = LiveRecording.open(1L, path, 16000, 1, 16)) {
+            recording.append(ByteBuffer.wrap(new byte[100]));
+            recording.sync();
+            // fsync 전에 종료된 데이터
+            recording.append(ByteBuffer.wrap(new byte[50]));
+            assertEquals(150, recording.getPcmLength());
+            assertEquals(100, recording.getDurableLength());
+        }
+
+        try (LiveRecording resumed = LiveRecording.open(1L, path, 16000, 1, 16)) {
+            assertEquals(100, resumed.getPcmLength());
+            assertEquals(WavHeader.CANONICAL_SIZE + 100, Files.size(path));
+            resumed.append(ByteBuffer.wrap(new byte[20]));
+            resumed.complete();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WavHeader header = WavHeader.read(channel);
+            assertEquals(16000, header.getSampleRate());
+            assertEquals(120, header.readDataSize(channel));
+        }
+    }
+
+    @Test
+    void recoversWithFormatFromHeader() throws Exception {
+        Path path = tempDir.resolve("live.wav");
+        try (LiveRecording recording = LiveRecording.open(1L, path, 44100, 2, 16)) {
+            recording.append(ByteBuffer.wrap(new byte[64]));
+            recording.sync();
+        }
+
+        try (LiveRecording recovered = LiveRecording.recover(1L, path)) {
+            assertEquals(44100, recovered.getSampleRate());
+            assertEquals(2, recovered.getChannels());
+            assertEquals(64, recovered.getPcmLength());
+        }
+    }
+
+    @Test
+    void rejectsFormatChangeOnResume() throws Exception {
+        Path path = tempDir.resolve("live.wav");
+        LiveRecording.open(1L, path, 16000, 1, 16).close();
+        assertThrows(IllegalArgumentException.class, () -> LiveRecording.open(1L, path, 44100, 1, 16));
+    }
+}
@@ -0,0 +1,119 @@
+package com.ibkpoc.amn.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingCatalogTest {
+    @TempDir
+    Path tempDir;
+
+    private RecordingCatalog catalog;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        catalog.destroy();
+    }
+
+    @Test
+    void reloadsEntriesAndDropsTornTail() throws Exception {
+        RecordingLayout layout = new RecordingLayout(tempDir.toString());
+        Path directory = layout.directoryFor(7, LocalDate.of(2025, 3, 4));
+        assertTrue(directory.startsWith(tempDir.resolve("2025/03/04")));
+        Files.createDirectories(directory);
+        Path wav = Files.write(directory.resolve("meeting_7_a.wav"), new byte[100]);
+        Path segments = Files.createDirectories(directory.resolve("meeting_8_b"));
+        Files.write(segments.resolve("seg_00000.amnl"), new byte[30]);
+        Files.write(segments.resolve("seg_00000_stt.wav"), new byte[10]);
+        Path manifest = Files.write(segments.resolve(SegmentedRecording.MANIFEST), new byte[5]);
+
+        catalog = open(layout);
+        catalog.update(7, wav, "aa");
+        catalog.update(8, manifest, null);
+        catalog.update(9, wav, "bb");
+        catalog.remove(9);
+        catalog.destroy();
+
+        // 기록 중 종료로 잘린 레코드
+        Path log = tempDir.resolve(".catalog").resolve(RecordingCatalog.FILE_NAME);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0, 0, 0, 50, 1, 2}));
+        }
+
+        catalog = open(layout);
+        assertEquals(2, catalog.entries().size());
+        RecordingCatalog.Entry single = catalog.find(7).orElseThrow();
+        assertEquals("aa", single.getDigest());
+        assertEquals(100, single.getTotalSize());
+        assertEquals(wav.toString(), catalog.findLocation(7).orElseThrow());
+        RecordingCatalog.Entry segmented = catalog.find(8).orElseThrow();
+        assertNull(segmented.getDigest());
+        assertEquals(2, segmented.getFiles().size()); // STT 파생 파일 제외
+        assertEquals(35, segmented.getTotalSize());
+        assertTrue(catalog.find(9).isEmpty());
+
+        // 잘린 꼬리를 잘라낸 뒤 이어 쓴 레코드도 다시 읽힘
+        catalog.update(9, wav, "cc");
+        catalog.destroy();
+        catalog = open(layout);
+        assertEquals("cc", catalog.find(9).orElseThrow().getDigest());
+    }
+
+    @Test
+    void compactsWhenDeadRecordsAccumulate() throws Exception {
+        RecordingLayout layout = new RecordingLayout(tempDir.toString());
+        Path wav = Files.write(tempDir.resolve("meeting_1.wav"), new byte[10]);
+        catalog = open(layout);
+        for (int i = 0; i < 500; i++) {
+            catalog.update(1, wav, "d" + i);
+        }
+        Path log = tempDir.resolve(".catalog").resolve(RecordingCatalog.FILE_NAME);
+        assertTrue(Files.size(log) < 100 * 100, "size=" + Files.size(log));
+        catalog.destroy();
+
+        catalog = open(layout);
+        assertEquals("d499", catalog.find(1).orElseThrow().getDigest());
+    }
+
+    @Test
+    void keepsUpdateThatTriggersCompaction() throws Exception {
+        RecordingLayout layout = new RecordingLayout(tempDir.toString());
+        Path wav = Files.write(tempDir.resolve("meeting_1.wav"), new byte[10]);
+        Path log = tempDir.resolve(".catalog").resolve(RecordingCatalog.FILE_NAME);
+        catalog = open(layout);
+        String last = null;
+        long previous = 0;
+        for (int i = 0; i < 1000; i++) {
+            last = "d" + i;
+            catalog.update(1, wav, last);
+            long size = Files.size(log);
+            // 파일이 줄었으면 이 갱신이 압축을 일으킴
+            if (size < previous) {
+                break;
+            }
+            previous = size;
+        }
+        assertTrue(Files.size(log) < previous, "압축이 일어나지 않음");
+        catalog.destroy();
+
+        catalog = open(layout);
+        assertEquals(last, catalog.find(1).orElseThrow().getDigest());
+    }
+
+    private RecordingCatalog open(RecordingLayout layout) throws Exception {
+        RecordingCatalog opened = new RecordingCatalog(layout);
+        ReflectionTestUtils.setField(opened, "catalogPath", tempDir.resolve(".catalog").toString());
+        opened.init();
+        return opened;
+    }
+}
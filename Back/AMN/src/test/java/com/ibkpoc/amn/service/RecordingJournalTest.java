@@ -0,0 +1,48 @@
+package com.ibkpoc.amn.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecordingJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recoversChunksAndDropsTornTail() throws Exception {
+        Path path = tempDir.resolve("7.journal");
+        RecordingJournal.Meta meta = new RecordingJournal.Meta(7L, 64, 3, "20241210_012959", "/tmp/a.wav");
+        try (RecordingJournal journal = RecordingJournal.create(path, meta)) {
+            journal.appendChunk(2, 10, 0x1234);
+            journal.appendChunk(0, 64, 0x5678);
+        }
+        // 기록 도중 종료된 레코드 흉내
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'C', 0, 0}));
+        }
+        long tornSize = Files.size(path);
+
+        RecordingJournal.Recovered recovered = RecordingJournal.recover(path);
+        try (RecordingJournal journal = recovered.getJournal()) {
+            assertEquals(7L, recovered.getMeta().getMeetingId());
+            assertEquals("/tmp/a.wav", recovered.getMeta().getWavPath());
+            assertEquals(2, recovered.getChunks().size());
+            assertEquals(2, recovered.getChunks().get(0).getIndex());
+            assertEquals(0x5678, recovered.getChunks().get(1).getCrc());
+            assertEquals(tornSize - 3, Files.size(path));
+
+            journal.appendChunk(1, 64, 0x9abc);
+        }
+        RecordingJournal.Recovered reopened = RecordingJournal.recover(path);
+        reopened.getJournal().close();
+        assertEquals(3, reopened.getChunks().size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.audio.WavHeader;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecordingSegmentServiceTest {
+    private static final int RATE = 8000;
+    private static final int BYTES_PER_SECOND = RATE * 2;
+
+    @TempDir
+    Path tempDir;
+
+    private final MeetingRepository repository = mock(MeetingRepository.class);
+    private final RecordingSegmentService service = new RecordingSegmentService(repository, new ObjectMapper(),
+            mock(RecordingCatalog.class), mock(RecordingStorageService.class));
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void splitsAtSilenceNearTargetAndReadsBackIdentically() throws Exception {
+        ReflectionTestUtils.setField(service, "segmentSeconds", 10);
+        ReflectionTestUtils.setField(service, "toleranceSeconds", 2);
+        ReflectionTestUtils.setField(service, "minSilenceMs", 200);
+        ReflectionTestUtils.setField(service, "silenceThreshold", 500.0);
+        ReflectionTestUtils.setField(service, "threads", 2);
+        service.init();
+
+        // 25초 톤, 9.0~9.5초와 20.5~21.0초만 무음
+        ByteBuffer pcm = ByteBuffer.allocate(25 * BYTES_PER_SECOND).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; pcm.hasRemaining(); i++) {
+            double t = (double) i / RATE;
+            boolean silent = (t >= 9.0 && t < 9.5) || (t >= 20.5 && t < 21.0);
+            pcm.putShort(silent ? 0 : (short) (8000 * Math.sin(2 * Math.PI * 300 * t)));
+        }
+        byte[] wav = new byte[WavHeader.CANONICAL_SIZE + pcm.capacity()];
+        WavHeader.canonical(RATE, 1, 16, pcm.capacity()).get(wav, 0, WavHeader.CANONICAL_SIZE);
+        System.arraycopy(pcm.array(), 0, wav, WavHeader.CANONICAL_SIZE, pcm.capacity());
+        Path source = tempDir.resolve("meeting_1_test.wav");
+        Files.write(source, wav);
+
+        Meeting meeting = new Meeting();
+        meeting.setConfId(1L);
+        meeting.setWavSrc(source.toString());
+        try (FileChannel channel = FileChannel.open(source)) {
+            meeting.setWavDigest(FileDigests.sha256(channel));
+        }
+        when(repository.findById(1L)).thenReturn(Optional.of(meeting));
+
+        SegmentedRecording recording = service.segment(1L).orElseThrow();
+        List<SegmentedRecording.Segment> segments = recording.getSegments();
+        assertEquals(3, segments.size());
+        // 경계는 무음 안쪽 (목표 10초/20초 ± 2초)
+        long first = segments.get(1).getPcmOffset();
+        long second = segments.get(2).getPcmOffset();
+        assertTrue(first >= 9L * BYTES_PER_SECOND && first <= 9_500L * BYTES_PER_SECOND / 1000, "first=" + first);
+        assertTrue(second >= 20_500L * BYTES_PER_SECOND / 1000 && second <= 21L * BYTES_PER_SECOND, "second=" + second);
+        assertEquals(first * 1000 / BYTES_PER_SECOND, segments.get(1).getStartMs());
+
+        assertFalse(Files.exists(source));
+        assertTrue(SegmentedRecording.isManifest(Path.of(meeting.getWavSrc())));
+        assertEquals(recording.getManifestPath(), service.resolve(source));
+
+        SegmentedRecording loaded = service.load(recording.getManifestPath());
+        try (InputStream in = loaded.openWav()) {
+            assertArrayEquals(wav, in.readAllBytes());
+        }
+        try (InputStream in = loaded.openWav()) {
+            long from = first - 100 + WavHeader.CANONICAL_SIZE;
+            assertEquals(from, in.skip(from));
+            assertArrayEquals(Arrays.copyOfRange(wav, (int) from, (int) from + 400), in.readNBytes(400));
+        }
+        // 다시 호출하면 나누지 않고 manifest를 읽음
+        assertEquals(3, service.segment(1L).orElseThrow().getSegments().size());
+    }
+}
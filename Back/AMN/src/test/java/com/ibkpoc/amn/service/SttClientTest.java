@@ -0,0 +1,200 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SttClientTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicReference<String> lastBody = new AtomicReference<>();
+    private volatile CountDownLatch hold = new CountDownLatch(0);
+
+    private HttpServer server;
+    private SimpleMeterRegistry registry;
+    private SttEndpointPool pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/run", this::handle);
+        server.createContext("/fast", exchange -> {
+            try (exchange) {
+                exchange.getRequestBody().readAllBytes();
+                byte[] body = "fast".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        registry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        hold.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void sendsEscapedJsonAndRecordsLatency() throws IOException {
+        SttClient client = client(1000, 2, 0, 5);
+        String path = "/data/meeting_1_\"quoted\"\\dir/seg.wav";
+
+        assertEquals("ok", client.transcribe(path, 3));
+
+        JsonNode body = objectMapper.readTree(lastBody.get());
+        assertEquals(path, body.get("file_name").asText());
+        assertEquals(3, body.get("participant").asInt());
+        // STT 서버 요청 형식 {file_name, participant} 외의 필드는 보내지 않음
+        assertEquals(2, body.size());
+        assertEquals(1, registry.get("stt.request").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() {
+        SttClient client = client(1000, 2, 0, 2);
+        status.set(503);
+
+        assertThrows(IllegalStateException.class, () -> client.transcribe("a.wav", 1));
+        assertThrows(IllegalStateException.class, () -> client.transcribe("a.wav", 1));
+        assertEquals(SttCircuitBreaker.State.OPEN, pool.getEndpoints().get(0).getBreaker().getState());
+
+        SttUnavailableException e = assertThrows(SttUnavailableException.class,
+                () -> client.transcribe("a.wav", 1));
+        assertEquals(SttUnavailableException.Reason.CIRCUIT_OPEN, e.getReason());
+        // 차단 중에는 서버로 요청이 가지 않음
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void timesOutStalledCallAndRejectsWhenBulkheadFull() throws Exception {
+        SttClient client = client(300, 1, 50, 5);
+        hold = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> stalled = caller.submit(() -> client.transcribe("slow.wav", 1));
+            waitForRequests(1);
+
+            SttUnavailableException e = assertThrows(SttUnavailableException.class,
+                    () -> client.transcribe("b.wav", 1));
+            assertEquals(SttUnavailableException.Reason.BULKHEAD_FULL, e.getReason());
+
+            Exception timeout = assertThrows(Exception.class, () -> stalled.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, timeout.getCause());
+            assertEquals(1, registry.get("stt.request").tag("outcome", "timeout").timer().count());
+        } finally {
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    void halfOpenAllowsSingleTrial() {
+        AtomicLong now = new AtomicLong();
+        SttCircuitBreaker breaker = new SttCircuitBreaker(1, 1000, now::get);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertFalse(breaker.tryAcquire());
+
+        now.set(1000);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(SttCircuitBreaker.State.OPEN, breaker.getState());
+
+        now.set(2000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(SttCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void hedgesStalledSegmentCallToAnotherEndpoint() {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        // 가중치로 기본 호출은 항상 /run으로
+        pool = new SttEndpointPool(base + "/run 10, " + base + "/fast 1", "", "", 0, 1000, 5, 60_000, 100.0,
+                60_000, registry, System::currentTimeMillis);
+        SttClient client = new SttClient(pool, HttpClient.Version.HTTP_1_1, 1000, 10_000, 4, 0,
+                true, 0.95, 10, 1, 50, 100, 5, objectMapper, registry);
+
+        assertEquals("ok", client.transcribe("warmup.wav", 1, true));
+        hold = new CountDownLatch(1);
+
+        assertEquals("fast", client.transcribe("seg.wav", 1, true));
+        assertEquals(1, registry.get("stt.hedge").tag("result", "won").counter().count());
+        // 진 호출은 취소되어 서버 할당이 남지 않음
+        assertTrue(pool.getEndpoints().stream().allMatch(e -> e.getOutstanding().get() == 0));
+    }
+
+    @Test
+    void hedgePolicyCapsExtraLoadAtBudget() {
+        SttHedgePolicy policy = new SttHedgePolicy(0.95, 100, 20, 10, 10, 5);
+        for (int i = 1; i <= 19; i++) {
+            policy.record(i * 10L);
+        }
+        assertEquals(-1, policy.delayMs());
+        policy.record(200);
+        assertEquals(190, policy.delayMs());
+
+        int hedges = 0;
+        for (int i = 0; i < 100; i++) {
+            policy.onRequest();
+            if (policy.tryHedge()) {
+                hedges++;
+            }
+        }
+        assertEquals(10, hedges);
+    }
+
+    private SttClient client(long requestTimeoutMs, int maxConcurrent, long bulkheadWaitMs, int failureThreshold) {
+        pool = new SttEndpointPool("http://127.0.0.1:" + server.getAddress().getPort() + "/run", "", "", 0,
+                1000, failureThreshold, 60_000, 3.0, 60_000, registry, System::currentTimeMillis);
+        return new SttClient(pool, HttpClient.Version.HTTP_1_1, 1000, requestTimeoutMs, maxConcurrent,
+                bulkheadWaitMs, false, 0.95, 200, 20, 1000, 10, 5, objectMapper, registry);
+    }
+
+    private void waitForRequests(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            lastBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            requests.incrementAndGet();
+            try {
+                hold.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ibkpoc.amn.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SttEndpointPoolTest {
+    private static final String A = "http://stt-a:8081/run";
+    private static final String B = "http://stt-b:8081/run";
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    @Test
+    void routesToLeastOutstandingByWeight() {
+        SttEndpointPool pool = pool(A + " 2, " + B + " 1", "", 5);
+        Map<String, Integer> assigned = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            // 끝나지 않은 요청을 쌓으며 할당
+            assigned.merge(pool.acquire(null).getEndpoint().toString(), 1, Integer::sum);
+        }
+        assertEquals(4, assigned.get(A));
+        assertEquals(2, assigned.get(B));
+
+        SttEndpointPool.Lease lease = pool.acquire(endpoint(pool, A));
+        assertEquals(B, lease.getEndpoint().toString());
+        lease.close();
+        lease.close();
+        assertEquals(2, endpoint(pool, B).getOutstanding().get());
+    }
+
+    @Test
+    void ejectsFailingEndpointAndReadmitsAfterTrial() {
+        SttEndpointPool pool = pool(A + "," + B, "", 2);
+        SttEndpointPool.Endpoint a = endpoint(pool, A);
+        for (int i = 0; i < 2; i++) {
+            SttEndpointPool.Lease lease = pool.acquire(endpoint(pool, B));
+            lease.failure();
+        }
+        for (int i = 0; i < 4; i++) {
+            assertEquals(B, pool.acquire(null).getEndpoint().toString());
+        }
+        assertThrows(SttUnavailableException.class, () -> pool.acquire(endpoint(pool, B)));
+
+        // open-ms가 지나면 시험 호출 한 건
+        now.addAndGet(30_000);
+        SttEndpointPool.Lease trial = pool.acquire(endpoint(pool, B));
+        assertSame(a, trial.getEndpoint());
+        trial.success(1_000_000);
+        assertEquals(SttCircuitBreaker.State.CLOSED, a.getBreaker().getState());
+    }
+
+    @Test
+    void ejectsSlowEndpointForEjectPeriod() {
+        SttEndpointPool pool = pool(A + "," + B, "", 5);
+        // exclude로 대상 지정: B 100ms, A 1000ms
+        pool.acquire(endpoint(pool, A)).success(100_000_000L);
+        pool.acquire(endpoint(pool, B)).success(1_000_000_000L);
+
+        // A는 B보다 10배 느려 제외
+        for (int i = 0; i < 3; i++) {
+            assertEquals(B, pool.acquire(null).getEndpoint().toString());
+        }
+        now.addAndGet(60_000);
+        assertFalse(endpoint(pool, A).isEjected(now.get()));
+    }
+
+    @Test
+    void reloadsEndpointsFileKeepingState() throws IOException {
+        Path file = tempDir.resolve("stt-endpoints.txt");
+        Files.writeString(file, A + "  # 첫 서버\n");
+        SttEndpointPool pool = pool("http://unused/run", file.toString(), 5);
+        SttEndpointPool.Endpoint a = endpoint(pool, A);
+        pool.acquire(null);
+
+        Files.writeString(file, A + "\n" + B + " 3\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        pool.check();
+
+        List<SttEndpointPool.Endpoint> endpoints = pool.getEndpoints();
+        assertEquals(2, endpoints.size());
+        assertSame(a, endpoints.get(0));
+        assertEquals(1, a.getOutstanding().get());
+        assertEquals(3, endpoints.get(1).getWeight());
+    }
+
+    @Test
+    void healthCheckEjectsUnreachableEndpoint() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/health", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String up = "http://127.0.0.1:" + server.getAddress().getPort() + "/run";
+            // 닫힌 포트
+            String down = "http://127.0.0.1:1/run";
+            SttEndpointPool pool = new SttEndpointPool(up + "," + down, "", "/health", 0, 1000, 5, 30_000, 3.0,
+                    60_000, new SimpleMeterRegistry(), now::get);
+            pool.check();
+
+            assertTrue(endpoint(pool, up).isHealthy());
+            assertFalse(endpoint(pool, down).isHealthy());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(up, pool.acquire(null).getEndpoint().toString());
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void parsesWeightsAndComments() {
+        Map<URI, Integer> parsed = SttEndpointPool.parse(A + " 2, " + B + "\n# 주석, 무시\nhttp://stt-c/run 0");
+        assertEquals(Map.of(URI.create(A), 2, URI.create(B), 1), parsed);
+    }
+
+    private SttEndpointPool pool(String endpoints, String file, int failureThreshold) {
+        return new SttEndpointPool(endpoints, file, "", 0, 1000, failureThreshold, 30_000, 3.0, 60_000,
+                new SimpleMeterRegistry(), now::get);
+    }
+
+    private static SttEndpointPool.Endpoint endpoint(SttEndpointPool pool, String uri) {
+        return pool.getEndpoints().stream().filter(e -> e.toString().equals(uri)).findFirst().orElseThrow();
+    }
+}
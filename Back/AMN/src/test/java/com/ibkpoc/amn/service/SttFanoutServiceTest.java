@@ -0,0 +1,98 @@
+package com.ibkpoc.amn.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ibkpoc.amn.dto.SttContentDto;
+import com.ibkpoc.amn.entity.Meeting;
+import com.ibkpoc.amn.repository.MeetingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SttFanoutServiceTest {
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SttClient sttClient = mock(SttClient.class);
+    private final MeetingRepository repository = mock(MeetingRepository.class);
+    private final SttFanoutService service = new SttFanoutService(sttClient, mock(SttAudioConverter.class),
+            repository, objectMapper);
+
+    private final List<SttFanoutService.SegmentCall> calls = List.of(
+            new SttFanoutService.SegmentCall(Path.of("/rec/seg_00000_stt.wav"), 0),
+            new SttFanoutService.SegmentCall(Path.of("/rec/seg_00001_stt.wav"), 60_000),
+            new SttFanoutService.SegmentCall(Path.of("/rec/seg_00002_stt.wav"), 120_000));
+    private final SttFanoutService.SegmentCall wholeCall =
+            new SttFanoutService.SegmentCall(Path.of("/rec/recording_restored_stt.wav"), 0);
+    private final AtomicInteger wholePrepared = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "parallelism", 2);
+        ReflectionTestUtils.setField(service, "speakerSimilarity", 0.75);
+        ReflectionTestUtils.setField(service, "transcriptPath", tempDir.toString());
+        when(repository.findById(1L)).thenReturn(Optional.of(new Meeting()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    @Test
+    void fallsBackToWholeFileWithoutEmbeddings() throws Exception {
+        respond(calls.get(0), "[{\"speaker\":\"SPEAKER_00\",\"text\":\"안녕하세요\"}]");
+        respond(wholeCall, "[{\"speaker\":\"SPEAKER_00\",\"text\":\"안녕하세요\"},"
+                + "{\"speaker\":\"SPEAKER_01\",\"text\":\"네\"}]");
+
+        Path transcript = service.transcribe(1L, 2, calls, this::prepareWhole).orElseThrow();
+
+        // 나머지 구간은 보내지 않고 전체 파일 한 번의 라벨을 그대로 씀
+        assertEquals(1, wholePrepared.get());
+        verify(sttClient, never()).transcribe(eq(name(calls.get(1))), any(), anyBoolean());
+        verify(sttClient, never()).transcribe(eq(name(calls.get(2))), any(), anyBoolean());
+        verify(sttClient).transcribe(name(wholeCall), 2, false);
+        SttContentDto[] content = objectMapper.readValue(transcript.toFile(), SttContentDto[].class);
+        assertEquals(List.of("SPEAKER_00", "SPEAKER_01"), List.of(content[0].getSpeaker(), content[1].getSpeaker()));
+    }
+
+    @Test
+    void stitchesSegmentsWhenResponsesCarryEmbeddings() throws Exception {
+        respond(calls.get(0), "[{\"speaker\":\"SPEAKER_00\",\"text\":\"하나\",\"embedding\":[1,0]}]");
+        respond(calls.get(1), "[{\"speaker\":\"SPEAKER_01\",\"text\":\"둘\",\"embedding\":[0,1]}]");
+        respond(calls.get(2), "[{\"speaker\":\"SPEAKER_00\",\"text\":\"셋\",\"embedding\":[1,0]}]");
+
+        Path transcript = service.transcribe(1L, 2, calls, this::prepareWhole).orElseThrow();
+
+        assertEquals(0, wholePrepared.get());
+        SttContentDto[] content = objectMapper.readValue(transcript.toFile(), SttContentDto[].class);
+        assertEquals(3, content.length);
+        assertEquals(content[0].getSpeaker(), content[2].getSpeaker());
+        assertNotEquals(content[0].getSpeaker(), content[1].getSpeaker());
+    }
+
+    private SttFanoutService.SegmentCall prepareWhole() {
+        wholePrepared.incrementAndGet();
+        return wholeCall;
+    }
+
+    private void respond(SttFanoutService.SegmentCall call, String body) {
+        when(sttClient.transcribe(eq(name(call)), any(), anyBoolean())).thenReturn(body);
+    }
+
+    private static String name(SttFanoutService.SegmentCall call) {
+        return call.sttFile().toAbsolutePath().toString();
+    }
+}
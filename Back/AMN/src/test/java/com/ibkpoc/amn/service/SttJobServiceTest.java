@@ -0,0 +1,131 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.entity.SttJob;
+import com.ibkpoc.amn.repository.SttJobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// AmnApplicationTests처럼 설정된 PostgreSQL이 있어야 실행됨 (FOR UPDATE SKIP LOCKED 경로)
+// 워커는 끄고 claim을 직접 호출. 가져갈 작업이 이미 있는 DB면 건드리지 않도록 건너뜀
+@SpringBootTest(properties = {"app.stt.job.workers=0", "app.stt.job.max-attempts=3"})
+class SttJobServiceTest {
+    @Autowired
+    private SttJobService sttJobService;
+
+    @Autowired
+    private SttJobRepository sttJobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Boolean empty = transactionTemplate.execute(status -> sttJobRepository.lockNext(LocalDateTime.now()).isEmpty());
+        assumeTrue(Boolean.TRUE.equals(empty), "가져갈 수 있는 STT 작업이 이미 있는 DB");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sttJobRepository.deleteAllById(created);
+    }
+
+    @Test
+    void concurrentClaimsSkipLockedRows() throws Exception {
+        SttJob first = queued(-1001L);
+        SttJob second = queued(-1002L);
+
+        // 첫 claim의 트랜잭션을 열어 둔 채(행 잠금 유지) 두 번째 claim을 실행
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Optional<SttJob>> holder = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    Optional<SttJob> job = sttJobService.claim("node-a");
+                    claimed.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return job;
+                }));
+        assertTrue(claimed.await(10, TimeUnit.SECONDS));
+        Optional<SttJob> other = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sttJobService.claim("node-b"));
+        release.countDown();
+        Optional<SttJob> held = holder.get(10, TimeUnit.SECONDS);
+
+        assertTrue(held.isPresent());
+        assertTrue(other.isPresent());
+        assertEquals(List.of(first.getJobId(), second.getJobId()),
+                List.of(held.get().getJobId(), other.get().getJobId()).stream().sorted().toList());
+        assertEquals("node-b", sttJobRepository.findById(other.get().getJobId()).orElseThrow().getLockedBy());
+        assertEquals("node-a", sttJobRepository.findById(held.get().getJobId()).orElseThrow().getLockedBy());
+    }
+
+    @Test
+    void exhaustedJobIsFailedAndNotClaimedAgain() {
+        LocalDateTime now = LocalDateTime.now();
+        SttJob exhausted = new SttJob();
+        exhausted.setMeetingId(-2001L);
+        exhausted.setStatus(SttJob.RUNNING);
+        exhausted.setAttempts(3);
+        exhausted.setLockedBy("node-gone");
+        exhausted.setLockedUntil(now.minusMinutes(5));
+        exhausted.setAvailableAt(now.minusMinutes(10));
+        exhausted.setCreatedAt(now.minusMinutes(10));
+        exhausted.setUpdatedAt(now.minusMinutes(5));
+        exhausted = save(exhausted);
+
+        // 만료된 행만 있을 때 FAILED로 닫은 행이 다시 잡히면 루프가 끝나지 않음
+        Optional<SttJob> none = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> sttJobService.claim("node-a"));
+        assertTrue(none.isEmpty());
+        SttJob failed = sttJobRepository.findById(exhausted.getJobId()).orElseThrow();
+        assertEquals(SttJob.FAILED, failed.getStatus());
+        assertNull(failed.getLockedBy());
+        assertNotNull(failed.getFinishedAt());
+
+        SttJob next = queued(-2002L);
+        Optional<SttJob> claimed = sttJobService.claim("node-a");
+        assertEquals(next.getJobId(), claimed.orElseThrow().getJobId());
+        assertEquals(1, claimed.get().getAttempts());
+        assertEquals(SttJob.RUNNING, sttJobRepository.findById(next.getJobId()).orElseThrow().getStatus());
+        assertTrue(sttJobService.claim("node-b").isEmpty());
+    }
+
+    private SttJob queued(Long meetingId) {
+        LocalDateTime now = LocalDateTime.now().minusSeconds(1);
+        SttJob job = new SttJob();
+        job.setMeetingId(meetingId);
+        job.setStatus(SttJob.QUEUED);
+        job.setAttempts(0);
+        job.setAvailableAt(now);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return save(job);
+    }
+
+    private SttJob save(SttJob job) {
+        SttJob saved = sttJobRepository.save(job);
+        created.add(saved.getJobId());
+        return saved;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ibkpoc.amn.service;
+
+import com.ibkpoc.amn.dto.SttContentDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SttTranscriptStitcherTest {
+    private static final float[] ALICE = {1f, 0f, 0f};
+    private static final float[] BOB = {0f, 1f, 0f};
+    private static final float[] CAROL = {0f, 0f, 1f};
+
+    @Test
+    void relabelsSpeakersAcrossSegmentsByEmbedding() {
+        SttTranscriptStitcher stitcher = new SttTranscriptStitcher(0.75, null);
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("SPEAKER_00", "안녕하세요", ALICE),
+                new SttTranscriptStitcher.Utterance("SPEAKER_01", "네 반갑습니다", BOB)));
+        // 다음 구간에서는 화자 분리 라벨이 뒤바뀌고 새 참가자가 등장
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("SPEAKER_00", "회의를 시작하죠", BOB),
+                new SttTranscriptStitcher.Utterance("SPEAKER_01", "좋습니다", ALICE),
+                new SttTranscriptStitcher.Utterance("SPEAKER_02", "늦어서 죄송합니다", CAROL)));
+
+        List<SttContentDto> transcript = stitcher.getTranscript();
+        // 구간 경계에서 같은 화자(BOB)가 이어 말하면 한 발화로 합침
+        assertEquals(4, transcript.size());
+        assertEquals("SPEAKER_00", transcript.get(0).getSpeaker());
+        assertEquals("SPEAKER_01", transcript.get(1).getSpeaker());
+        assertEquals("네 반갑습니다 회의를 시작하죠", transcript.get(1).getText());
+        assertEquals("SPEAKER_00", transcript.get(2).getSpeaker());
+        assertEquals("SPEAKER_02", transcript.get(3).getSpeaker());
+    }
+
+    @Test
+    void mergesIntoClosestSpeakerWhenParticipantCountReached() {
+        SttTranscriptStitcher stitcher = new SttTranscriptStitcher(0.99, 2);
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("A", "첫 번째", ALICE),
+                new SttTranscriptStitcher.Utterance("B", "두 번째", BOB)));
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("A", "세 번째", new float[]{0.9f, 0.3f, 0.1f})));
+
+        List<SttContentDto> transcript = stitcher.getTranscript();
+        assertEquals(3, transcript.size());
+        assertEquals("A", transcript.get(2).getSpeaker());
+    }
+
+    @Test
+    void scopesLabelsToSegmentWithoutEmbeddings() {
+        SttTranscriptStitcher stitcher = new SttTranscriptStitcher(0.75, null);
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("SPEAKER_00", "하나", null),
+                new SttTranscriptStitcher.Utterance("SPEAKER_01", "둘", null)));
+        // 구간마다 따로 붙인 라벨이라 같은 SPEAKER_01이어도 같은 사람으로 합치지 않음
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("SPEAKER_01", "셋", null),
+                new SttTranscriptStitcher.Utterance("SPEAKER_01", " ", null)));
+
+        List<SttContentDto> transcript = stitcher.getTranscript();
+        assertEquals(3, transcript.size());
+        assertEquals("seg1/SPEAKER_00", transcript.get(0).getSpeaker());
+        assertEquals("seg1/SPEAKER_01", transcript.get(1).getSpeaker());
+        assertEquals("seg2/SPEAKER_01", transcript.get(2).getSpeaker());
+        assertEquals("셋", transcript.get(2).getText());
+    }
+
+    @Test
+    void keepsServerLabelsForSingleSegmentWithoutEmbeddings() {
+        SttTranscriptStitcher stitcher = new SttTranscriptStitcher(0.75, null);
+        stitcher.append(List.of(
+                new SttTranscriptStitcher.Utterance("화자1", "하나", null),
+                new SttTranscriptStitcher.Utterance("화자2", "둘", null)));
+
+        List<SttContentDto> transcript = stitcher.getTranscript();
+        assertEquals(2, transcript.size());
+        assertEquals("화자1", transcript.get(0).getSpeaker());
+        assertEquals("화자2", transcript.get(1).getSpeaker());
+    }
+}
@@ -0,0 +1,243 @@
+package com.ibkpoc.amn.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3RecordingStorageTest {
+    private static final String ACCESS_KEY = "test-access";
+    private static final String SECRET_KEY = "test-secret";
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private S3RecordingStorage storage;
+    // 요청마다 서명을 다시 계산해 확인하는 S3 흉내 서버 (path-style, 멀티파트, Range)
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger partRequests = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.start();
+        storage = new S3RecordingStorage("http://127.0.0.1:" + server.getAddress().getPort(), "us-east-1",
+                "bucket", ACCESS_KEY, SECRET_KEY, 64 * 1024, 3, 16 * 1024);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.destroy();
+        server.stop(0);
+    }
+
+    @Test
+    void signsAwsReferenceRequest() {
+        // AWS SigV4 테스트 모음의 get-vanilla
+        S3Signer signer = new S3Signer("AKIDEXAMPLE", "wJalrXUtnFEMI/K7MDENG+bPxRfiCYEXAMPLEKEY",
+                "us-east-1", "service");
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("Host", "example.amazonaws.com");
+        headers.put("X-Amz-Date", "20150830T123600Z");
+        assertEquals("AWS4-HMAC-SHA256 Credential=AKIDEXAMPLE/20150830/us-east-1/service/aws4_request, "
+                        + "SignedHeaders=host;x-amz-date, "
+                        + "Signature=5fa00fa31553b73ebf1942676e86291e8372ff2a2260956d9b8aae1d763fbf31",
+                signer.authorization("GET", "/", new TreeMap<>(), headers, "20150830T123600Z",
+                        S3Signer.EMPTY_SHA256));
+    }
+
+    @Test
+    void uploadsSmallAndMultipartObjectsAndReadsRanges() throws IOException {
+        byte[] large = random(300 * 1024 + 17, 1);
+        byte[] small = random(1000, 2);
+        Path largeFile = Files.write(tempDir.resolve("seg_00000.amnl"), large);
+        Path smallFile = Files.write(tempDir.resolve("manifest.json"), small);
+
+        Map<String, Path> batch = new LinkedHashMap<>();
+        batch.put("2025/01/02/ab/meeting_1_2025-01-02 10:00:00/seg_00000.amnl", largeFile);
+        batch.put("2025/01/02/ab/meeting_1_2025-01-02 10:00:00/manifest.json", smallFile);
+        storage.putAll(batch);
+
+        assertEquals(5, partRequests.get());
+        assertArrayEquals(large, objects.get("bucket/2025/01/02/ab/meeting_1_2025-01-02 10:00:00/seg_00000.amnl"));
+        assertArrayEquals(small, objects.get("bucket/2025/01/02/ab/meeting_1_2025-01-02 10:00:00/manifest.json"));
+        assertTrue(uploads.isEmpty());
+
+        String location = storage.locationOf("2025/01/02/ab/meeting_1_2025-01-02 10:00:00/seg_00000.amnl");
+        assertTrue(RecordingStorage.isRemote(location));
+        try (SeekableByteChannel channel = storage.open(location)) {
+            assertEquals(large.length, channel.size());
+            ByteBuffer buf = ByteBuffer.allocate(100);
+            channel.position(200_000);
+            while (buf.hasRemaining()) {
+                channel.read(buf);
+            }
+            assertArrayEquals(Arrays.copyOfRange(large, 200_000, 200_100), buf.array());
+            // 한 번의 read-ahead 범위만 가져옴
+            assertEquals(1, rangeRequests.get());
+        }
+
+        Path downloaded = tempDir.resolve("downloaded.amnl");
+        storage.download(location, downloaded);
+        assertArrayEquals(large, Files.readAllBytes(downloaded));
+
+        storage.delete(location);
+        assertThrows(IOException.class, () -> storage.open(location));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            String rawPath = exchange.getRequestURI().getRawPath();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (!verifySignature(exchange, rawPath, rawQuery, body)) {
+                respond(exchange, 403, "<Error>SignatureDoesNotMatch</Error>".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String key = exchange.getRequestURI().getPath().substring(1);
+            Map<String, String> query = parse(rawQuery);
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    if (query.containsKey("partNumber")) {
+                        partRequests.incrementAndGet();
+                        uploads.get(query.get("uploadId")).put(Integer.parseInt(query.get("partNumber")), body);
+                    } else {
+                        objects.put(key, body);
+                    }
+                    exchange.getResponseHeaders().add("ETag", "\"" + S3Signer.sha256Hex(body) + "\"");
+                    respond(exchange, 200, new byte[0]);
+                }
+                case "POST" -> {
+                    if (query.containsKey("uploads")) {
+                        String uploadId = "upload-" + uploads.size();
+                        uploads.put(uploadId, new ConcurrentHashMap<>());
+                        respond(exchange, 200, ("<InitiateMultipartUploadResult><UploadId>" + uploadId
+                                + "</UploadId></InitiateMultipartUploadResult>").getBytes(StandardCharsets.UTF_8));
+                        return;
+                    }
+                    Map<Integer, byte[]> parts = uploads.remove(query.get("uploadId"));
+                    ByteArrayOutputStream joined = new ByteArrayOutputStream();
+                    Matcher m = Pattern.compile("<PartNumber>(\\d+)</PartNumber>").matcher(
+                            new String(body, StandardCharsets.UTF_8));
+                    while (m.find()) {
+                        joined.writeBytes(parts.get(Integer.parseInt(m.group(1))));
+                    }
+                    objects.put(key, joined.toByteArray());
+                    respond(exchange, 200, "<CompleteMultipartUploadResult/>".getBytes(StandardCharsets.UTF_8));
+                }
+                case "HEAD" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().add("Content-Length", Integer.toString(object.length));
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "GET" -> {
+                    byte[] object = objects.get(key);
+                    if (object == null) {
+                        respond(exchange, 404, "<Error>NoSuchKey</Error>".getBytes(StandardCharsets.UTF_8));
+                        return;
+                    }
+                    String range = exchange.getRequestHeaders().getFirst("Range");
+                    if (range == null) {
+                        respond(exchange, 200, object);
+                        return;
+                    }
+                    rangeRequests.incrementAndGet();
+                    String[] bounds = range.substring("bytes=".length()).split("-");
+                    int from = Integer.parseInt(bounds[0]);
+                    int to = Math.min(object.length - 1, Integer.parseInt(bounds[1]));
+                    respond(exchange, 206, Arrays.copyOfRange(object, from, to + 1));
+                }
+                case "DELETE" -> {
+                    if (query.containsKey("uploadId")) {
+                        uploads.remove(query.get("uploadId"));
+                    } else {
+                        objects.remove(key);
+                    }
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                default -> respond(exchange, 405, new byte[0]);
+            }
+        }
+    }
+
+    private boolean verifySignature(HttpExchange exchange, String rawPath, String rawQuery, byte[] body) {
+        String payloadHash = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String amzDate = exchange.getRequestHeaders().getFirst("x-amz-date");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (payloadHash == null || amzDate == null || authorization == null
+                || !payloadHash.equals(S3Signer.sha256Hex(body))) {
+            return false;
+        }
+        SortedMap<String, String> query = new TreeMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+            }
+        }
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("host", exchange.getRequestHeaders().getFirst("Host"));
+        headers.put("x-amz-date", amzDate);
+        headers.put("x-amz-content-sha256", payloadHash);
+        S3Signer signer = new S3Signer(ACCESS_KEY, SECRET_KEY, "us-east-1", "s3");
+        return authorization.equals(signer.authorization(exchange.getRequestMethod(), rawPath, query, headers,
+                amzDate, payloadHash));
+    }
+
+    private static Map<String, String> parse(String rawQuery) {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery != null) {
+            for (String pair : rawQuery.split("&")) {
+                int eq = pair.indexOf('=');
+                query.put(eq < 0 ? pair : pair.substring(0, eq), eq < 0 ? "" : pair.substring(eq + 1));
+            }
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+    private static byte[] random(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}